@@ -0,0 +1,175 @@
+package bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the operations every search performs on a 'Board': construction,
+ * copying, successor generation (the allocating list wrappers and the buffer-based
+ * generator), the goal test, and the full heuristic computations. Run with '-prof gc'
+ * to see the bytes allocated per operation next to the time
+ * @author Alex Amado
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BoardBenchmark {
+    /**
+     * Optimal solution length of the board operated on, its blank space position
+     * deciding how many successors it has
+     */
+    @Param({"8", "20"})
+    public String depth;
+
+    /**
+     * Initial state of the board operated on
+     */
+    private String initialState;
+    /**
+     * The board operated on (a 'Board')
+     */
+    private Object board;
+    /**
+     * Buffer the successors are generated into (a 'SuccessorBuffer')
+     */
+    private Object successors;
+
+    /**
+     * Builds the board and buffer once per trial
+     * @throws Throwable if a game operation fails
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        initialState = Corpus.puzzle(depth);
+        board = (Object) Game.NEW_BOARD.invokeExact(initialState);
+        successors = (Object) Game.NEW_SUCCESSOR_BUFFER.invokeExact();
+    }
+
+    /**
+     * Measures 'new Board(String)', which parses the string and computes every heuristic
+     * @return the new board
+     * @throws Throwable if the operation fails
+     */
+    @Benchmark
+    public Object construct() throws Throwable {
+        return (Object) Game.NEW_BOARD.invokeExact(initialState);
+    }
+
+    /**
+     * Measures 'Board.deepCopy()'
+     * @return the copy
+     * @throws Throwable if the operation fails
+     */
+    @Benchmark
+    public Object deepCopy() throws Throwable {
+        return (Object) Game.DEEP_COPY.invokeExact(board);
+    }
+
+    /**
+     * Measures 'Board.getSuccessorNodesBFSAStarGBFS()'
+     * @return the successors
+     * @throws Throwable if the operation fails
+     */
+    @Benchmark
+    public Object successorsBFSAStarGBFS() throws Throwable {
+        return (java.util.ArrayList<?>) Game.SUCCESSORS_BFS_ASTAR_GBFS.invokeExact(board);
+    }
+
+    /**
+     * Measures 'Board.getSuccessorNodesDFSDLS()'
+     * @return the successors
+     * @throws Throwable if the operation fails
+     */
+    @Benchmark
+    public Object successorsDFSDLS() throws Throwable {
+        return (java.util.ArrayList<?>) Game.SUCCESSORS_DFS_DLS.invokeExact(board);
+    }
+
+    /**
+     * Measures 'Board.generateSuccessors' into a reused buffer, what the searches call
+     * @return the buffer holding the successors
+     * @throws Throwable if the operation fails
+     */
+    @Benchmark
+    public Object generateSuccessors() throws Throwable {
+        Game.GENERATE_SUCCESSORS.invokeExact(board, Game.ORDER_BFS_ASTAR_GBFS, successors);
+        return successors;
+    }
+
+    /**
+     * Measures 'Board.isGoalState()'
+     * @return whether the board is a goal state
+     * @throws Throwable if the operation fails
+     */
+    @Benchmark
+    public boolean isGoalState() throws Throwable {
+        return (boolean) Game.IS_GOAL_STATE.invokeExact(board);
+    }
+
+    /**
+     * Measures the full computation of heuristic one on goal state 1
+     * @return the board
+     * @throws Throwable if the operation fails
+     */
+    @Benchmark
+    public Object heuristicOneGoalOne() throws Throwable {
+        return initialize(Game.INITIALIZE_HEURISTIC_ONE_GOAL_ONE);
+    }
+
+    /**
+     * Measures the full computation of heuristic one on goal state 2
+     * @return the board
+     * @throws Throwable if the operation fails
+     */
+    @Benchmark
+    public Object heuristicOneGoalTwo() throws Throwable {
+        return initialize(Game.INITIALIZE_HEURISTIC_ONE_GOAL_TWO);
+    }
+
+    /**
+     * Measures the full computation of heuristic two on goal state 1
+     * @return the board
+     * @throws Throwable if the operation fails
+     */
+    @Benchmark
+    public Object heuristicTwoGoalOne() throws Throwable {
+        return initialize(Game.INITIALIZE_HEURISTIC_TWO_GOAL_ONE);
+    }
+
+    /**
+     * Measures the full computation of heuristic two on goal state 2
+     * @return the board
+     * @throws Throwable if the operation fails
+     */
+    @Benchmark
+    public Object heuristicTwoGoalTwo() throws Throwable {
+        return initialize(Game.INITIALIZE_HEURISTIC_TWO_GOAL_TWO);
+    }
+
+    /**
+     * Runs one of the heuristic initializers on the board
+     * @param initializer handle of the initializer
+     * @return the board, so its result isn't optimized away
+     * @throws Throwable if the operation fails
+     */
+    private Object initialize(MethodHandle initializer) throws Throwable {
+        initializer.invokeExact(board);
+        return board;
+    }
+}
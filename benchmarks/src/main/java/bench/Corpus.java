@@ -0,0 +1,70 @@
+package bench;
+
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * This class holds the fixed puzzles the search benchmarks solve, graded by the length
+ * of their optimal solution so results can be compared run to run. A corpus file written
+ * by 'Main --corpus' can be used instead by passing '-jvmArgsAppend -Dpuzzle.corpus={file}':
+ * the benchmarks then solve the first puzzle of the file with the requested optimal length
+ * @author Alex Amado
+ */
+final class Corpus {
+    /**
+     * Corpus file the puzzles are taken from, null to use the fixed puzzles
+     */
+    private static final String CORPUS_FILE = System.getProperty("puzzle.corpus");
+    /**
+     * Puzzle whose optimal solution is 8 moves long
+     */
+    static final String DEPTH_8 = "12345 7896ECDBAF";
+    /**
+     * Puzzle whose optimal solution is 12 moves long
+     */
+    static final String DEPTH_12 = "53 42178A6BC9DEF";
+    /**
+     * Puzzle whose optimal solution is 16 moves long
+     */
+    static final String DEPTH_16 = "23 41978A5BC6DEF";
+    /**
+     * Puzzle whose optimal solution is 20 moves long
+     */
+    static final String DEPTH_20 = "5123A 78946CDEBF";
+
+    /**
+     * Constructs nothing, this class only holds puzzles
+     */
+    private Corpus() {
+    }
+
+    /**
+     * Returns the puzzle of a difficulty
+     * @param depth the optimal solution length, as a benchmark parameter ("8", "12", "16", or "20"
+     *              unless a corpus file is used)
+     * @return the initial state of the puzzle
+     * @throws Throwable if the corpus file can't be read
+     */
+    static String puzzle(String depth) throws Throwable {
+        if (CORPUS_FILE != null) {
+            int length = Integer.parseInt(depth);
+            List<?> puzzles = (List<?>) Game.READ_CORPUS_STATES.invokeExact(Paths.get(CORPUS_FILE), length, length);
+            if (puzzles.isEmpty()) {
+                throw new IllegalArgumentException("No puzzle of depth " + depth + " in " + CORPUS_FILE);
+            }
+            return (String) puzzles.get(0);
+        }
+        switch (depth) {
+            case "8":
+                return DEPTH_8;
+            case "12":
+                return DEPTH_12;
+            case "16":
+                return DEPTH_16;
+            case "20":
+                return DEPTH_20;
+            default:
+                throw new IllegalArgumentException("No puzzle of depth " + depth);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * This class gives the benchmarks access to the game's classes. Those live in the
+ * default package, which JMH refuses to generate benchmarks for and which no named
+ * package can import, so each operation is reached through a 'MethodHandle' instead.
+ * The handles are 'static final', which lets the JIT compiler treat them as constants
+ * and inline the target, so they add no measurable cost to the operation
+ * @author Alex Amado
+ */
+final class Game {
+    /**
+     * 'new Board(String)'
+     */
+    static final MethodHandle NEW_BOARD;
+    /**
+     * 'Board.deepCopy()'
+     */
+    static final MethodHandle DEEP_COPY;
+    /**
+     * 'Board.getSuccessorNodesBFSAStarGBFS()'
+     */
+    static final MethodHandle SUCCESSORS_BFS_ASTAR_GBFS;
+    /**
+     * 'Board.getSuccessorNodesDFSDLS()'
+     */
+    static final MethodHandle SUCCESSORS_DFS_DLS;
+    /**
+     * 'Board.generateSuccessors(int[], SuccessorBuffer)'
+     */
+    static final MethodHandle GENERATE_SUCCESSORS;
+    /**
+     * 'Board.isGoalState()'
+     */
+    static final MethodHandle IS_GOAL_STATE;
+    /**
+     * 'Board.initializeHeuristicOneGoalOne()' (private)
+     */
+    static final MethodHandle INITIALIZE_HEURISTIC_ONE_GOAL_ONE;
+    /**
+     * 'Board.initializeHeuristicOneGoalTwo()' (private)
+     */
+    static final MethodHandle INITIALIZE_HEURISTIC_ONE_GOAL_TWO;
+    /**
+     * 'Board.initializeHeuristicTwoGoalOne()' (private)
+     */
+    static final MethodHandle INITIALIZE_HEURISTIC_TWO_GOAL_ONE;
+    /**
+     * 'Board.initializeHeuristicTwoGoalTwo()' (private)
+     */
+    static final MethodHandle INITIALIZE_HEURISTIC_TWO_GOAL_TWO;
+    /**
+     * 'new SuccessorBuffer()'
+     */
+    static final MethodHandle NEW_SUCCESSOR_BUFFER;
+    /**
+     * 'SearchEngine.create(String)'
+     */
+    static final MethodHandle CREATE_ENGINE;
+    /**
+     * 'SearchOptions.fromCommandLine(String, String)'
+     */
+    static final MethodHandle OPTIONS_FROM_COMMAND_LINE;
+    /**
+     * 'SearchEngine.solve(String, SearchOptions)'
+     */
+    static final MethodHandle SOLVE;
+    /**
+     * 'SearchResult.isSolved()'
+     */
+    static final MethodHandle IS_SOLVED;
+    /**
+     * 'PuzzleCorpus.readStates(Path, int, int)'
+     */
+    static final MethodHandle READ_CORPUS_STATES;
+    /**
+     * 'Board.ORDER_BFS_ASTAR_GBFS'
+     */
+    static final int[] ORDER_BFS_ASTAR_GBFS;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Class<?> board = Class.forName("Board");
+            Class<?> successorBuffer = Class.forName("SuccessorBuffer");
+            Class<?> searchEngine = Class.forName("SearchEngine");
+            Class<?> searchOptions = Class.forName("SearchOptions");
+            Class<?> searchResult = Class.forName("SearchResult");
+            MethodHandles.Lookup boardLookup = MethodHandles.privateLookupIn(board, lookup);
+
+            NEW_BOARD = generic(lookup.findConstructor(board, MethodType.methodType(void.class, String.class)));
+            DEEP_COPY = generic(lookup.findVirtual(board, "deepCopy", MethodType.methodType(board)));
+            SUCCESSORS_BFS_ASTAR_GBFS = generic(lookup.findVirtual(board, "getSuccessorNodesBFSAStarGBFS",
+                    MethodType.methodType(java.util.ArrayList.class)));
+            SUCCESSORS_DFS_DLS = generic(lookup.findVirtual(board, "getSuccessorNodesDFSDLS",
+                    MethodType.methodType(java.util.ArrayList.class)));
+            GENERATE_SUCCESSORS = generic(lookup.findVirtual(board, "generateSuccessors",
+                    MethodType.methodType(void.class, int[].class, successorBuffer)));
+            IS_GOAL_STATE = generic(lookup.findVirtual(board, "isGoalState", MethodType.methodType(boolean.class)));
+            INITIALIZE_HEURISTIC_ONE_GOAL_ONE = generic(boardLookup.findVirtual(board,
+                    "initializeHeuristicOneGoalOne", MethodType.methodType(void.class)));
+            INITIALIZE_HEURISTIC_ONE_GOAL_TWO = generic(boardLookup.findVirtual(board,
+                    "initializeHeuristicOneGoalTwo", MethodType.methodType(void.class)));
+            INITIALIZE_HEURISTIC_TWO_GOAL_ONE = generic(boardLookup.findVirtual(board,
+                    "initializeHeuristicTwoGoalOne", MethodType.methodType(void.class)));
+            INITIALIZE_HEURISTIC_TWO_GOAL_TWO = generic(boardLookup.findVirtual(board,
+                    "initializeHeuristicTwoGoalTwo", MethodType.methodType(void.class)));
+            NEW_SUCCESSOR_BUFFER = generic(lookup.findConstructor(successorBuffer,
+                    MethodType.methodType(void.class)));
+            CREATE_ENGINE = generic(lookup.findStatic(searchEngine, "create",
+                    MethodType.methodType(searchEngine, String.class)));
+            OPTIONS_FROM_COMMAND_LINE = generic(lookup.findStatic(searchOptions, "fromCommandLine",
+                    MethodType.methodType(searchOptions, String.class, String.class)));
+            SOLVE = generic(lookup.findVirtual(searchEngine, "solve",
+                    MethodType.methodType(searchResult, String.class, searchOptions)));
+            IS_SOLVED = generic(lookup.findVirtual(searchResult, "isSolved", MethodType.methodType(boolean.class)));
+            READ_CORPUS_STATES = generic(lookup.findStatic(Class.forName("PuzzleCorpus"), "readStates",
+                    MethodType.methodType(java.util.List.class, java.nio.file.Path.class, int.class, int.class)));
+            ORDER_BFS_ASTAR_GBFS = (int[]) board.getField("ORDER_BFS_ASTAR_GBFS").get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Constructs nothing, this class only holds handles
+     */
+    private Game() {
+    }
+
+    /**
+     * Erases the game's types from a handle's signature so it can be invoked with
+     * 'invokeExact' from code which can't name them: every game class becomes 'Object'
+     * @param handle the handle to erase
+     * @return the handle with 'Object' in place of every game class
+     */
+    private static MethodHandle generic(MethodHandle handle) {
+        MethodType type = handle.type();
+        for (int i = 0; i < type.parameterCount(); i++) {
+            if (isGameClass(type.parameterType(i))) {
+                type = type.changeParameterType(i, Object.class);
+            }
+        }
+        if (isGameClass(type.returnType())) {
+            type = type.changeReturnType(Object.class);
+        }
+        return handle.asType(type);
+    }
+
+    /**
+     * Checks whether a class belongs to the game (lives in the default package)
+     * @param type the class
+     * @return true if 'type' is one of the game's classes
+     */
+    private static boolean isGameClass(Class<?> type) {
+        return !type.isPrimitive() && !type.isArray() && type.getPackageName().isEmpty();
+    }
+}
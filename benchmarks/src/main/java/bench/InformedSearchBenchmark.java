@@ -0,0 +1,37 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * This class runs 'SearchBenchmark' for the informed search engines, with the heuristic
+ * given after the method name
+ * @author Alex Amado
+ */
+public class InformedSearchBenchmark extends SearchBenchmark {
+    /**
+     * Search method and options, as given on the command line
+     */
+    @Param({"GBFS h2", "AStar h1", "AStar h2"})
+    public String search;
+    /**
+     * Optimal solution length of the puzzle solved
+     */
+    @Param({"8", "12", "16", "20"})
+    public String depth;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String search() {
+        return search;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String depth() {
+        return depth;
+    }
+}
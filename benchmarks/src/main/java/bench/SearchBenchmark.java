@@ -0,0 +1,87 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks end-to-end solves of the corpus puzzles by a search engine. One
+ * engine is created per trial and reused for every invocation, as the batch solver does,
+ * so the numbers include clearing its structures but not allocating them. The
+ * subclasses only list the search methods and depths they run, since uninformed
+ * searches can't reach the depths informed ones do. Run with '-prof gc' to see the
+ * bytes allocated per solve next to the time
+ * @author Alex Amado
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class SearchBenchmark {
+    /**
+     * Initial state of the puzzle solved
+     */
+    private String initialState;
+    /**
+     * The engine solving it (a 'SearchEngine')
+     */
+    private Object engine;
+    /**
+     * The options it is solved with (a 'SearchOptions')
+     */
+    private Object options;
+
+    /**
+     * Returns the search method and options, as given on the command line
+     * @return the value of the subclass's search parameter
+     */
+    protected abstract String search();
+
+    /**
+     * Returns the optimal solution length of the puzzle solved
+     * @return the value of the subclass's depth parameter
+     */
+    protected abstract String depth();
+
+    /**
+     * Creates the engine and options once per trial, and solves the puzzle once to
+     * check that every invocation will time a successful search
+     * @throws Throwable if a game operation fails
+     * @throws IllegalStateException if the puzzle isn't solved
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        String[] parts = search().split(" ");
+        String method = parts[0];
+        initialState = Corpus.puzzle(depth());
+        // DLS is limited to the optimal depth, the other methods take their options as is
+        String option = method.equals("DLS") ? depth() : parts.length > 1 ? parts[1] : null;
+        engine = (Object) Game.CREATE_ENGINE.invokeExact(method);
+        options = (Object) Game.OPTIONS_FROM_COMMAND_LINE.invokeExact(method, option);
+        if (!(boolean) Game.IS_SOLVED.invokeExact(solve())) {
+            throw new IllegalStateException(search() + " doesn't solve the puzzle of depth " + depth());
+        }
+    }
+
+    /**
+     * Measures one solve of the puzzle
+     * @return the result of the search
+     * @throws Throwable if the search fails
+     */
+    @Benchmark
+    public Object solve() throws Throwable {
+        return (Object) Game.SOLVE.invokeExact(engine, initialState, options);
+    }
+}
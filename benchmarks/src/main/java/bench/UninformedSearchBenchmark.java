@@ -0,0 +1,38 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * This class runs 'SearchBenchmark' for the uninformed search engines. They stop at
+ * depth 16, past which a single solve of BFS takes seconds. DLS is limited to the
+ * optimal depth
+ * @author Alex Amado
+ */
+public class UninformedSearchBenchmark extends SearchBenchmark {
+    /**
+     * Search method, as given on the command line
+     */
+    @Param({"BFS", "BiBFS", "ParBFS", "ExtBFS", "DLS"})
+    public String search;
+    /**
+     * Optimal solution length of the puzzle solved
+     */
+    @Param({"8", "12", "16"})
+    public String depth;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String search() {
+        return search;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String depth() {
+        return depth;
+    }
+}
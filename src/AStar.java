@@ -1,15 +1,10 @@
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.PriorityQueue;
-import java.util.Set;
-
 /**
  * This class represents a search method (A*) which is ran when the user wants to
  * run this specific search method. This search methods searches over a 15-puzzle
  * tile game in hopes of finding a goal state/board
  * @author Alex Amado
  */
-public class AStar {
+public class AStar implements SearchEngine {
     /**
      * String to compare against when deciphering if user wants heuristic 1
      */
@@ -18,11 +13,15 @@ public class AStar {
      * String to compare against when deciphering if user wants heuristic 2
      */
     private static final String HEURISTIC_TWO = "h2";
+    /**
+     * String to compare against when deciphering if user wants heuristic 3
+     */
+    private static final String HEURISTIC_THREE = "h3";
 
     /**
      * Our fringe data structure for this algorithm
      */
-    private PriorityQueue<Node> myPrioQueue;
+    private BucketQueue<Node> myPrioQueue;
     /**
      * Represents the depth in the search tree where the solution is found
      */
@@ -44,7 +43,11 @@ public class AStar {
     /**
      * A set which takes care of not visiting already visited states/boards
      */
-    private Set<String> visited;
+    private LongHashSet visited;
+    /**
+     * Reusable buffer the successors of each expanded board/node are written into
+     */
+    private SuccessorBuffer successors;
     /**
      * A boolean value which indicates whether the user wanted to run this algorithm with
      * heuristic 1
@@ -55,79 +58,157 @@ public class AStar {
      * heuristic 2
      */
     private boolean isHeuristicTwo;
+    /**
+     * A boolean value which indicates whether the user wanted to run this algorithm with
+     * heuristic 3
+     */
+    private boolean isHeuristicThree;
+    /**
+     * Pattern database used to measure heuristic 3 (null until heuristic 3 is first used)
+     */
+    private PatternDatabase patternDatabase;
+    /**
+     * Policy used to order nodes sharing a priority in the fringe
+     */
+    private TieBreak tieBreak;
+    /**
+     * Whether nodes sharing a priority are ordered by their depth first, the key
+     * of their sub-bucket in the fringe
+     */
+    private boolean isTieBreakOnDepth;
+    /**
+     * Records the search tree so the solution path can be rebuilt (created the first
+     * time a path is asked for)
+     */
+    private PathArena pathArena;
+    /**
+     * Whether the current call to 'solve()' records the solution path
+     */
+    private boolean recordPath;
+    /**
+     * Value of 'System.nanoTime()' when the current call to 'solve()' started
+     */
+    private long startNanos;
+    /**
+     * Packed goal state reachable from the initial state of the current call to
+     * 'solve()', the only one a board is compared against
+     */
+    private long goalState;
+
+    /**
+     * Constructs a A* object which allocates the structures reused by every call
+     * to 'solve()'
+     */
+    public AStar() {
+        // Create new set of visited states
+        visited = new LongHashSet();
+        // Create reusable successor buffer
+        successors = new SuccessorBuffer();
+    }
 
     /**
-     * Constructs a A* object which initializes properties of a A* such as
-     * statistical measurements, and runs the 'search()' method as well
+     * Initializes statistical measurements and runs the search algorithm on
+     * 'initialState', reusing the structures of previous calls
      * @param initialState user provided initial state of the board the user
      *                     wants to start from on search
-     * @param theHeuristic user provided heuristic to invoke on each state at each
-     *                     moment of the search (number of missing tiles and
-     *                     sum of Manhattan distances to each cell of the boards
-     *                     correct positions)
+     * @param options the heuristic to invoke on each state at each moment of the
+     *                search (number of missing tiles and sum of Manhattan distances
+     *                to each cell of the boards correct positions, or the pattern
+     *                database), the tie-breaking policy, path recording, and time limit
+     * @return the stats (and path, if recorded) of the search
      */
-    public AStar(String initialState, String theHeuristic) {
+    @Override
+    public SearchResult solve(String initialState, SearchOptions options) {
+        startNanos = System.nanoTime();
+        Deadline deadline = options.startDeadline();
+        // Only one of the two goal states can be reached, answer at once if it isn't accepted
+        goalState = options.targetGoal(PackedState.encode(initialState));
+        if (goalState == PackedState.NO_STATE) {
+            return SearchResult.notFound(System.nanoTime() - startNanos);
+        }
+        // Initialize which heuristic to choose
+        String theHeuristic = options.getHeuristic();
+        isHeuristicOne = theHeuristic.equals(HEURISTIC_ONE);
+        isHeuristicThree = theHeuristic.equals(HEURISTIC_THREE);
+        isHeuristicTwo = !isHeuristicOne && !isHeuristicThree;
+        if (isHeuristicThree && patternDatabase == null) {
+            patternDatabase = PatternDatabase.getDefault();
+        }
+        // Initialize how nodes sharing a priority are ordered
+        TieBreak previousTieBreak = tieBreak;
+        tieBreak = options.getTieBreak();
+        isTieBreakOnDepth = tieBreak == TieBreak.HIGH_G || tieBreak == TieBreak.LOW_G;
+        // The fringe is only created again when the tie-breaking policy changes
+        if (myPrioQueue == null || tieBreak != previousTieBreak) {
+            myPrioQueue = new BucketQueue<>(tieBreak == TieBreak.FIFO, tieBreak == TieBreak.HIGH_G);
+        }
+        myPrioQueue.clear();
+        visited.clear();
+        // Record the search tree only when the solution path was asked for
+        recordPath = options.isRecordPath();
+        if (recordPath) {
+            if (pathArena == null) {
+                pathArena = new PathArena();
+            }
+            pathArena.clear();
+        }
         // Create new 'Board' object with 'initialState'
         Board rootBoard = new Board(initialState);
         // Create new 'Node' object with 'rootBoard'
-        Node rootNode = new Node(rootBoard, rootBoard.getDepth());
-        myPrioQueue = new PriorityQueue<>();
+        Node rootNode = new Node(rootBoard, rootBoard.getDepth(), recordPath ? pathArena.addRoot() : -1);
         // Add new 'Board' object to queue
-        myPrioQueue.add(rootNode);
+        myPrioQueue.add(rootNode, rootNode.getPriority(), rootNode.getTieKey());
         maxDepth = 0;
         nodesCreated = 1;
         nodesExpanded = 0;
         maxFringeSize = myPrioQueue.size();
-        // Create new set of visited states
-        visited = new HashSet<>();
-        // Initialize which heuristic to choose
-        if (theHeuristic.equals(HEURISTIC_ONE)) {
-            isHeuristicOne = true;
-        } else {
-            isHeuristicTwo = true;
-        }
         // Run the search algorithm
-        search();
+        return search(deadline);
     }
 
     /**
-     * Runs the search algorithm on 'initialState' passed by user from
-     * the constructor and reports stats on completion
+     * Runs the search algorithm on the board placed in the queue by 'solve()'
+     * @param deadline the time limit of the search
+     * @return the stats (and path, if recorded) of the search
      */
-    private void search() {
+    private SearchResult search(Deadline deadline) {
+        Node solution = null;
         while (!myPrioQueue.isEmpty()) {
             // Dequeue head of queue
             Node node = myPrioQueue.remove();
             // Store board state of 'node'
             Board board = node.myState;
-            // Get String representation of 'board'
-            String strBoard = board.getState();
+            // Get packed representation of 'board'
+            long packedBoard = board.getPackedState();
             // Add dequeue'd board/node to 'visited' set
-            visited.add(strBoard);
+            visited.add(packedBoard);
             // Increment 'nodesExpanded'
             nodesExpanded++;
-            // Check if dequeue'd board is equal to either goal states
-            if (board.isGoalState()) {
+            if ((nodesExpanded & (Deadline.CHECK_INTERVAL - 1)) == 0) {
+                deadline.check();
+            }
+            // Check if dequeue'd board is equal to the reachable goal state
+            if (packedBoard == goalState) {
+                solution = node;
                 maxDepth = board.getDepth();
                 break;
             }
             // Get successor boards/nodes
-            ArrayList<Board> successorBoards = board.getSuccessorNodesBFSAStarGBFS();
+            board.generateSuccessors(Board.ORDER_BFS_ASTAR_GBFS, successors);
             // Iterate over every successor board/node and add to the queue
-            for (Board successorBoard : successorBoards) {
-                // Check if 'successorBoard' was already previously added to 'visited' set
-                if (visited.contains(successorBoard.getState())) {
+            for (int i = 0; i < successors.size(); i++) {
+                // Check if successor was already previously added to 'visited' set
+                if (visited.contains(successors.getState(i))) {
                     continue;
                 }
-                // Increment 'numCreated' by number of 'successorBoards'
+                // Increment 'numCreated' by number of successors
                 nodesCreated++;
-                // Get parent's depth (parent is the 'board' local variable)
-                int parentDepth = board.getDepth();
-                // Set successor board's/node's to be equal to 1 + 'parentDepth'
-                successorBoard.setDepth(parentDepth + 1);
+                // Create successor board/node with depth 1 + parent's depth (parent is the 'board' local variable)
+                Board successorBoard = successors.toBoard(i, board.getDepth() + 1);
                 // Create new 'Node' object from 'successorBoard'
-                Node successorNode = new Node(successorBoard, successorBoard.getDepth());
-                myPrioQueue.add(successorNode);
+                int pathIndex = recordPath ? pathArena.add(node.myPathIndex, successors.getMove(i)) : -1;
+                Node successorNode = new Node(successorBoard, successorBoard.getDepth(), pathIndex);
+                myPrioQueue.add(successorNode, successorNode.getPriority(), successorNode.getTieKey());
             }
 
             // Check if fringe size is the max we've seen so far
@@ -135,23 +216,49 @@ public class AStar {
                 maxFringeSize = myPrioQueue.size();
             }
         }
-        System.out.println(maxDepth + ", " + nodesCreated + ", " + nodesExpanded + ", " + maxFringeSize);
+        String solutionPath = recordPath && solution != null ? pathArena.path(solution.myPathIndex) : null;
+        return new SearchResult(maxDepth, nodesCreated, nodesExpanded, maxFringeSize, solutionPath,
+                System.nanoTime() - startNanos);
     }
 
     /**
-     * This class represents a way to apply a natural ordering of states/boards through
-     * implementation of 'Comparable<Node>' needed for use of data structure this
-     * particular algorithm utilizes
+     * Measures the heuristic the user provided on 'board' for the goal state reachable
+     * from it. The other goal state can never be reached, so its (possibly smaller)
+     * measurement would only loosen the estimate
+     * @param board the state/board to measure
+     * @return the heuristic value of 'board'
      */
-    private class Node implements Comparable<Node> {
+    private int heuristicOf(Board board) {
+        if (isHeuristicOne) {
+            return goalState == PackedState.GOAL_ONE ? board.getHeuristicOneGoalOne() : board.getHeuristicOneGoalTwo();
+        } else if (isHeuristicThree) {
+            return patternDatabase.estimate(board.getPackedState(), goalState);
+        }
+        return goalState == PackedState.GOAL_ONE ? board.getHeuristicTwoGoalOne() : board.getHeuristicTwoGoalTwo();
+    }
+
+    /**
+     * This class represents a state/board in the fringe along with its priority, which
+     * is computed once on construction
+     */
+    private class Node {
         /**
          * Represents this 'Node's data which it holds, being a 'Board'
          */
-        private Board myState;
+        private final Board myState;
         /**
          * Represents the accumulative cost needed to get to 'this' 'Node'
          */
-        private int myAccumulativeCost;
+        private final int myAccumulativeCost;
+        /**
+         * Represents the priority of 'this' 'Node' in the fringe, being the accumulative
+         * cost plus the heuristic the user provided (f = g + h)
+         */
+        private final int myPriority;
+        /**
+         * Represents the index of 'this' 'Node' in the 'PathArena' (-1 when no path is recorded)
+         */
+        private final int myPathIndex;
 
         /**
          * Constructs a 'Node' object and initializes our state field as
@@ -159,51 +266,30 @@ public class AStar {
          * @param theState the state/board used to initialize our state field
          * @param theAccumulativeCost the accumulative cost used to initialize
          *                            our cost field
+         * @param thePathIndex index of this 'Node' in the 'PathArena' (-1 when no path is recorded)
          */
-        public Node(Board theState, int theAccumulativeCost) {
+        public Node(Board theState, int theAccumulativeCost, int thePathIndex) {
             myState = theState;
             myAccumulativeCost = theAccumulativeCost;
+            myPriority = theAccumulativeCost + heuristicOf(theState);
+            myPathIndex = thePathIndex;
         }
 
         /**
-         * This method gives natural ordering for the PriorityQueue to work by comparing
-         * the minimum heuristic measurement for goal state 1 and 2 plus accumulative cost
-         * (which is simply the depth) for 'this' object's state and minimum
-         * heuristic measurement for goal state 1 and 2 plus accumulative cost
-         * (which is still simply the depth) for another 'Node' object's state
-         * depending on which heuristic the user provided
-         * @param theOtherNode the other 'Node' object to compare state heuristics with
-         * @return -1 if 'this' state's heuristic is lower than the other, 0 if they're
-         * equal in heuristic, and +1 if 'this' state's heuristic is greater than the
-         * other
+         * Returns the priority of 'this' 'Node' in the fringe
+         * @return the priority (f = g + h), lower priorities are expanded first
          */
-        @Override
-        public int compareTo(Node theOtherNode) {
-            int result = 0;
-            Board theOtherState = theOtherNode.myState;
-            int theOtherAccumulativeCost = theOtherNode.myAccumulativeCost;
-            // Get minimum first heuristic out of the two goal states for 'this'
-            int thisHeuristicOne = Math.min(myState.getHeuristicOneGoalOne(), myState.getHeuristicOneGoalTwo());
-            // Get minimum first heuristic out of the two goal states for 'theOtherNode'
-            int otherHeuristicOne = Math.min(theOtherState.getHeuristicOneGoalOne(), theOtherState.getHeuristicOneGoalTwo());
-            // Get minimum second heuristic out of the two goal states for 'this'
-            int thisHeuristicTwo = Math.min(myState.getHeuristicTwoGoalOne(), myState.getHeuristicTwoGoalTwo());
-            // Get minimum second heuristic out of the two goal states for 'theOtherNode'
-            int otherHeuristicTwo = Math.min(theOtherState.getHeuristicTwoGoalOne(), theOtherState.getHeuristicTwoGoalTwo());
-            if (isHeuristicOne) {
-                if (thisHeuristicOne + myAccumulativeCost < otherHeuristicOne + theOtherAccumulativeCost) {
-                    result = -1;
-                } else {
-                    result = 1;
-                }
-            } else {
-                if (thisHeuristicTwo + myAccumulativeCost < otherHeuristicTwo + myAccumulativeCost) {
-                    result = -1;
-                } else {
-                    result = 1;
-                }
-            }
-            return result;
+        public int getPriority() {
+            return myPriority;
+        }
+
+        /**
+         * Returns the key of 'this' 'Node' within its priority in the fringe
+         * @return the depth (g) if nodes sharing a priority are ordered by depth, 0 otherwise
+         */
+        public int getTieKey() {
+            return isTieBreakOnDepth ? myAccumulativeCost : 0;
         }
+
     }
 }
\ No newline at end of file
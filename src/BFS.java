@@ -1,16 +1,14 @@
-import java.util.*;
-
 /**
  * This class represents a search method (BFS) which is ran when the user wants to
  * run this specific search method. This search methods searches over a 15-puzzle
  * tile game in hopes of finding a goal state/board
  * @author Alex Amado
  */
-public class BFS {
+public class BFS implements SearchEngine {
     /**
      * Our fringe data structure for this algorithm
      */
-    private Queue<Board> myQueue;
+    private StateQueue myQueue;
     /**
      * Represents the depth in the search tree where the solution is found
      */
@@ -32,70 +30,131 @@ public class BFS {
     /**
      * A set which takes care of not visiting already visited states/boards
      */
-    private Set<String> visited;
+    private LongHashSet visited;
+    /**
+     * Records the search tree so the solution path can be rebuilt (created the first
+     * time a path is asked for). Since the queue is FIFO, boards leave it in the order
+     * they were added to the arena, so the n-th expanded board is node n - 1
+     */
+    private PathArena pathArena;
+    /**
+     * Whether the current call to 'solve()' records the solution path
+     */
+    private boolean recordPath;
+    /**
+     * Value of 'System.nanoTime()' when the current call to 'solve()' started
+     */
+    private long startNanos;
+    /**
+     * Packed goal state reachable from the initial state of the current call to
+     * 'solve()', the only one a board is compared against
+     */
+    private long goalState;
 
     /**
-     * Constructs a BFS object which initializes properties of a BFS such as
-     * statistical measurements, and runs the 'search()' method as well
-     * @param initialState
+     * Constructs a BFS object which allocates the structures reused by every call
+     * to 'solve()'
      */
-    public BFS(String initialState) {
-        // Create new 'Board' object with 'initialState'
-        Board rootBoard = new Board(initialState);
-        myQueue = new LinkedList<>();
-        // Add new 'Board' object to queue
-        myQueue.add(rootBoard);
+    public BFS() {
+        myQueue = new StateQueue();
+        // Create new set of visited states
+        visited = new LongHashSet();
+    }
+
+    /**
+     * Initializes statistical measurements and runs the search algorithm on
+     * 'initialState', reusing the structures of previous calls
+     * @param initialState user provided initial state of the board the user
+     *                     wants to start from on search
+     * @param options path recording and time limit of the search
+     * @return the stats (and path, if recorded) of the search
+     */
+    @Override
+    public SearchResult solve(String initialState, SearchOptions options) {
+        startNanos = System.nanoTime();
+        Deadline deadline = options.startDeadline();
+        // Only one of the two goal states can be reached, answer at once if it isn't accepted
+        long initial = PackedState.encode(initialState);
+        goalState = options.targetGoal(initial);
+        if (goalState == PackedState.NO_STATE) {
+            return SearchResult.notFound(System.nanoTime() - startNanos);
+        }
+        myQueue.clear();
+        visited.clear();
+        // Add the root to queue
+        myQueue.add(initial, 0);
+        // Record the search tree only when the solution path was asked for
+        recordPath = options.isRecordPath();
+        if (recordPath) {
+            if (pathArena == null) {
+                pathArena = new PathArena();
+            }
+            pathArena.clear();
+            pathArena.addRoot();
+        }
         maxDepth = 0;
         nodesCreated = 1;
         nodesExpanded = 0;
-        maxFringeSize = myQueue.size();
-        // Create new set of visited states
-        visited = new HashSet<>();
+        maxFringeSize = 1;
         // Run the search algorithm
-        search();
+        return search(deadline);
     }
 
     /**
-     * Runs the search algorithm on 'initialState' passed by user from
-     * the constructor and reports stats on completion
+     * Runs the search algorithm on the board placed in the queue by 'solve()'
+     * @param deadline the time limit of the search
+     * @return the stats (and path, if recorded) of the search
      */
-    private void search() {
+    private SearchResult search(Deadline deadline) {
+        String solutionPath = null;
         while (!myQueue.isEmpty()) {
             // Dequeue head of queue
-            Board board = myQueue.remove();
-            // Get String representation of 'board'
-            String strBoard = board.getState();
+            int head = myQueue.remove();
+            // Get packed representation and depth of the board/node
+            long packedBoard = myQueue.getState(head);
+            int depth = myQueue.getDepth(head);
             // Add dequeue'd board/node to 'visited' set
-            visited.add(strBoard);
+            visited.add(packedBoard);
             // Increment 'nodesExpanded'
             nodesExpanded++;
-            // Check if dequeue'd board is equal to either goal states
-            if (board.isGoalState()) {
-                maxDepth = board.getDepth();
+            if ((nodesExpanded & (Deadline.CHECK_INTERVAL - 1)) == 0) {
+                deadline.check();
+            }
+            // Check if dequeue'd board is equal to the reachable goal state
+            if (packedBoard == goalState) {
+                maxDepth = depth;
+                if (recordPath) {
+                    solutionPath = pathArena.path(nodesExpanded - 1);
+                }
                 break;
             }
             // Get successor boards/nodes
-            ArrayList<Board> successorBoards = board.getSuccessorNodesBFSAStarGBFS();
-            // Iterate over every successor board/node and add to the queue
-            for (Board successorBoard : successorBoards) {
-                // Check if 'successorBoard' was already previously added to 'visited' set
-                if (visited.contains(successorBoard.getState())) {
+            int blank = PackedState.blankIndex(packedBoard);
+            for (int move : Board.ORDER_BFS_ASTAR_GBFS) {
+                int target = Board.moveTarget(blank, move);
+                if (target < 0) {
                     continue;
                 }
-                // Increment 'numCreated' by number of 'successorBoards'
+                long successor = PackedState.move(packedBoard, blank, target);
+                // Check if successor was already previously added to 'visited' set
+                if (visited.contains(successor)) {
+                    continue;
+                }
+                // Increment 'numCreated' by number of successors
                 nodesCreated++;
-                // Get parent's depth (parent is the 'board' local variable)
-                int parentDepth = board.getDepth();
-                // Set successor board's/node's to be equal to 1 + 'parentDepth'
-                successorBoard.setDepth(parentDepth + 1);
-                myQueue.add(successorBoard);
+                // Create successor board/node with depth 1 + parent's depth
+                myQueue.add(successor, depth + 1);
+                if (recordPath) {
+                    pathArena.add(nodesExpanded - 1, move);
+                }
             }
 
             // Check if fringe size is the max we've seen so far
             if (myQueue.size() > maxFringeSize) {
-                maxFringeSize = myQueue.size();
+                maxFringeSize = (int) myQueue.size();
             }
         }
-        System.out.println(maxDepth + ", " + nodesCreated + ", " + nodesExpanded + ", " + maxFringeSize);
+        return new SearchResult(maxDepth, nodesCreated, nodesExpanded, maxFringeSize, solutionPath,
+                System.nanoTime() - startNanos);
     }
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class represents a batch run which solves every puzzle of a file with the same
+ * search method, spread over a pool of threads. Each thread keeps one 'SearchEngine'
+ * and reuses it for every puzzle it is handed, so the fringe and visited set are
+ * recycled and the JVM start-up and JIT warm-up are paid once per batch instead of
+ * once per puzzle. Results are written in the order the puzzles appear in the file
+ * @author Alex Amado
+ */
+public class BatchSolver {
+    /**
+     * Search method every puzzle is solved with
+     */
+    private final String searchMethod;
+    /**
+     * Heuristic or depth limit of 'searchMethod' (null for 'BFS', 'DFS', 'BiBFS',
+     * 'ParBFS', 'ExtBFS', and 'IDDFS')
+     */
+    private final String options;
+    /**
+     * Number of puzzles solved concurrently
+     */
+    private final int threads;
+    /**
+     * Options every puzzle is solved with, time limit included
+     */
+    private final SearchOptions searchOptions;
+    /**
+     * Engine of each worker thread, created on its first puzzle and then reused
+     */
+    private final ThreadLocal<SearchEngine> engines;
+
+    /**
+     * Constructs a 'BatchSolver' object
+     * @param theSearchMethod search method every puzzle is solved with
+     * @param theOptions heuristic or depth limit of the search method (null for
+     *                   'BFS', 'DFS', 'BiBFS', 'ParBFS', 'ExtBFS', and 'IDDFS')
+     * @param theThreads number of puzzles solved concurrently
+     * @param theTimeLimitMillis time limit of each puzzle in milliseconds, 0 for no limit
+     */
+    public BatchSolver(String theSearchMethod, String theOptions, int theThreads, long theTimeLimitMillis) {
+        this(theSearchMethod, theOptions, theThreads, SearchOptions.DEFAULT.withTimeLimitMillis(theTimeLimitMillis));
+    }
+
+    /**
+     * Constructs a 'BatchSolver' object
+     * @param theSearchMethod search method every puzzle is solved with
+     * @param theOptions heuristic or depth limit of the search method (null for
+     *                   'BFS', 'DFS', 'BiBFS', 'ParBFS', 'ExtBFS', and 'IDDFS')
+     * @param theThreads number of puzzles solved concurrently
+     * @param theBaseOptions options 'theOptions' is applied to, time limit included
+     */
+    public BatchSolver(String theSearchMethod, String theOptions, int theThreads, SearchOptions theBaseOptions) {
+        if (theThreads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive: " + theThreads);
+        }
+        searchMethod = theSearchMethod;
+        options = theOptions;
+        threads = theThreads;
+        searchOptions = theBaseOptions.withCommandLineOption(theSearchMethod, theOptions);
+        engines = ThreadLocal.withInitial(this::createEngine);
+    }
+
+    /**
+     * Creates the engine of a worker thread. A HDA* engine gets its share of the
+     * available processors instead of all of them, since 'threads' engines search at once
+     * @return a new engine running 'searchMethod'
+     */
+    private SearchEngine createEngine() {
+        if (searchMethod.equals("HDAStar")) {
+            return new HDAStar(HDAStar.defaultThreads(threads));
+        }
+        return SearchEngine.create(searchMethod);
+    }
+
+    /**
+     * Solves every puzzle and writes the result of each to 'sink', in input order
+     * @param puzzles initial states of the boards to solve, already validated
+     * @param sink where the results are written, flushed once every puzzle is written
+     * @throws IOException if 'sink' fails
+     */
+    public void solveAll(List<String> puzzles, ResultSink sink) throws IOException {
+        solveAll(puzzles, (index, result) -> sink.write(index, puzzles.get(index), searchMethod, options, result));
+        sink.flush();
+    }
+
+    /**
+     * Solves every puzzle and collects the results
+     * @param puzzles initial states of the boards to solve, already validated
+     * @return the result of each puzzle, in input order
+     */
+    public List<SearchResult> solveAll(List<String> puzzles) {
+        List<SearchResult> results = new ArrayList<>(puzzles.size());
+        try {
+            solveAll(puzzles, (index, result) -> results.add(result));
+        } catch (IOException e) {
+            throw new IllegalStateException("Collecting results can't fail", e);
+        }
+        return results;
+    }
+
+    /**
+     * Solves every puzzle and hands the result of each to 'consumer', in input order
+     * @param puzzles initial states of the boards to solve, already validated
+     * @param consumer receives each result as soon as it and every earlier one are done
+     * @throws IOException if 'consumer' fails
+     */
+    private void solveAll(List<String> puzzles, ResultConsumer consumer) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<SearchResult>> results = new ArrayList<>(puzzles.size());
+            for (String initialState : puzzles) {
+                results.add(pool.submit(() -> solve(initialState)));
+            }
+            // Waiting on the futures in submission order keeps the output in input order
+            for (int i = 0; i < results.size(); i++) {
+                consumer.accept(i, results.get(i).get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch run was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Solves a single puzzle with the engine of the calling thread
+     * @param initialState the initial state of the board
+     * @return the result of the search, marked as timed out if it exceeded its time limit,
+     * or as out of memory if it outgrew the heap, so the other puzzles are still solved
+     */
+    private SearchResult solve(String initialState) {
+        SearchEngine engine = engines.get();
+        long start = System.nanoTime();
+        try {
+            return engine.solve(initialState, searchOptions);
+        } catch (CancellationException e) {
+            return SearchResult.timedOut(System.nanoTime() - start);
+        } catch (OutOfMemoryError e) {
+            // Drop the engine so its grown structures can be collected, the next puzzle gets a new one
+            engines.remove();
+            return SearchResult.outOfMemory(0, 0, 0, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Reads the puzzles of a batch file, one initial state per line. Lines are taken
+     * as is (a leading or trailing space is the blank space), and empty lines are skipped
+     * @param puzzleFile the batch file
+     * @return the initial states, in file order
+     * @throws IOException if the file can't be read
+     */
+    public static List<String> readPuzzles(Path puzzleFile) throws IOException {
+        List<String> puzzles = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(puzzleFile, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (!Main.verifyInitialState(line)) {
+                throw new IllegalArgumentException("Invalid initial state on line " + lineNumber + ": \"" + line + "\"");
+            }
+            puzzles.add(line);
+        }
+        return puzzles;
+    }
+
+    /**
+     * This interface represents what is done with the result of each puzzle of a batch
+     * @author Alex Amado
+     */
+    private interface ResultConsumer {
+        /**
+         * Handles the result of one puzzle
+         * @param index position of the puzzle in the batch
+         * @param result the result of its search
+         * @throws IOException if the result can't be written
+         */
+        void accept(int index, SearchResult result) throws IOException;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,265 @@
+import java.util.Arrays;
+
+/**
+ * This class represents a search method (bidirectional BFS) which is ran when the user
+ * wants to run this specific search method. Two breadth-first searches run at once, one
+ * from the initial state and one backwards from the goal state reachable from it, and
+ * the search stops as soon as they meet. Each search only has to reach about half the
+ * solution depth, so the number of states grows as twice b^(d/2) instead of b^d. States
+ * are kept packed: each side holds its layers in 'long' arrays and what it visited in a
+ * 'LongIntHashMap', so no 'Board' is ever created
+ * @author Alex Amado
+ */
+public class BidirectionalBFS implements SearchEngine {
+    /**
+     * The search from the initial state
+     */
+    private final Frontier forward;
+    /**
+     * The search from the goal state
+     */
+    private final Frontier backward;
+    /**
+     * Represents the depth in the search tree where the solution is found
+     */
+    private int maxDepth;
+    /**
+     * Represents the counter that is incremented every time a node of the
+     * search tree is created, on either side
+     */
+    private long nodesCreated;
+    /**
+     * Represents the counter that will be incremented every time the search
+     * algorithm acquires the successor states to the current state, on either side
+     */
+    private long nodesExpanded;
+    /**
+     * Represents the maximum size of the fringe at any point during the search, for
+     * bidirectional BFS the sum of the layers waiting to be expanded on both sides
+     */
+    private long maxFringeSize;
+    /**
+     * Time limit of the current call to 'solve()'
+     */
+    private Deadline deadline;
+    /**
+     * Value of 'System.nanoTime()' when the current call to 'solve()' started
+     */
+    private long startNanos;
+
+    /**
+     * Constructs a bidirectional BFS object which allocates the structures reused by
+     * every call to 'solve()'
+     */
+    public BidirectionalBFS() {
+        forward = new Frontier();
+        backward = new Frontier();
+    }
+
+    /**
+     * Initializes statistical measurements and runs the search algorithm on
+     * 'initialState', reusing the structures of previous calls
+     * @param initialState user provided initial state of the board the user
+     *                     wants to start from on search
+     * @param options path recording, accepted goal state, and time limit of the search
+     * @return the stats (and path, if recorded) of the search
+     */
+    @Override
+    public SearchResult solve(String initialState, SearchOptions options) {
+        startNanos = System.nanoTime();
+        deadline = options.startDeadline();
+        long initial = PackedState.encode(initialState);
+        // Only one of the two goal states can be reached, answer at once if it isn't accepted
+        long goalState = options.targetGoal(initial);
+        if (goalState == PackedState.NO_STATE) {
+            return SearchResult.notFound(System.nanoTime() - startNanos);
+        }
+        if (initial == goalState) {
+            return new SearchResult(0, 1, 0, 1, options.isRecordPath() ? "" : null, System.nanoTime() - startNanos);
+        }
+        forward.reset(initial);
+        backward.reset(goalState);
+        maxDepth = 0;
+        nodesCreated = 2;
+        nodesExpanded = 0;
+        maxFringeSize = 2;
+        // Run the search algorithm
+        return search(options.isRecordPath());
+    }
+
+    /**
+     * Runs the search algorithm from the roots placed by 'solve()'. Whole layers are
+     * expanded at a time, always on the side whose layer is smaller, which keeps both
+     * searches about the same size. When a layer produces a state the other side has
+     * already visited, no shorter path can exist: it would have met one layer earlier
+     * @param recordPath whether the solution path is rebuilt
+     * @return the stats (and path, if recorded) of the search
+     */
+    private SearchResult search(boolean recordPath) {
+        while (forward.layerSize > 0 && backward.layerSize > 0) {
+            Frontier side = forward.layerSize <= backward.layerSize ? forward : backward;
+            Frontier other = side == forward ? backward : forward;
+            long meeting = expandLayer(side, other);
+            if (forward.layerSize + backward.layerSize > maxFringeSize) {
+                maxFringeSize = forward.layerSize + backward.layerSize;
+            }
+            if (meeting != PackedState.NO_STATE) {
+                maxDepth = forward.depth + backward.depth;
+                String solutionPath = recordPath ? forward.pathFromRoot(meeting) + backward.pathToRoot(meeting) : null;
+                return new SearchResult(maxDepth, nodesCreated, nodesExpanded, maxFringeSize, solutionPath,
+                        System.nanoTime() - startNanos);
+            }
+        }
+        // Both roots reach the same goal state, so the sides always meet before this
+        return new SearchResult(-1, nodesCreated, nodesExpanded, maxFringeSize, null, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Expands every state of the current layer of 'side', building its next layer
+     * @param side the side to expand
+     * @param other the opposite side, checked for every new state
+     * @return the first new state 'other' already visited, or 'PackedState.NO_STATE'
+     */
+    private long expandLayer(Frontier side, Frontier other) {
+        long meeting = PackedState.NO_STATE;
+        for (int i = 0; i < side.layerSize && meeting == PackedState.NO_STATE; i++) {
+            long state = side.layer[i];
+            // Increment 'nodesExpanded'
+            nodesExpanded++;
+            if ((nodesExpanded & (Deadline.CHECK_INTERVAL - 1)) == 0) {
+                deadline.check();
+            }
+            int blank = PackedState.blankIndex(state);
+            for (int move : Board.ORDER_BFS_ASTAR_GBFS) {
+                int target = Board.moveTarget(blank, move);
+                if (target < 0) {
+                    continue;
+                }
+                long successor = PackedState.move(state, blank, target);
+                // Skip successors this side already visited
+                if (!side.visit(successor, move)) {
+                    continue;
+                }
+                nodesCreated++;
+                if (other.visited.get(successor) != LongIntHashMap.MISSING) {
+                    meeting = successor;
+                    break;
+                }
+            }
+        }
+        side.advance();
+        return meeting;
+    }
+
+    /**
+     * This class represents one side of the search: the states it visited, the layer
+     * being expanded and the layer being built. Each visited state maps to its depth
+     * and the move which reached it ('depth * 4 + move'), which is all that is needed
+     * to walk back to the root, so the path costs nothing extra to record
+     */
+    private static final class Frontier {
+        /**
+         * Every state visited by this side, mapped to 'depth * 4 + move'
+         */
+        private final LongIntHashMap visited = new LongIntHashMap();
+        /**
+         * States of the layer being expanded
+         */
+        private long[] layer = new long[1024];
+        /**
+         * Number of states in 'layer'
+         */
+        private int layerSize;
+        /**
+         * States of the layer being built
+         */
+        private long[] next = new long[1024];
+        /**
+         * Number of states in 'next'
+         */
+        private int nextSize;
+        /**
+         * Depth of the states in 'layer'
+         */
+        private int depth;
+
+        /**
+         * Empties this side and places 'root' in its first layer
+         * @param root the packed state this side searches from
+         */
+        private void reset(long root) {
+            visited.clear();
+            visited.putIfAbsent(root, 0);
+            layer[0] = root;
+            layerSize = 1;
+            nextSize = 0;
+            depth = 0;
+        }
+
+        /**
+         * Adds a successor of the current layer to the next one, unless it was visited
+         * @param state the packed successor
+         * @param move the move which produced it
+         * @return true if 'state' was not visited before
+         */
+        private boolean visit(long state, int move) {
+            if (!visited.putIfAbsent(state, (depth + 1) << 2 | move)) {
+                return false;
+            }
+            if (nextSize == next.length) {
+                next = Arrays.copyOf(next, next.length * 2);
+            }
+            next[nextSize++] = state;
+            return true;
+        }
+
+        /**
+         * Makes the layer being built the one to expand next
+         */
+        private void advance() {
+            long[] expanded = layer;
+            layer = next;
+            layerSize = nextSize;
+            next = expanded;
+            nextSize = 0;
+            depth++;
+        }
+
+        /**
+         * Rebuilds the moves leading from the root of this side to 'state'
+         * @param state a packed state this side visited
+         * @return the moves of the blank space as letters (R, D, L and U)
+         */
+        private String pathFromRoot(long state) {
+            return walkToRoot(state, false).reverse().toString();
+        }
+
+        /**
+         * Rebuilds the moves leading from 'state' back to the root of this side
+         * @param state a packed state this side visited
+         * @return the moves of the blank space as letters (R, D, L and U)
+         */
+        private String pathToRoot(long state) {
+            return walkToRoot(state, true).toString();
+        }
+
+        /**
+         * Walks from 'state' back to the root by undoing the move which reached each state
+         * @param state a packed state this side visited
+         * @param undo whether the moves undoing each step are collected, rather than the
+         *             moves which made them
+         * @return the moves, in the order they were walked
+         */
+        private StringBuilder walkToRoot(long state, boolean undo) {
+            StringBuilder sb = new StringBuilder();
+            int value;
+            while ((value = visited.get(state)) >>> 2 > 0) {
+                int back = Board.inverseMove(value & 3);
+                sb.append(PathArena.moveLetter(undo ? back : value & 3));
+                int blank = PackedState.blankIndex(state);
+                state = PackedState.move(state, blank, Board.moveTarget(blank, back));
+            }
+            return sb;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * This class represents a result sink writing compact fixed-layout binary records
+ * (big-endian). The file starts with the 'int' 'MAGIC', then each record is:
+ * <pre>
+ * int   index
+ * long  packed initial state (see 'PackedState')
+ * byte  status (0 solved, 1 not found, 2 timed out, 3 out of memory)
+ * byte  length of the algorithm name, then its ASCII bytes
+ * byte  length of the heuristic (0 for none), then its ASCII bytes
+ * int   depth
+ * long  nodes created
+ * long  nodes expanded
+ * long  maximum fringe size
+ * long  wall time in nanoseconds
+ * int   path length in moves (-1 if not recorded), then the moves packed four per
+ *       byte, 2 bits each ('Board.RIGHT', 'Board.DOWN', 'Board.LEFT', 'Board.UP'),
+ *       first move in the lowest bits
+ * </pre>
+ * @author Alex Amado
+ */
+public class BinaryResultSink extends ResultSink {
+    /**
+     * Identifies a binary results file ("PZR1")
+     */
+    public static final int MAGIC = 0x505A5231;
+    /**
+     * Status code of a solved puzzle
+     */
+    public static final int STATUS_SOLVED = 0;
+    /**
+     * Status code of a puzzle without a solution
+     */
+    public static final int STATUS_NOT_FOUND = 1;
+    /**
+     * Status code of a puzzle which exceeded its time limit
+     */
+    public static final int STATUS_TIMED_OUT = 2;
+    /**
+     * Status code of a puzzle which outgrew its memory cap
+     */
+    public static final int STATUS_OUT_OF_MEMORY = 3;
+
+    /**
+     * Constructs a 'BinaryResultSink' object and writes the file header
+     * @param theChannel channel the records are written to
+     * @throws IOException if the channel fails
+     */
+    public BinaryResultSink(WritableByteChannel theChannel) throws IOException {
+        super(theChannel);
+        putInt(MAGIC);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(int index, String initialState, String algorithm, String heuristic,
+                      SearchResult result) throws IOException {
+        putInt(index);
+        putLong(PackedState.encode(initialState));
+        if (result.isTimedOut()) {
+            put(STATUS_TIMED_OUT);
+        } else if (result.isOutOfMemory()) {
+            put(STATUS_OUT_OF_MEMORY);
+        } else {
+            put(result.isSolved() ? STATUS_SOLVED : STATUS_NOT_FOUND);
+        }
+        putName(algorithm);
+        putName(heuristic == null ? "" : heuristic);
+        putInt(result.getMaxDepth());
+        putLong(result.getNodesCreated());
+        putLong(result.getNodesExpanded());
+        putLong(result.getMaxFringeSize());
+        putLong(result.getWallNanos());
+        String path = result.getPath();
+        if (path == null) {
+            putInt(-1);
+            return;
+        }
+        putInt(path.length());
+        int packed = 0;
+        for (int i = 0; i < path.length(); i++) {
+            packed |= PathArena.moveOf(path.charAt(i)) << ((i & 3) * 2);
+            if ((i & 3) == 3) {
+                put(packed);
+                packed = 0;
+            }
+        }
+        if ((path.length() & 3) != 0) {
+            put(packed);
+        }
+    }
+
+    /**
+     * Appends a short ASCII name preceded by its length
+     * @param name the name
+     * @throws IOException if the channel fails
+     */
+    private void putName(String name) throws IOException {
+        put(name.length());
+        putAscii(name);
+    }
+}
@@ -8,83 +8,113 @@ import java.util.ArrayList;
  */
 public class Board {
     /**
-     * String representation of state/board
+     * Represents goal state number 1 in the form of a 2D array
      */
-    private String state;
+    private static final char[][] GOAL_STATE_1 = PackedState.toArray(PackedState.GOAL_ONE);
     /**
-     * Indicates the depth of this 'Board' object in this 'tree' structure
+     * Represents goal state number 2 in the form of a 2D array
      */
-    private int depth;
+    private static final char[][] GOAL_STATE_2 = PackedState.toArray(PackedState.GOAL_TWO);
+    /**
+     * Manhattan distance between each cell and the cell a tile occupies in goal state 1,
+     * indexed by 'tile * 16 + cell'
+     */
+    private static final byte[] MANHATTAN_GOAL_ONE = manhattanTable(PackedState.GOAL_ONE);
+    /**
+     * Manhattan distance between each cell and the cell a tile occupies in goal state 2,
+     * indexed by 'tile * 16 + cell'
+     */
+    private static final byte[] MANHATTAN_GOAL_TWO = manhattanTable(PackedState.GOAL_TWO);
+    /**
+     * Debug mode, enabled with '-Dpuzzle.debugHeuristics=true'. When enabled every
+     * incremental heuristic update is cross-checked against a full recomputation
+     */
+    private static final boolean DEBUG_HEURISTICS = Boolean.getBoolean("puzzle.debugHeuristics");
+    /**
+     * Move which slides the blank space one cell to the right
+     */
+    public static final int RIGHT = 0;
+    /**
+     * Move which slides the blank space one cell down
+     */
+    public static final int DOWN = 1;
+    /**
+     * Move which slides the blank space one cell to the left
+     */
+    public static final int LEFT = 2;
+    /**
+     * Move which slides the blank space one cell up
+     */
+    public static final int UP = 3;
+    /**
+     * Order BFS, A*, and Greedy search expand successors in (right, down, left, and up)
+     */
+    public static final int[] ORDER_BFS_ASTAR_GBFS = {RIGHT, DOWN, LEFT, UP};
     /**
-     * Represents the 'board' in the form of a 2D array
+     * Order DFS and DLS search expand successors in (up, left, down, and right), the
+     * opposite of 'ORDER_BFS_ASTAR_GBFS' due to stack LIFO
      */
-    private char[][] board;
+    public static final int[] ORDER_DFS_DLS = {UP, LEFT, DOWN, RIGHT};
     /**
-     * Integer array which contains the row and column of the blank space found
-     * in the 2D array 'board'. Ex: [Row, Col]
+     * Cell the blank space moves to, indexed by 'blank * 4 + move' (-1 if the move
+     * leaves the board)
      */
-    private int[] blankSpacePosition;
+    private static final byte[] MOVE_TARGETS = moveTargetTable();
+
     /**
-     * Represents the goal state for goal state number 1
+     * Packed representation of state/board, 4 bits per cell (see 'PackedState')
      */
-    private char[][] goalState1;
+    private long packedState;
+    /**
+     * Indicates the depth of this 'Board' object in this 'tree' structure
+     */
+    private int depth;
     /**
-     * Represents the goal state for goal state number 2
+     * Cell index (row * 4 + col) of the blank space
      */
-    private char[][] goalState2;
+    private byte blankIndex;
     /**
      * Heuristic one (number of tiles that are misplaced) for this 'Board'
-     * object on 'goalState1'
+     * object on goal state 1
      */
-    private int heuristicOneGoalOne;
+    private byte heuristicOneGoalOne;
     /**
      * Heuristic one (number of tiles that are misplaced) for this 'Board'
-     * object on 'goalState2'
+     * object on goal state 2
      */
-    private int heuristicOneGoalTwo;
+    private byte heuristicOneGoalTwo;
     /**
      * Heuristic two (sum of Manhattan distances) for this 'Board' object
-     * on 'goalState1'
+     * on goal state 1
      */
-    private int heuristicTwoGoalOne;
+    private byte heuristicTwoGoalOne;
     /**
      * Heuristic two (sum of Manhattan distances) for this 'Board' object
-     * on 'goalState2'
+     * on goal state 2
      */
-    private int heuristicTwoGoalTwo;
+    private byte heuristicTwoGoalTwo;
 
     /**
      * User provided constructor which will allow the user to provide an 'initialState'
      * in the form of a String which will represent our 'Board' object which stores
-     * a 2D array under the hood
-     * @param initialState String representation of the 2D array 'Board' object provided
-     *                     by the user
+     * a packed 'long' under the hood
+     * @param initialState String representation of the board provided by the user
      */
     public Board(String initialState) {
-        // Initialize string representation of the board
-        state = initialState;
+        this(PackedState.encode(initialState));
+    }
+
+    /**
+     * Constructs a 'Board' object given its packed representation
+     * @param thePackedState the packed state/board (see 'PackedState')
+     */
+    public Board(long thePackedState) {
+        // Initialize packed representation of the board
+        packedState = thePackedState;
         // Initialize depth
         depth = 0;
-        // Initialize 'board'
-        board = new char[4][4];
-        int row = 0;
-        int col = 0;
-        // Initialize array for blank space
-        blankSpacePosition = new int[2];
-        for (int i = 0; i < initialState.length(); i++) {
-            if (i % 4 == 0 && i != 0) {
-                row++;
-                col = 0;
-            }
-            board[row][col] = initialState.charAt(i);
-            if (initialState.charAt(i) == ' ') {
-                blankSpacePosition[0] = row;
-                blankSpacePosition[1] = col;
-            }
-            col++;
-        }
-        // Initialize goal state boards
-        initializeGoalStates();
+        // Find blank space position
+        blankIndex = (byte) PackedState.blankIndex(thePackedState);
         // Initialize heuristics
         initializeHeuristicOneGoalOne();
         initializeHeuristicOneGoalTwo();
@@ -93,537 +123,152 @@ public class Board {
     }
 
     /**
-     * Constructs a 'Board' object given a 2D array. This primary use is for in-class work
-     * such as calling 'deepCopy' with the 2D array contents of this current 'board'
-     * @param theBoard a deep copied 2D array taken from another 'Board' object to initialize 'this'
-     *                 one
-     */
-    private Board(char[][] theBoard) {
-        // Decode 2D array to get string representation
-        state = "";
-        // Primarily used to create a new object given a 2D array board
-        board = theBoard;
-        // Initialize array for blank space
-        blankSpacePosition = new int[2];
-        // Find blank space position in 'theBoard'
-        for (int i = 0; i < theBoard.length; i++) {
-            for (int j = 0; j < theBoard[i].length; j++) {
-                if (theBoard[i][j] == ' ') {
-                    blankSpacePosition[0] = i;
-                    blankSpacePosition[1] = j;
-                }
-                state += theBoard[i][j];
+     * Constructs a copy of another 'Board' object. This primary use is for in-class work
+     * such as calling 'deepCopy'
+     * @param theOther the 'Board' object to copy
+     */
+    private Board(Board theOther) {
+        packedState = theOther.packedState;
+        depth = theOther.depth;
+        blankIndex = theOther.blankIndex;
+        heuristicOneGoalOne = theOther.heuristicOneGoalOne;
+        heuristicOneGoalTwo = theOther.heuristicOneGoalTwo;
+        heuristicTwoGoalOne = theOther.heuristicTwoGoalOne;
+        heuristicTwoGoalTwo = theOther.heuristicTwoGoalTwo;
+    }
+
+    /**
+     * Constructs a 'Board' object whose heuristics are already known. This primary use
+     * is for 'SuccessorBuffer.toBoard' which derives them incrementally from the parent
+     * @param thePackedState the packed state/board (see 'PackedState')
+     * @param theBlankIndex cell index of the blank space
+     * @param theDepth depth of this 'Board' object in the search tree
+     * @param h1g1 heuristic one on goal state 1
+     * @param h1g2 heuristic one on goal state 2
+     * @param h2g1 heuristic two on goal state 1
+     * @param h2g2 heuristic two on goal state 2
+     */
+    Board(long thePackedState, int theBlankIndex, int theDepth, int h1g1, int h1g2, int h2g1, int h2g2) {
+        packedState = thePackedState;
+        depth = theDepth;
+        blankIndex = (byte) theBlankIndex;
+        heuristicOneGoalOne = (byte) h1g1;
+        heuristicOneGoalTwo = (byte) h1g2;
+        heuristicTwoGoalOne = (byte) h2g1;
+        heuristicTwoGoalTwo = (byte) h2g2;
+    }
+
+    /**
+     * Writes the successors of this 'board' into 'buffer', in the order given by
+     * 'moveOrder'. Nothing is allocated: the successor states are produced by nibble
+     * swaps and their heuristics are derived incrementally from this 'board's ones
+     * @param moveOrder the directions to move the blank space in, e.g.
+     *                  'ORDER_BFS_ASTAR_GBFS' or 'ORDER_DFS_DLS'
+     * @param buffer caller-owned buffer which is cleared and then filled with the successors
+     */
+    public void generateSuccessors(int[] moveOrder, SuccessorBuffer buffer) {
+        buffer.clear();
+        for (int move : moveOrder) {
+            int target = moveTarget(blankIndex, move);
+            if (target < 0) {
+                continue;
+            }
+            int tile = PackedState.tileAt(packedState, target);
+            long successorState = PackedState.move(packedState, blankIndex, target);
+            int h1g1 = heuristicOneGoalOne + misplacedTilesDelta(PackedState.GOAL_ONE, tile, blankIndex, target);
+            int h1g2 = heuristicOneGoalTwo + misplacedTilesDelta(PackedState.GOAL_TWO, tile, blankIndex, target);
+            int h2g1 = heuristicTwoGoalOne + manhattanDistancesDelta(MANHATTAN_GOAL_ONE, tile, blankIndex, target);
+            int h2g2 = heuristicTwoGoalTwo + manhattanDistancesDelta(MANHATTAN_GOAL_TWO, tile, blankIndex, target);
+            if (DEBUG_HEURISTICS) {
+                verifyHeuristics(successorState, h1g1, h1g2, h2g1, h2g2);
             }
+            buffer.add(successorState, target, move, h1g1, h1g2, h2g1, h2g2);
         }
-        // Initialize goal state boards
-        initializeGoalStates();
-        // Initialize heuristics
-        initializeHeuristicOneGoalOne();
-        initializeHeuristicOneGoalTwo();
-        initializeHeuristicTwoGoalOne();
-        initializeHeuristicTwoGoalTwo();
     }
 
     /**
      * Returns successor nodes of this current 'board' for only BFS, A*, and
      * Greedy search because they use different data structure (queue) so they
-     * expand in correct order (right, down, left, and up)
+     * expand in correct order (right, down, left, and up). Convenience wrapper around
+     * 'generateSuccessors' which allocates a 'Board' per successor
      * @return returns an ArrayList of type Board in order of expansion for
      * searches BFS, A*, and Greedy (right, down, left, and up)
      */
     public ArrayList<Board> getSuccessorNodesBFSAStarGBFS() {
-        ArrayList<Board> successorNodes = new ArrayList<Board>();
-        int row = blankSpacePosition[0];
-        int col = blankSpacePosition[1];
-        Board rightBoard;
-        Board downBoard;
-        Board leftBoard;
-        Board upBoard;
-        // Blank space in (0, 0) position, 2 moves
-        if (row == 0 && col == 0) {
-            // Move blank space right
-            rightBoard = deepCopy();
-            // Swap blank position righwards
-            rightBoard.swapBlankDirectionRight(row, col);
-            // Move blank space down
-            downBoard = deepCopy();
-            // Swap blank position downwards
-            downBoard.swapBlankDirectionDown(row, col);
-            // Add new states to 'successorNodes' list
-            successorNodes.add(rightBoard);
-            successorNodes.add(downBoard);
-        }
-        // Blank space in (0, 1) position, 3 moves
-        else if (row == 0 && col == 1) {
-            // Perform deep copies and all possible moves for blank space
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(rightBoard);
-            successorNodes.add(downBoard);
-            successorNodes.add(leftBoard);
-        }
-        // Blank space in (0, 2) position, 3 moves
-        else if (row == 0 && col == 2) {
-            // Perform deep copies and all possible moves for blank space
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(rightBoard);
-            successorNodes.add(downBoard);
-            successorNodes.add(leftBoard);
-        }
-        // Blank space in (0, 3) position, 2 moves
-        else if (row == 0 && col == 3) {
-            // Perform deep copies and all possible moves for blank space
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(downBoard);
-            successorNodes.add(leftBoard);
-        }
-        // Blank space in (1, 0) position, 3 moves
-        else if (row == 1 && col == 0) {
-            // Perform deep copies and all possible moves for blank space
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(rightBoard);
-            successorNodes.add(downBoard);
-            successorNodes.add(upBoard);
-        }
-        // Blank space in (1, 1) position, 4 moves
-        else if (row == 1 && col == 1) {
-            // Perform deep copies and all possible moves for blank space
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(rightBoard);
-            successorNodes.add(downBoard);
-            successorNodes.add(leftBoard);
-            successorNodes.add(upBoard);
-        }
-        // Blank space in (1, 2) position, 4 moves
-        else if (row == 1 && col == 2) {
-            // Perform deep copies and all possible moves for blank space
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(rightBoard);
-            successorNodes.add(downBoard);
-            successorNodes.add(leftBoard);
-            successorNodes.add(upBoard);
-        }
-        // Blank space in (1, 3) position, 3 moves
-        else if (row == 1 && col == 3) {
-            // Perform deep copies and all possible moves for blank space
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(downBoard);
-            successorNodes.add(leftBoard);
-            successorNodes.add(upBoard);
-        }
-        // Blank space in (2, 0) position, 3 moves
-        else if (row == 2 && col == 0) {
-            // Perform deep copies and all possible moves for blank space
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(rightBoard);
-            successorNodes.add(downBoard);
-            successorNodes.add(upBoard);
-        }
-        // Blank space in (2, 1) position, 4 moves
-        else if (row == 2 && col == 1) {
-            // Perform deep copies and all possible moves for blank space
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(rightBoard);
-            successorNodes.add(downBoard);
-            successorNodes.add(leftBoard);
-            successorNodes.add(upBoard);
-        }
-        // Blank space in (2, 2) position, 4 moves
-        else if (row == 2 && col == 2) {
-            // Perform deep copies and all possible moves for blank space
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(rightBoard);
-            successorNodes.add(downBoard);
-            successorNodes.add(leftBoard);
-            successorNodes.add(upBoard);
-        }
-        // Blank space in (2, 3) position, 3 moves
-        else if (row == 2 && col == 3) {
-            // Perform deep copies and all possible moves for blank space
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(downBoard);
-            successorNodes.add(leftBoard);
-            successorNodes.add(upBoard);
-        }
-        // Blank space in (3, 0) position, 2 moves
-        else if (row == 3 && col == 0) {
-            // Perform deep copies and all possible moves for blank space
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(rightBoard);
-            successorNodes.add(upBoard);
-        }
-        // Blank space in (3, 1) position, 3 moves
-        else if (row == 3 && col == 1) {
-            // Perform deep copies and all possible moves for blank space
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(rightBoard);
-            successorNodes.add(leftBoard);
-            successorNodes.add(upBoard);
-        }
-        // Blank space in (3, 2) position, 3 moves
-        else if (row == 3 && col == 2) {
-            // Perform deep copies and all possible moves for blank space
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(rightBoard);
-            successorNodes.add(leftBoard);
-            successorNodes.add(upBoard);
-        }
-        // Blank space in (3, 3) position, 2 moves
-        else if (row == 3 && col == 3) {
-            // Perform deep copies and all possible moves for blank space
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(leftBoard);
-            successorNodes.add(upBoard);
-        }
-        return successorNodes;
+        return getSuccessorNodes(ORDER_BFS_ASTAR_GBFS);
     }
 
     /**
      * Returns successor nodes of this current 'board' for only DFS and DLS
      * search because they use different data structure (stack) so they expand
-     * in opposite order for (up, left, down, and right due to stack LIFO)
-     * @return
+     * in opposite order for (up, left, down, and right due to stack LIFO).
+     * Convenience wrapper around 'generateSuccessors' which allocates a 'Board'
+     * per successor
+     * @return returns an ArrayList of type Board in order of expansion for
+     * searches DFS and DLS (up, left, down, and right)
      */
     public ArrayList<Board> getSuccessorNodesDFSDLS() {
-       ArrayList<Board> successorNodes = new ArrayList<Board>();
-        int row = blankSpacePosition[0];
-        int col = blankSpacePosition[1];
-        Board upBoard;
-        Board leftBoard;
-        Board downBoard;
-        Board rightBoard;
-        // Blank space in (0, 0) position, 2 moves
-        if (row == 0 && col == 0) {
-            // Perform deep copies and all possible moves for blank space
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(downBoard);
-            successorNodes.add(rightBoard);
-        }
-        // Blank space in (0, 1) position, 3 moves
-        else if (row == 0 && col == 1) {
-            // Perform deep copies and all possible moves for blank space
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(leftBoard);
-            successorNodes.add(downBoard);
-            successorNodes.add(rightBoard);
-        }
-        // Blank space in (0, 2) position, 3 moves
-        else if (row == 0 && col == 2) {
-            // Perform deep copies and all possible moves for blank space
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(leftBoard);
-            successorNodes.add(downBoard);
-            successorNodes.add(rightBoard);
-        }
-        // Blank space in (0, 3) position, 2 moves
-        else if (row == 0 && col == 3) {
-            // Perform deep copies and all possible moves for blank space
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(leftBoard);
-            successorNodes.add(downBoard);
-        }
-        // Blank space in (1, 0) position, 3 moves
-        else if (row == 1 && col == 0) {
-            // Perform deep copies and all possible moves for blank space
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(upBoard);
-            successorNodes.add(downBoard);
-            successorNodes.add(rightBoard);
-        }
-        // Blank space in (1, 1) position, 4 moves
-        else if (row == 1 && col == 1) {
-            // Perform deep copies and all possible moves for blank space
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(upBoard);
-            successorNodes.add(leftBoard);
-            successorNodes.add(downBoard);
-            successorNodes.add(rightBoard);
-        }
-        // Blank space in (1, 2) position, 4 moves
-        else if (row == 1 && col == 2) {
-            // Perform deep copies and all possible moves for blank space
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(upBoard);
-            successorNodes.add(leftBoard);
-            successorNodes.add(downBoard);
-            successorNodes.add(rightBoard);
-        }
-        // Blank space in (1, 3) position, 3 moves
-        else if (row == 1 && col == 3) {
-            // Perform deep copies and all possible moves for blank space
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(upBoard);
-            successorNodes.add(leftBoard);
-            successorNodes.add(downBoard);
-        }
-        // Blank space in (2, 0) position, 3 moves
-        else if (row == 2 && col == 0) {
-            // Perform deep copies and all possible moves for blank space
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(upBoard);
-            successorNodes.add(downBoard);
-            successorNodes.add(rightBoard);
-        }
-        // Blank space in (2, 1) position, 4 moves
-        else if (row == 2 && col == 1) {
-            // Perform deep copies and all possible moves for blank space
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(upBoard);
-            successorNodes.add(leftBoard);
-            successorNodes.add(downBoard);
-            successorNodes.add(rightBoard);
-        }
-        // Blank space in (2, 2) position, 4 moves
-        else if (row == 2 && col == 2) {
-            // Perform deep copies and all possible moves for blank space
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(upBoard);
-            successorNodes.add(leftBoard);
-            successorNodes.add(downBoard);
-            successorNodes.add(rightBoard);
-        }
-        // Blank space in (2, 3) position, 3 moves
-        else if (row == 2 && col == 3) {
-            // Perform deep copies and all possible moves for blank space
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            downBoard = deepCopy();
-            downBoard.swapBlankDirectionDown(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(upBoard);
-            successorNodes.add(leftBoard);
-            successorNodes.add(downBoard);
-        }
-        // Blank space in (3, 0) position, 2 moves
-        else if (row == 3 && col == 0) {
-            // Perform deep copies and all possible moves for blank space
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(upBoard);
-            successorNodes.add(rightBoard);
-        }
-        // Blank space in (3, 1) position, 3 moves
-        else if (row == 3 && col == 1) {
-            // Perform deep copies and all possible moves for blank space
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(upBoard);
-            successorNodes.add(leftBoard);
-            successorNodes.add(rightBoard);
-        }
-        // Blank space in (3, 2) position, 3 moves
-        else if (row == 3 && col == 2) {
-            // Perform deep copies and all possible moves for blank space
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            rightBoard = deepCopy();
-            rightBoard.swapBlankDirectionRight(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(upBoard);
-            successorNodes.add(leftBoard);
-            successorNodes.add(rightBoard);
+        return getSuccessorNodes(ORDER_DFS_DLS);
+    }
+
+    /**
+     * Collects the successors of this 'board' into a new list of 'Board' objects
+     * @param moveOrder the directions to move the blank space in
+     * @return the successors in order of expansion
+     */
+    private ArrayList<Board> getSuccessorNodes(int[] moveOrder) {
+        SuccessorBuffer buffer = new SuccessorBuffer();
+        generateSuccessors(moveOrder, buffer);
+        ArrayList<Board> successorNodes = new ArrayList<Board>(buffer.size());
+        for (int i = 0; i < buffer.size(); i++) {
+            successorNodes.add(buffer.toBoard(i, depth + 1));
         }
-        // Blank space in (3, 3) position, 2 moves
-        else if (row == 3 && col == 3) {
-            // Perform deep copies and all possible moves for blank space
-            upBoard = deepCopy();
-            upBoard.swapBlankDirectionUp(row, col);
-            leftBoard = deepCopy();
-            leftBoard.swapBlankDirectionLeft(row, col);
-            // Add each of the board states above to 'successorNodes' list
-            successorNodes.add(upBoard);
-            successorNodes.add(leftBoard);
+        return successorNodes;
+    }
+
+    /**
+     * Returns the cell the blank space found in cell 'blank' moves to
+     * @param blank cell index of the blank space
+     * @param move 'RIGHT', 'DOWN', 'LEFT' or 'UP'
+     * @return cell index the blank space moves to, or -1 if the move leaves the board
+     */
+    public static int moveTarget(int blank, int move) {
+        return MOVE_TARGETS[blank << 2 | move];
+    }
+
+    /**
+     * Returns the move which undoes 'move'
+     * @param move 'RIGHT', 'DOWN', 'LEFT' or 'UP'
+     * @return the opposite direction of 'move'
+     */
+    public static int inverseMove(int move) {
+        return move ^ 2;
+    }
+
+    /**
+     * Builds the table of cells the blank space moves to, indexed by 'blank * 4 + move'
+     * @return the move target table, -1 marking moves which leave the board
+     */
+    private static byte[] moveTargetTable() {
+        byte[] table = new byte[PackedState.CELLS * 4];
+        for (int blank = 0; blank < PackedState.CELLS; blank++) {
+            int row = blank / PackedState.WIDTH;
+            int col = blank % PackedState.WIDTH;
+            table[blank << 2 | RIGHT] = (byte) (col < PackedState.WIDTH - 1 ? blank + 1 : -1);
+            table[blank << 2 | DOWN] = (byte) (row < PackedState.WIDTH - 1 ? blank + PackedState.WIDTH : -1);
+            table[blank << 2 | LEFT] = (byte) (col > 0 ? blank - 1 : -1);
+            table[blank << 2 | UP] = (byte) (row > 0 ? blank - PackedState.WIDTH : -1);
         }
-       return successorNodes;
+        return table;
     }
 
     /**
-     * Copies this 'Board's internal board data structure by duplicating
-     * it to another 2D character array
-     * @return a 2D character array which is a copy of 'board'
+     * Copies this 'Board' object. Since the state is a single packed 'long' no
+     * arrays have to be duplicated
+     * @return a new 'Board' object which is a copy of 'this' one
      */
     public Board deepCopy() {
-        char[][] copyBoard = new char[4][4];
-        for (int i = 0; i < board.length; i++) {
-            for (int j = 0; j < board[i].length; j++) {
-                copyBoard[i][j] = board[i][j];
-            }
-        }
-        Board newBoard = new Board(copyBoard);
-        return newBoard;
+        return new Board(this);
     }
 
     /**
@@ -639,7 +284,15 @@ public class Board {
      * @return returns a String representing the 'board'
      */
     public String getState() {
-        return state;
+        return PackedState.decode(packedState);
+    }
+
+    /**
+     * Returns the current 'board' state in its packed form
+     * @return the packed representation of the 'board' (see 'PackedState')
+     */
+    public long getPackedState() {
+        return packedState;
     }
 
     /**
@@ -651,11 +304,12 @@ public class Board {
     }
 
     /**
-     * Returns the 2D array/'board' of the puzzle
+     * Returns the 2D array/'board' of the puzzle. The array is decoded from the
+     * packed state on every call
      * @return a 2D array which resembles the puzzle
      */
     public char[][] getBoard() {
-        return board;
+        return PackedState.toArray(packedState);
     }
 
     /**
@@ -663,7 +317,15 @@ public class Board {
      * @return row and column of blank space position in a integer array
      */
     public int[] getBlankSpacePosition() {
-        return blankSpacePosition;
+        return new int[] {blankIndex / PackedState.WIDTH, blankIndex % PackedState.WIDTH};
+    }
+
+    /**
+     * Return the cell index (row * 4 + col) of the blank space
+     * @return cell index of the blank space
+     */
+    public int getBlankIndex() {
+        return blankIndex;
     }
 
     /**
@@ -671,7 +333,7 @@ public class Board {
      * @return a 2D array which resembles the goal state of a board
      */
     public char[][] getGoalState1() {
-        return goalState1;
+        return GOAL_STATE_1;
     }
 
     /**
@@ -679,36 +341,36 @@ public class Board {
      * @return a 2D array which resembles the goal state of a board
      */
     public char[][] getGoalState2() {
-        return goalState2;
+        return GOAL_STATE_2;
     }
 
     /**
-     * Return the heuristic one measured on the 'goalState1'
-     * @return heuristic one measured on 'goalState1'
+     * Return the heuristic one measured on goal state 1
+     * @return heuristic one measured on goal state 1
      */
     public int getHeuristicOneGoalOne() {
         return heuristicOneGoalOne;
     }
 
     /**
-     * Return the heuristic one measured on the 'goalState2'
-     * @return heuristic one measured on 'goalState2'
+     * Return the heuristic one measured on goal state 2
+     * @return heuristic one measured on goal state 2
      */
     public int getHeuristicOneGoalTwo() {
         return heuristicOneGoalTwo;
     }
 
     /**
-     * Return the heuristic two measured on the 'goalState1'
-     * @return heuristic two measured on 'goalState1'
+     * Return the heuristic two measured on goal state 1
+     * @return heuristic two measured on goal state 1
      */
     public int getHeuristicTwoGoalOne() {
         return heuristicTwoGoalOne;
     }
 
     /**
-     * Return the heuristic two measured on the 'goalState2'
-     * @return heuristic two measured on 'goalState2'
+     * Return the heuristic two measured on goal state 2
+     * @return heuristic two measured on goal state 2
      */
     public int getHeuristicTwoGoalTwo() {
         return heuristicTwoGoalTwo;
@@ -719,289 +381,139 @@ public class Board {
      * @return a boolean indicating this 'board' is a goal state or not
      */
     public boolean isGoalState() {
-        boolean checkGoalState1 = true;
-        boolean checkGoalState2 = true;
-        for (int i = 0; i < board.length; i++) {
-            for (int j = 0; j < board[i].length; j++) {
-                if (board[i][j] != goalState1[i][j] && checkGoalState1) {
-                    checkGoalState1 = false;
-                }
-
-                if (board[i][j] != goalState2[i][j] && checkGoalState2) {
-                    checkGoalState2 = false;
-                }
-            }
-            if (!checkGoalState1 && !checkGoalState2) {
-                break;
-            }
-        }
-        return checkGoalState1 || checkGoalState2;
+        return packedState == PackedState.GOAL_ONE || packedState == PackedState.GOAL_TWO;
     }
 
     /**
      * Sets up the heuristic one on initialization of 'this' object (i.e.,
-     * constructor is called) or alteration of 'board on 'goalState1'
+     * constructor is called) or alteration of 'board' on goal state 1
      */
     private void initializeHeuristicOneGoalOne() {
-        if (state.charAt(0) != '1') heuristicOneGoalOne++;
-        if (state.charAt(1) != '2') heuristicOneGoalOne++;
-        if (state.charAt(2) != '3') heuristicOneGoalOne++;
-        if (state.charAt(3) != '4') heuristicOneGoalOne++;
-        if (state.charAt(4) != '5') heuristicOneGoalOne++;
-        if (state.charAt(5) != '6') heuristicOneGoalOne++;
-        if (state.charAt(6) != '7') heuristicOneGoalOne++;
-        if (state.charAt(7) != '8') heuristicOneGoalOne++;
-        if (state.charAt(8) != '9') heuristicOneGoalOne++;
-        if (state.charAt(9) != 'A') heuristicOneGoalOne++;
-        if (state.charAt(10) != 'B') heuristicOneGoalOne++;
-        if (state.charAt(11) != 'C') heuristicOneGoalOne++;
-        if (state.charAt(12) != 'D') heuristicOneGoalOne++;
-        if (state.charAt(13) != 'E') heuristicOneGoalOne++;
-        if (state.charAt(14) != 'F') heuristicOneGoalOne++;
-        if (state.charAt(15) != ' ') heuristicOneGoalOne++;
+        heuristicOneGoalOne = (byte) countMisplacedTiles(PackedState.GOAL_ONE);
     }
 
     /**
      * Sets up the heuristic one on initialization of 'this' object (i.e.,
-     * constructor is called) or alteration of 'board' on 'goalState1'
+     * constructor is called) or alteration of 'board' on goal state 2
      */
     private void initializeHeuristicOneGoalTwo() {
-        if (state.charAt(0) != '1') heuristicOneGoalTwo++;
-        if (state.charAt(1) != '2') heuristicOneGoalTwo++;
-        if (state.charAt(2) != '3') heuristicOneGoalTwo++;
-        if (state.charAt(3) != '4') heuristicOneGoalTwo++;
-        if (state.charAt(4) != '5') heuristicOneGoalTwo++;
-        if (state.charAt(5) != '6') heuristicOneGoalTwo++;
-        if (state.charAt(6) != '7') heuristicOneGoalTwo++;
-        if (state.charAt(7) != '8') heuristicOneGoalTwo++;
-        if (state.charAt(8) != '9') heuristicOneGoalTwo++;
-        if (state.charAt(9) != 'A') heuristicOneGoalTwo++;
-        if (state.charAt(10) != 'B') heuristicOneGoalTwo++;
-        if (state.charAt(11) != 'C') heuristicOneGoalTwo++;
-        if (state.charAt(12) != 'D') heuristicOneGoalTwo++;
-        if (state.charAt(13) != 'F') heuristicOneGoalTwo++;
-        if (state.charAt(14) != 'E') heuristicOneGoalTwo++;
-        if (state.charAt(15) != ' ') heuristicOneGoalTwo++;
+        heuristicOneGoalTwo = (byte) countMisplacedTiles(PackedState.GOAL_TWO);
     }
 
     /**
      * Sets up the heuristic two on initialization of 'this' object (i.e.,
-     * constructor is called) or alteration of 'board' on 'goalState1'
+     * constructor is called) or alteration of 'board' on goal state 1
      */
     private void initializeHeuristicTwoGoalOne() {
-        int sumManhattanDist = 0;
-        for (int i = 0; i < board.length; i++) {
-            for (int j = 0; j < board[i].length; j++) {
-                char currChar = board[i][j];
-                if (currChar == '1') {
-                    sumManhattanDist += Math.abs(0 - i) + Math.abs(0 - j);
-                } else if (currChar == '2') {
-                    sumManhattanDist += Math.abs(0 - i) + Math.abs(1 - j);
-                } else if (currChar == '3') {
-                    sumManhattanDist += Math.abs(0 - i) + Math.abs(2 - j);
-                } else if (currChar == '4') {
-                    sumManhattanDist += Math.abs(0 - i) + Math.abs(3 - j);
-                } else if (currChar == '5') {
-                    sumManhattanDist += Math.abs(1 - i) + Math.abs(0 - j);
-                } else if (currChar == '6') {
-                    sumManhattanDist += Math.abs(1 - i) + Math.abs(1 - j);
-                } else if (currChar == '7') {
-                    sumManhattanDist += Math.abs(1 - i) + Math.abs(2 - j);
-                } else if (currChar == '8') {
-                    sumManhattanDist += Math.abs(1 - i) + Math.abs(3 - j);
-                } else if (currChar == '9') {
-                    sumManhattanDist += Math.abs(2 - i) + Math.abs(0 - j);
-                } else if (currChar == 'A') {
-                    sumManhattanDist += Math.abs(2 - i) + Math.abs(1 - j);
-                } else if (currChar == 'B') {
-                    sumManhattanDist += Math.abs(2 - i) + Math.abs(2 - j);
-                } else if (currChar == 'C') {
-                    sumManhattanDist += Math.abs(2 - i) + Math.abs(3 - j);
-                } else if (currChar == 'D') {
-                    sumManhattanDist += Math.abs(3 - i) + Math.abs(0 - j);
-                } else if (currChar == 'E') {
-                    sumManhattanDist += Math.abs(3 - i) + Math.abs(1 - j);
-                } else if (currChar == 'F') {
-                    sumManhattanDist += Math.abs(3 - i) + Math.abs(2 - j);
-                } else if (currChar == ' ') {
-                    sumManhattanDist += Math.abs(3 - i) + Math.abs(3 - j);
-                }
-            }
-        }
-        heuristicTwoGoalOne = sumManhattanDist;
+        heuristicTwoGoalOne = (byte) sumManhattanDistances(MANHATTAN_GOAL_ONE);
     }
 
     /**
      * Sets up the heuristic two on initialization of 'this' object (i.e.,
-     * constructor is called) or alteration of 'board' on 'goalState2'
+     * constructor is called) or alteration of 'board' on goal state 2
      */
     private void initializeHeuristicTwoGoalTwo() {
-        int sumManhattanDist = 0;
-        for (int i = 0; i < board.length; i++) {
-            for (int j = 0; j < board[i].length; j++) {
-                char currChar = board[i][j];
-                if (currChar == '1') {
-                    sumManhattanDist += Math.abs(0 - i) + Math.abs(0 - j);
-                } else if (currChar == '2') {
-                    sumManhattanDist += Math.abs(0 - i) + Math.abs(1 - j);
-                } else if (currChar == '3') {
-                    sumManhattanDist += Math.abs(0 - i) + Math.abs(2 - j);
-                } else if (currChar == '4') {
-                    sumManhattanDist += Math.abs(0 - i) + Math.abs(3 - j);
-                } else if (currChar == '5') {
-                    sumManhattanDist += Math.abs(1 - i) + Math.abs(0 - j);
-                } else if (currChar == '6') {
-                    sumManhattanDist += Math.abs(1 - i) + Math.abs(1 - j);
-                } else if (currChar == '7') {
-                    sumManhattanDist += Math.abs(1 - i) + Math.abs(2 - j);
-                } else if (currChar == '8') {
-                    sumManhattanDist += Math.abs(1 - i) + Math.abs(3 - j);
-                } else if (currChar == '9') {
-                    sumManhattanDist += Math.abs(2 - i) + Math.abs(0 - j);
-                } else if (currChar == 'A') {
-                    sumManhattanDist += Math.abs(2 - i) + Math.abs(1 - j);
-                } else if (currChar == 'B') {
-                    sumManhattanDist += Math.abs(2 - i) + Math.abs(2 - j);
-                } else if (currChar == 'C') {
-                    sumManhattanDist += Math.abs(2 - i) + Math.abs(3 - j);
-                } else if (currChar == 'D') {
-                    sumManhattanDist += Math.abs(3 - i) + Math.abs(0 - j);
-                } else if (currChar == 'F') {
-                    sumManhattanDist += Math.abs(3 - i) + Math.abs(1 - j);
-                } else if (currChar == 'E') {
-                    sumManhattanDist += Math.abs(3 - i) + Math.abs(2 - j);
-                } else if (currChar == ' ') {
-                    sumManhattanDist += Math.abs(3 - i) + Math.abs(3 - j);
-                }
-            }
-        }
-        heuristicTwoGoalTwo = sumManhattanDist;
-    }
-
-    /**
-     * Given a location of a blank space cell (row and column location), swap to the right
-     * direction in 2D array ('board')
-     * @param row row location of cell to be swapped rightwards
-     * @param col column location of cell to be swapped rightwards
-     */
-    private void swapBlankDirectionRight(int row, int col) {
-        char temp = board[row][col];
-        board[row][col] = board[row][col+1];
-        board[row][col+1] = temp;
-        blankSpacePosition[0] = row;
-        blankSpacePosition[1] = col + 1;
-        // Reinitialize 'state' field
-        state = "";
-        for (int i = 0; i < board.length; i++) {
-            for (int j = 0; j < board[i].length; j++) {
-                state += board[i][j];
-            }
-        }
-        // Reinitialize heuristics for altered state
-        initializeHeuristicOneGoalOne();
-        initializeHeuristicOneGoalTwo();
-        initializeHeuristicTwoGoalOne();
-        initializeHeuristicTwoGoalTwo();
+        heuristicTwoGoalTwo = (byte) sumManhattanDistances(MANHATTAN_GOAL_TWO);
     }
 
     /**
-     * Given a location of a blank space cell (row and column location), swap downwards
-     * in 2D array ('board')
-     * @param row row location of cell to be swapped downwards
-     * @param col column location of cell to be swapped downwards
+     * Counts the cells (blank space included) whose tile differs from 'goalState'
+     * @param goalState the packed goal state to measure against
+     * @return the number of misplaced tiles
      */
-    private void swapBlankDirectionDown(int row, int col) {
-        char temp = board[row][col];
-        board[row][col] = board[row+1][col];
-        board[row+1][col] = temp;
-        blankSpacePosition[0] = row + 1;
-        blankSpacePosition[1] = col;
-        // Reinitialize 'state' field
-        state = "";
-        for (int i = 0; i < board.length; i++) {
-            for (int j = 0; j < board[i].length; j++) {
-                state += board[i][j];
+    private int countMisplacedTiles(long goalState) {
+        int misplaced = 0;
+        for (int i = 0; i < PackedState.CELLS; i++) {
+            if (PackedState.tileAt(packedState, i) != PackedState.tileAt(goalState, i)) {
+                misplaced++;
             }
         }
-        // Reinitialize heuristics for altered state
-        initializeHeuristicOneGoalOne();
-        initializeHeuristicOneGoalTwo();
-        initializeHeuristicTwoGoalOne();
-        initializeHeuristicTwoGoalTwo();
+        return misplaced;
     }
 
     /**
-     * Given a location of a blank space cell (row and column location), swap leftwards
-     * in 2D array ('board')
-     * @param row row location of cell to be swapped leftwards
-     * @param col column location of cell to be swapped leftwards
+     * Sums the Manhattan distance (blank space included) of every tile to its
+     * cell in a goal state
+     * @param manhattanTable the Manhattan distance table of the goal state to measure against
+     * @return the sum of Manhattan distances
      */
-    private void swapBlankDirectionLeft(int row, int col) {
-        char temp = board[row][col];
-        board[row][col] = board[row][col-1];
-        board[row][col-1] = temp;
-        blankSpacePosition[0] = row;
-        blankSpacePosition[1] = col - 1;
-        // Reinitialize 'state' field
-        state = "";
-        for (int i = 0; i < board.length; i++) {
-            for (int j = 0; j < board[i].length; j++) {
-                state += board[i][j];
-            }
+    private int sumManhattanDistances(byte[] manhattanTable) {
+        int sumManhattanDist = 0;
+        for (int i = 0; i < PackedState.CELLS; i++) {
+            sumManhattanDist += manhattanTable[PackedState.tileAt(packedState, i) << 4 | i];
         }
-        // Reinitialize heuristics for altered state
-        initializeHeuristicOneGoalOne();
-        initializeHeuristicOneGoalTwo();
-        initializeHeuristicTwoGoalOne();
-        initializeHeuristicTwoGoalTwo();
+        return sumManhattanDist;
     }
 
     /**
-     * Given a location of a blank space cell (row and column location), swap upwards
-     * in 2D array ('board')
-     * @param row row location of cell to be swapped upwards
-     * @param col column location of cell to be swapped upwards
-     */
-    private void swapBlankDirectionUp(int row, int col) {
-        char temp = board[row][col];
-        board[row][col] = board[row-1][col];
-        board[row-1][col] = temp;
-        blankSpacePosition[0] = row - 1;
-        blankSpacePosition[1] = col;
-        // Reinitialize 'state' field
-        state = "";
-        for (int i = 0; i < board.length; i++) {
-            for (int j = 0; j < board[i].length; j++) {
-                state += board[i][j];
+     * Computes how the number of misplaced tiles changes when 'tile' slides from
+     * cell 'target' into the blank space found in cell 'blank'
+     * @param goalState the packed goal state to measure against
+     * @param tile the tile which moves
+     * @param blank cell index of the blank space before the move
+     * @param target cell index of 'tile' before the move
+     * @return the change in heuristic one
+     */
+    private static int misplacedTilesDelta(long goalState, int tile, int blank, int target) {
+        int goalAtBlank = PackedState.tileAt(goalState, blank);
+        int goalAtTarget = PackedState.tileAt(goalState, target);
+        int delta = 0;
+        // 'tile' leaves 'target' and enters 'blank'
+        if (tile != goalAtBlank) delta++;
+        if (tile != goalAtTarget) delta--;
+        // The blank space leaves 'blank' and enters 'target'
+        if (goalAtTarget != 0) delta++;
+        if (goalAtBlank != 0) delta--;
+        return delta;
+    }
+
+    /**
+     * Computes how the sum of Manhattan distances changes when 'tile' slides from
+     * cell 'target' into the blank space found in cell 'blank'
+     * @param manhattanTable the Manhattan distance table of the goal state to measure against
+     * @param tile the tile which moves
+     * @param blank cell index of the blank space before the move
+     * @param target cell index of 'tile' before the move
+     * @return the change in heuristic two
+     */
+    private static int manhattanDistancesDelta(byte[] manhattanTable, int tile, int blank, int target) {
+        return manhattanTable[tile << 4 | blank] - manhattanTable[tile << 4 | target]
+                + manhattanTable[target] - manhattanTable[blank];
+    }
+
+    /**
+     * Builds the Manhattan distance table of a goal state
+     * @param goalState the packed goal state
+     * @return the distances, indexed by 'tile * 16 + cell'
+     */
+    static byte[] manhattanTable(long goalState) {
+        byte[] table = new byte[PackedState.CELLS * PackedState.CELLS];
+        for (int goal = 0; goal < PackedState.CELLS; goal++) {
+            int tile = PackedState.tileAt(goalState, goal);
+            for (int i = 0; i < PackedState.CELLS; i++) {
+                table[tile << 4 | i] = (byte) (Math.abs(goal / PackedState.WIDTH - i / PackedState.WIDTH)
+                        + Math.abs(goal % PackedState.WIDTH - i % PackedState.WIDTH));
             }
         }
-        // Reinitialize heuristics for altered state
-        initializeHeuristicOneGoalOne();
-        initializeHeuristicOneGoalTwo();
-        initializeHeuristicTwoGoalOne();
-        initializeHeuristicTwoGoalTwo();
+        return table;
     }
 
     /**
-     * Initializes 'goalState1' and 'goalState2' fields which hold 2D arrays
-     * that resemble the goal state the 'board' field should be
-     */
-    private void initializeGoalStates() {
-        // Initialize 'goalState1'
-        goalState1 = new char[][] {
-                {'1', '2', '3', '4'},
-                {'5', '6', '7', '8'},
-                {'9', 'A', 'B', 'C'},
-                {'D', 'E', 'F', ' '}
-        };
-
-        // Initialize 'goalState2'
-        goalState2 = new char[][] {
-                {'1', '2', '3', '4'},
-                {'5', '6', '7', '8'},
-                {'9', 'A', 'B', 'C'},
-                {'D', 'F', 'E', ' '}
-        };
+     * Cross-checks incrementally derived heuristics against a full recomputation
+     * (only called in debug mode)
+     * @param theState the packed state the heuristics belong to
+     * @param h1g1 heuristic one on goal state 1
+     * @param h1g2 heuristic one on goal state 2
+     * @param h2g1 heuristic two on goal state 1
+     * @param h2g2 heuristic two on goal state 2
+     */
+    private static void verifyHeuristics(long theState, int h1g1, int h1g2, int h2g1, int h2g2) {
+        Board expected = new Board(theState);
+        if (h1g1 != expected.heuristicOneGoalOne || h1g2 != expected.heuristicOneGoalTwo
+                || h2g1 != expected.heuristicTwoGoalOne || h2g2 != expected.heuristicTwoGoalTwo) {
+            throw new IllegalStateException("Incremental heuristics diverged for state \""
+                    + PackedState.decode(theState) + "\": [" + h1g1 + ", " + h1g2 + ", " + h2g1 + ", " + h2g2 + "]");
+        }
     }
 
     /**
@@ -1011,13 +523,13 @@ public class Board {
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < board.length; i++) {
-            sb.append("[" + board[i][0]);
-            for (int j = 1; j < board[i].length; j++) {
-                sb.append(", " + board[i][j]);
+        for (int i = 0; i < PackedState.WIDTH; i++) {
+            sb.append("[" + PackedState.tileChar(PackedState.tileAt(packedState, i * PackedState.WIDTH)));
+            for (int j = 1; j < PackedState.WIDTH; j++) {
+                sb.append(", " + PackedState.tileChar(PackedState.tileAt(packedState, i * PackedState.WIDTH + j)));
             }
             sb.append("]\n");
         }
         return sb.toString();
     }
-}
\ No newline at end of file
+}
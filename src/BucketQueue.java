@@ -0,0 +1,269 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * This class represents a priority queue for small, non-negative integer priorities
+ * (such as the f = g + h values of a 15-puzzle search). Elements are kept in an array
+ * of buckets indexed by priority, so adding and removing take O(1) instead of the
+ * O(log n) comparisons of 'java.util.PriorityQueue'. Each bucket is split again into
+ * sub-buckets indexed by a second small, non-negative key (such as the depth g), which
+ * ties are broken on: the lowest key first, or the highest one. Elements sharing both
+ * come out last-in, first-out, or first-in, first-out
+ * @param <E> the type of elements held in the queue
+ * @author Alex Amado
+ */
+public class BucketQueue<E> {
+    /**
+     * Initial number of buckets
+     */
+    private static final int INITIAL_BUCKETS = 64;
+    /**
+     * Initial number of sub-buckets of a bucket
+     */
+    private static final int INITIAL_KEYS = 8;
+    /**
+     * Initial number of slots of a sub-bucket
+     */
+    private static final int INITIAL_BUCKET_CAPACITY = 16;
+
+    /**
+     * Whether elements sharing a priority and a key come out first-in, first-out
+     */
+    private final boolean fifo;
+    /**
+     * Whether the highest key of a bucket comes out first, instead of the lowest
+     */
+    private final boolean highKeyFirst;
+    /**
+     * Bucket of each priority (null until an element of that priority is added)
+     */
+    private Bucket[] buckets;
+    /**
+     * Lowest priority whose bucket may hold elements, every lower bucket is empty
+     */
+    private int minPriority;
+    /**
+     * Number of elements in the queue
+     */
+    private int size;
+
+    /**
+     * Constructs an empty 'BucketQueue' which removes elements sharing a priority
+     * last-in, first-out
+     */
+    public BucketQueue() {
+        this(false, false);
+    }
+
+    /**
+     * Constructs an empty 'BucketQueue'
+     * @param theFifo whether elements sharing a priority and a key come out first-in,
+     *                first-out instead of last-in, first-out
+     * @param theHighKeyFirst whether the highest key of a priority comes out first,
+     *                        instead of the lowest
+     */
+    public BucketQueue(boolean theFifo, boolean theHighKeyFirst) {
+        fifo = theFifo;
+        highKeyFirst = theHighKeyFirst;
+        buckets = new Bucket[INITIAL_BUCKETS];
+        minPriority = 0;
+        size = 0;
+    }
+
+    /**
+     * Adds 'element' to the queue with the key 0
+     * @param element the element to add
+     * @param priority priority of 'element', lower priorities are removed first
+     */
+    public void add(E element, int priority) {
+        add(element, priority, 0);
+    }
+
+    /**
+     * Adds 'element' to the queue
+     * @param element the element to add
+     * @param priority priority of 'element', lower priorities are removed first
+     * @param key breaks ties between elements sharing a priority
+     */
+    public void add(E element, int priority, int key) {
+        if (priority < 0 || key < 0) {
+            throw new IllegalArgumentException("Priority and key must not be negative: " + priority + ", " + key);
+        }
+        if (priority >= buckets.length) {
+            buckets = Arrays.copyOf(buckets, Math.max(buckets.length * 2, priority + 1));
+        }
+        Bucket bucket = buckets[priority];
+        if (bucket == null) {
+            bucket = new Bucket(fifo, highKeyFirst);
+            buckets[priority] = bucket;
+        }
+        bucket.add(element, key);
+        if (priority < minPriority) {
+            minPriority = priority;
+        }
+        size++;
+    }
+
+    /**
+     * Removes the first element of the lowest priority: the one with the lowest (or
+     * highest) key, most (or least) recently added
+     * @return the removed element
+     * @throws NoSuchElementException if the queue is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E remove() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        while (buckets[minPriority] == null || buckets[minPriority].size == 0) {
+            minPriority++;
+        }
+        size--;
+        return (E) buckets[minPriority].remove();
+    }
+
+    /**
+     * Checks whether the queue is empty
+     * @return true if the queue holds no elements
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of elements in the queue
+     * @return the number of elements in the queue
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every element while keeping the buckets allocated so the queue
+     * can be reused
+     */
+    public void clear() {
+        for (Bucket bucket : buckets) {
+            if (bucket != null && bucket.size > 0) {
+                bucket.clear();
+            }
+        }
+        minPriority = 0;
+        size = 0;
+    }
+
+    /**
+     * This class represents the elements of one priority, in sub-buckets indexed by key
+     */
+    private static final class Bucket {
+        /**
+         * Whether elements sharing a key come out first-in, first-out
+         */
+        private final boolean fifo;
+        /**
+         * Whether the highest key comes out first, instead of the lowest
+         */
+        private final boolean highKeyFirst;
+        /**
+         * Elements of each sub-bucket, in the slots from its head to its tail
+         */
+        private Object[][] slots = new Object[INITIAL_KEYS][];
+        /**
+         * Index of the oldest element of each sub-bucket
+         */
+        private int[] heads = new int[INITIAL_KEYS];
+        /**
+         * Index past the newest element of each sub-bucket
+         */
+        private int[] tails = new int[INITIAL_KEYS];
+        /**
+         * Key whose sub-bucket is removed from next, every sub-bucket before it (in the
+         * order keys come out) is empty
+         */
+        private int cursor;
+        /**
+         * Number of elements in the bucket
+         */
+        private int size;
+
+        /**
+         * Constructs an empty 'Bucket'
+         * @param theFifo whether elements sharing a key come out first-in, first-out
+         * @param theHighKeyFirst whether the highest key comes out first
+         */
+        private Bucket(boolean theFifo, boolean theHighKeyFirst) {
+            fifo = theFifo;
+            highKeyFirst = theHighKeyFirst;
+        }
+
+        /**
+         * Adds an element to the sub-bucket of its key
+         * @param element the element to add
+         * @param key the key of the element
+         */
+        private void add(Object element, int key) {
+            if (key >= slots.length) {
+                int length = Math.max(slots.length * 2, key + 1);
+                slots = Arrays.copyOf(slots, length);
+                heads = Arrays.copyOf(heads, length);
+                tails = Arrays.copyOf(tails, length);
+            }
+            Object[] slot = slots[key];
+            if (slot == null) {
+                slot = new Object[INITIAL_BUCKET_CAPACITY];
+                slots[key] = slot;
+            } else if (tails[key] == slot.length) {
+                int count = tails[key] - heads[key];
+                // Move the elements down over the slots already removed, growing only if needed
+                Object[] moved = count * 2 > slot.length ? new Object[slot.length * 2] : slot;
+                System.arraycopy(slot, heads[key], moved, 0, count);
+                if (moved == slot) {
+                    Arrays.fill(slot, count, slot.length, null);
+                }
+                slot = moved;
+                slots[key] = slot;
+                heads[key] = 0;
+                tails[key] = count;
+            }
+            slot[tails[key]++] = element;
+            if (size == 0 || (highKeyFirst ? key > cursor : key < cursor)) {
+                cursor = key;
+            }
+            size++;
+        }
+
+        /**
+         * Removes the first element of the bucket
+         * @return the removed element
+         */
+        private Object remove() {
+            while (tails[cursor] == heads[cursor]) {
+                cursor += highKeyFirst ? -1 : 1;
+            }
+            Object[] slot = slots[cursor];
+            int index = fifo ? heads[cursor]++ : --tails[cursor];
+            Object element = slot[index];
+            slot[index] = null;
+            if (heads[cursor] == tails[cursor]) {
+                heads[cursor] = 0;
+                tails[cursor] = 0;
+            }
+            size--;
+            return element;
+        }
+
+        /**
+         * Removes every element while keeping the sub-buckets allocated
+         */
+        private void clear() {
+            for (int key = 0; key < slots.length; key++) {
+                if (tails[key] > heads[key]) {
+                    Arrays.fill(slots[key], heads[key], tails[key], null);
+                }
+                heads[key] = 0;
+                tails[key] = 0;
+            }
+            size = 0;
+        }
+    }
+}
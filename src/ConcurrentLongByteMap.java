@@ -0,0 +1,182 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class represents a map from primitive 'long' keys (packed states/boards) to
+ * 'byte' values which many threads can add to at once. Like 'LongHashSet' it uses open
+ * addressing with linear probing, but a key claims its slot with a compare-and-set, so
+ * no lock is ever taken. The table can't grow while threads are adding to it: the owner
+ * calls 'ensureCapacity' beforehand, when no other thread is using the map
+ * @author Alex Amado
+ */
+public class ConcurrentLongByteMap {
+    /**
+     * Value returned by 'get' for a key which is not in the map
+     */
+    public static final int MISSING = -1;
+    /**
+     * Largest table capacity supported (length of a Java array must stay below 2^31)
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+    /**
+     * Key value used to mark an empty slot. A packed state can never be 0 since
+     * each tile value appears exactly once, so 0 is not accepted as a key
+     */
+    private static final long EMPTY = 0L;
+    /**
+     * Capacity of a new table, which 'clear' shrinks a grown table back to
+     */
+    private static final int INITIAL_CAPACITY = LongHashSet.tableSizeFor(LongHashSet.DEFAULT_CAPACITY * 2L);
+
+    /**
+     * Table of keys, a slot holding 'EMPTY' is free
+     */
+    private AtomicLongArray keys;
+    /**
+     * Value of the key found in the same slot of 'keys'. It is written by the thread
+     * which claimed the slot, and may only be read once every adding thread is done
+     */
+    private byte[] values;
+    /**
+     * Bit mask used to map a hash onto a slot ('keys.length() - 1')
+     */
+    private int mask;
+    /**
+     * Number of keys stored in the map, as of the last call to 'ensureCapacity'
+     */
+    private int size;
+
+    /**
+     * Constructs an empty 'ConcurrentLongByteMap' with the default capacity of 'LongHashSet'
+     */
+    public ConcurrentLongByteMap() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Maps 'key' to 'value', unless 'key' is already in the map. Safe to call from
+     * many threads at once
+     * @param key the key to add, must not be 0
+     * @param value the value of the key
+     * @return true if the key was not already in the map, for exactly one of the
+     * threads adding it
+     */
+    public boolean putIfAbsent(long key, byte value) {
+        int slot = (int) LongHashSet.mix(key) & mask;
+        while (true) {
+            long current = keys.get(slot);
+            if (current == EMPTY) {
+                if (keys.compareAndSet(slot, EMPTY, key)) {
+                    values[slot] = value;
+                    return true;
+                }
+                // Another thread claimed the slot first, look at what it wrote
+                continue;
+            }
+            if (current == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Checks whether 'key' is in the map. Safe to call while other threads add to it
+     * @param key the key to look for
+     * @return true if the key is in the map
+     */
+    public boolean contains(long key) {
+        int slot = (int) LongHashSet.mix(key) & mask;
+        long current;
+        while ((current = keys.get(slot)) != EMPTY) {
+            if (current == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the value of 'key'. Only call once every adding thread is done
+     * @param key the key to look for
+     * @return the value of the key, or 'MISSING' if it is not in the map
+     */
+    public int get(long key) {
+        int slot = (int) LongHashSet.mix(key) & mask;
+        long current;
+        while ((current = keys.get(slot)) != EMPTY) {
+            if (current == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    /**
+     * Records how many keys the map holds and grows the table so 'additional' more keys
+     * keep it at most half full. Only call when no other thread is using the map
+     * @param theSize number of keys the map holds, as counted by the adding threads
+     * @param additional upper bound on the number of keys added before the next call
+     */
+    public void ensureCapacity(int theSize, int additional) {
+        size = theSize;
+        long needed = ((long) size + additional) * 2;
+        if (needed <= keys.length()) {
+            return;
+        }
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalStateException("ConcurrentLongByteMap is full.");
+        }
+        AtomicLongArray oldKeys = keys;
+        byte[] oldValues = values;
+        allocate(LongHashSet.tableSizeFor(needed));
+        for (int i = 0; i < oldKeys.length(); i++) {
+            long key = oldKeys.get(i);
+            if (key != EMPTY) {
+                int slot = (int) LongHashSet.mix(key) & mask;
+                while (keys.get(slot) != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys.set(slot, key);
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Returns the number of keys in the map, as of the last call to 'ensureCapacity'
+     * @return the number of keys in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every key from the map. A table which grew is shrunk back to its initial
+     * capacity, so one large search doesn't make every later call pay for clearing
+     * all of its slots; otherwise the table is kept so it can be reused. Only call
+     * when no other thread is using the map
+     */
+    public void clear() {
+        if (keys.length() > INITIAL_CAPACITY) {
+            allocate(INITIAL_CAPACITY);
+        } else {
+            for (int i = 0; i < keys.length(); i++) {
+                // Handing the map to other threads afterwards publishes these writes
+                keys.setPlain(i, EMPTY);
+            }
+        }
+        size = 0;
+    }
+
+    /**
+     * Allocates an empty table of 'capacity' slots
+     * @param capacity number of slots, a power of two
+     */
+    private void allocate(int capacity) {
+        keys = new AtomicLongArray(capacity);
+        values = new byte[capacity];
+        mask = capacity - 1;
+    }
+}
@@ -0,0 +1,37 @@
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * This class represents a result sink writing the format a single search prints:
+ * 'maxDepth, nodesCreated, nodesExpanded, maxFringeSize' on one line, followed by
+ * the solution path on the next when it was recorded, or 'timed out' or 'out of memory'
+ * @author Alex Amado
+ */
+public class ConsoleResultSink extends ResultSink {
+    /**
+     * Constructs a 'ConsoleResultSink' object
+     * @param theChannel channel the records are written to
+     */
+    public ConsoleResultSink(WritableByteChannel theChannel) {
+        super(theChannel);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(int index, String initialState, String algorithm, String heuristic,
+                      SearchResult result) throws IOException {
+        if (result.isTimedOut() || result.isOutOfMemory()) {
+            putAscii(statusOf(result));
+            put('\n');
+            return;
+        }
+        putAscii(result.toString());
+        put('\n');
+        if (result.getPath() != null) {
+            putAscii(result.getPath());
+            put('\n');
+        }
+    }
+}
@@ -0,0 +1,62 @@
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * This class represents a result sink writing one comma-separated line per puzzle,
+ * after a header line naming the columns. The initial state is quoted since it holds
+ * the blank space; the path column is empty when the path wasn't recorded
+ * @author Alex Amado
+ */
+public class CsvResultSink extends ResultSink {
+    /**
+     * Names of the columns
+     */
+    private static final String HEADER =
+            "index,state,algorithm,heuristic,status,depth,created,expanded,maxFringe,wallNanos,path\n";
+
+    /**
+     * Constructs a 'CsvResultSink' object and writes the header line
+     * @param theChannel channel the records are written to
+     * @throws IOException if the channel fails
+     */
+    public CsvResultSink(WritableByteChannel theChannel) throws IOException {
+        super(theChannel);
+        putAscii(HEADER);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(int index, String initialState, String algorithm, String heuristic,
+                      SearchResult result) throws IOException {
+        putDecimal(index);
+        put(',');
+        put('"');
+        putAscii(initialState);
+        put('"');
+        put(',');
+        putAscii(algorithm);
+        put(',');
+        if (heuristic != null) {
+            putAscii(heuristic);
+        }
+        put(',');
+        putAscii(statusOf(result));
+        put(',');
+        putDecimal(result.getMaxDepth());
+        put(',');
+        putDecimal(result.getNodesCreated());
+        put(',');
+        putDecimal(result.getNodesExpanded());
+        put(',');
+        putDecimal(result.getMaxFringeSize());
+        put(',');
+        putDecimal(result.getWallNanos());
+        put(',');
+        if (result.getPath() != null) {
+            putAscii(result.getPath());
+        }
+        put('\n');
+    }
+}
@@ -1,4 +1,4 @@
-import java.util.*;
+import java.util.Arrays;
 
 /**
  * This class represents a search method (DFS) which is ran when the user wants to
@@ -6,11 +6,11 @@ import java.util.*;
  * tile game in hopes of finding a goal state/board
  * @author Alex Amado
  */
-public class DFS {
+public class DFS implements SearchEngine {
     /**
      * Our fringe data structure for this algorithm
      */
-    private Stack<Board> myStack;
+    private StateStack myStack;
     /**
      * Represents the depth in the search tree where the solution is found
      */
@@ -30,65 +30,166 @@ public class DFS {
      */
     private int maxFringeSize;
     /**
-     * A set which takes care of not visiting already visited states/boards
+     * A set which takes care of not visiting already visited states/boards (null when
+     * 'table' is used instead)
      */
-    private Set<String> visited;
+    private LongHashSet visited;
+    /**
+     * Bounded replacement for 'visited', used when the options of the current call to
+     * 'solve()' ask for a transposition table (null otherwise). A state which lost its
+     * slot may be expanded again
+     */
+    private TranspositionTable table;
+    /**
+     * Records the search tree so the solution path can be rebuilt (created the first
+     * time a path is asked for)
+     */
+    private PathArena pathArena;
+    /**
+     * Arena index of each board on 'myStack', kept in step with it while the path
+     * is recorded
+     */
+    private int[] pathIndices;
+    /**
+     * Whether the current call to 'solve()' records the solution path
+     */
+    private boolean recordPath;
+    /**
+     * Value of 'System.nanoTime()' when the current call to 'solve()' started
+     */
+    private long startNanos;
+    /**
+     * Packed goal state reachable from the initial state of the current call to
+     * 'solve()', the only one a board is compared against
+     */
+    private long goalState;
 
     /**
-     * Constructs a DFS object which initializes properties of a DFS such as
-     * statistical measurements, and runs the 'search()' method as well
+     * Constructs a DFS object which allocates the structures reused by every call
+     * to 'solve()'
+     */
+    public DFS() {
+        myStack = new StateStack();
+    }
+
+    /**
+     * Initializes statistical measurements and runs the search algorithm on
+     * 'initialState', reusing the structures of previous calls
      * @param initialState user provided initial state of the board the user
      *                     wants to start from on search
+     * @param options path recording, transposition table, and time limit of the search
+     * @return the stats (and path, if recorded) of the search, an out of memory result
+     * if the stack or the recorded path outgrew the memory cap
      */
-    public DFS(String initialState) {
-        // Create new 'Board' object with 'initialState'
-        Board rootBoard = new Board(initialState);
-        myStack = new Stack<>();
-        // Add new 'Board' object to queue
-        myStack.add(rootBoard);
+    @Override
+    public SearchResult solve(String initialState, SearchOptions options) {
+        startNanos = System.nanoTime();
+        Deadline deadline = options.startDeadline();
+        // Only one of the two goal states can be reached, answer at once if it isn't accepted
+        long initial = PackedState.encode(initialState);
+        goalState = options.targetGoal(initial);
+        if (goalState == PackedState.NO_STATE) {
+            return SearchResult.notFound(System.nanoTime() - startNanos);
+        }
+        recordPath = options.isRecordPath();
+        // Use a table of bounded size, or a set of visited states
+        table = TranspositionTable.forOptions(table, options);
+        if (table != null) {
+            visited = null;
+            table.clear();
+            table.resetCounters();
+        } else if (visited == null) {
+            visited = new LongHashSet();
+        } else {
+            visited.clear();
+        }
+        // The table takes half of the memory cap, the stack and the recorded search tree share the rest
+        long restBytes = table != null ? (options.getTranspositionMegabytes() << 20) - table.getMaxBytes() : 0;
+        long pathBytes = recordPath ? restBytes / 2 : 0;
+        myStack.clear();
+        myStack.setMaxBytes(restBytes - pathBytes, recordPath ? Integer.BYTES : 0);
+        // Add the root to stack
+        myStack.push(initial, 0, StateStack.NO_MOVE);
+        // Record the search tree only when the solution path was asked for
+        if (recordPath) {
+            if (pathArena == null) {
+                pathArena = new PathArena();
+                pathIndices = new int[64];
+            } else if (pathIndices.length > myStack.capacity()) {
+                pathIndices = new int[myStack.capacity()];
+            }
+            pathArena.clear();
+            pathArena.setMaxBytes(pathBytes);
+            pathIndices[0] = pathArena.addRoot();
+        }
         maxDepth = 0;
         nodesCreated = 1;
         nodesExpanded = 0;
         maxFringeSize = myStack.size();
-        // Create new set of visited states
-        visited = new HashSet<>();
         // Run the search algorithm
-        search();
+        return search(deadline);
     }
 
     /**
-     * Runs the search algorithm on 'initialState' passed by user from
-     * the constructor and reports stats on completion
+     * Runs the search algorithm on the board placed on the stack by 'solve()'
+     * @param deadline the time limit of the search
+     * @return the stats (and path, if recorded) of the search
      */
-    private void search() {
+    private SearchResult search(Deadline deadline) {
+        String solutionPath = null;
         while (!myStack.isEmpty()) {
             // Dequeue head of queue
-            Board board = myStack.pop();
-            // Get String representation of 'board'
-            String strBoard = board.getState();
+            int top = myStack.pop();
+            // Arena index of the board/node, which sat at the top of 'myStack'
+            int pathIndex = recordPath ? pathIndices[top] : -1;
+            // Get packed representation, depth and last move of the board/node
+            long packedBoard = myStack.getState(top);
+            int depth = myStack.getDepth(top);
+            int lastMove = myStack.getMove(top);
             // Add dequeue'd board/node to 'visited' set
-            visited.add(strBoard);
+            if (table != null) {
+                table.put(packedBoard, depth);
+            } else {
+                visited.add(packedBoard);
+            }
             // Increment 'nodesExpanded'
             nodesExpanded++;
-            // Check if dequeue'd board is equal to either goal states
-            if (board.isGoalState()) {
-                maxDepth = board.getDepth();
+            if ((nodesExpanded & (Deadline.CHECK_INTERVAL - 1)) == 0) {
+                deadline.check();
+            }
+            // Check if dequeue'd board is equal to the reachable goal state
+            if (packedBoard == goalState) {
+                maxDepth = depth;
+                if (recordPath) {
+                    solutionPath = pathArena.path(pathIndex);
+                }
                 break;
             }
-            // Get successor boards/nodes
-            ArrayList<Board> successorBoards = board.getSuccessorNodesDFSDLS();
-            for (Board successorBoard : successorBoards) {
-                // Check if 'successorBoard' was already previously added to 'visited' set
-                if (visited.contains(successorBoard.getState())) {
+            // Get successor boards/nodes, pushed in 'ORDER_DFS_DLS' so they are popped right, down, left, then up
+            int blank = PackedState.blankIndex(packedBoard);
+            for (int move : Board.ORDER_DFS_DLS) {
+                int target = Board.moveTarget(blank, move);
+                // Skip moves which leave the board or undo the previous move (its state was visited)
+                if (target < 0 || move == Board.inverseMove(lastMove)) {
                     continue;
                 }
-                // Increment 'numCreated' by number of 'successorBoards'
+                long successor = PackedState.move(packedBoard, blank, target);
+                // Check if successor was already previously added to 'visited' set
+                if (table != null ? table.get(successor) != TranspositionTable.MISSING : visited.contains(successor)) {
+                    continue;
+                }
+                // Stop once the memory cap is used up instead of growing past it
+                if (myStack.isFull() || (recordPath && pathArena.isFull())) {
+                    return SearchResult.outOfMemory(nodesCreated, nodesExpanded,
+                            Math.max(maxFringeSize, myStack.size()), System.nanoTime() - startNanos);
+                }
+                // Increment 'numCreated' by number of successors
                 nodesCreated++;
-                // Get parent's depth (parent is the 'board' local variable)
-                int parentDepth = board.getDepth();
-                // Set successor board's/node's to be equal to 1 + 'parentDepth'
-                successorBoard.setDepth(parentDepth + 1);
-                myStack.add(successorBoard);
+                // Create successor board/node with depth 1 + parent's depth
+                myStack.push(successor, depth + 1, move);
+                if (recordPath) {
+                    recordPathIndex(pathArena.add(pathIndex, move));
+                }
             }
 
             // Check if fringe size is the max we've seen so far
@@ -96,6 +197,27 @@ public class DFS {
                 maxFringeSize = myStack.size();
             }
         }
-        System.out.println(maxDepth + ", " + nodesCreated + ", " + nodesExpanded + ", " + maxFringeSize);
+        return new SearchResult(maxDepth, nodesCreated, nodesExpanded, maxFringeSize, solutionPath,
+                System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Returns the table used instead of the set of visited states
+     * @return the table, with the counters of the last call to 'solve()', or null if
+     * its options asked for no table
+     */
+    TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * Stores the arena index of the board just pushed onto 'myStack'
+     * @param pathIndex index of the board in 'pathArena'
+     */
+    private void recordPathIndex(int pathIndex) {
+        if (myStack.size() > pathIndices.length) {
+            pathIndices = Arrays.copyOf(pathIndices, myStack.capacity());
+        }
+        pathIndices[myStack.size() - 1] = pathIndex;
     }
 }
@@ -1,19 +1,21 @@
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.Stack;
+import java.util.Arrays;
 
 /**
  * This class represents a search method (DLS) which is ran when the user wants to
  * run this specific search method. This search methods searches over a 15-puzzle
- * tile game in hopes of finding a goal state/board
+ * tile game in hopes of finding a goal state/board. It keeps the smallest depth each
+ * state was reached at and expands a state again whenever a shallower path reaches it,
+ * so a state first reached along a deep path never blocks a shallower one found later
+ * and every solution within the limit is found. When the options ask for a transposition
+ * table the depths are kept in a 'TranspositionTable' of bounded size instead, a state
+ * which lost its slot is simply searched again
  * @author Alex Amado
  */
-public class DLS {
+public class DLS implements SearchEngine {
     /**
      * Our fringe data structure for this algorithm
      */
-    private Stack<Board> myStack;
+    private StateStack myStack;
     /**
      * Represents the maximum depth our search algorithm can explore too
      */
@@ -37,73 +39,190 @@ public class DLS {
      */
     private int maxFringeSize;
     /**
-     * A set which takes care of not visiting already visited states/boards
+     * Smallest depth each state was reached at (null when 'table' is used)
      */
-    private Set<String> visited;
+    private LongIntHashMap bestDepths;
+    /**
+     * Bounded replacement for 'bestDepths', used when the options of the current call
+     * to 'solve()' ask for a transposition table (null otherwise)
+     */
+    private TranspositionTable table;
+    /**
+     * Records the search tree so the solution path can be rebuilt (created the first
+     * time a path is asked for)
+     */
+    private PathArena pathArena;
+    /**
+     * Arena index of each board on 'myStack', kept in step with it while the path
+     * is recorded
+     */
+    private int[] pathIndices;
+    /**
+     * Whether the current call to 'solve()' records the solution path
+     */
+    private boolean recordPath;
+    /**
+     * Value of 'System.nanoTime()' when the current call to 'solve()' started
+     */
+    private long startNanos;
+    /**
+     * Packed goal state reachable from the initial state of the current call to
+     * 'solve()', the only one a board is compared against
+     */
+    private long goalState;
 
     /**
-     * Constructs a DLS object which initializes properties of a DLS such as
-     * statistical measurements, and runs the 'search()' method as well
+     * Constructs a DLS object which allocates the structures reused by every call
+     * to 'solve()'
+     */
+    public DLS() {
+        myStack = new StateStack();
+    }
+
+    /**
+     * Initializes statistical measurements and runs the search algorithm on
+     * 'initialState', reusing the structures of previous calls
      * @param initialState user provided initial state of the board the user
      *                     wants to start from on search
-     * @param theLimitedDepth the max depth our search algorithm can go too
-     *                        provided by the user
+     * @param options the depth limit, path recording, transposition table, and time
+     *                limit of the search
+     * @return the stats (and path, if recorded) of the search, an out of memory result
+     * if the stack or the recorded path outgrew the memory cap
      */
-    public DLS(String initialState, int theLimitedDepth) {
+    @Override
+    public SearchResult solve(String initialState, SearchOptions options) {
+        resetTable(options);
+        SearchResult result = solve(initialState, options, options.startDeadline());
+        // Check if we've found a solution with the given 'limitedDepth', or ran out of memory
+        return result.isSolved() || result.isOutOfMemory() ? result : SearchResult.notFound(result.getWallNanos());
+    }
+
+    /**
+     * Initializes statistical measurements and runs the search algorithm on
+     * 'initialState', reusing the structures of previous calls
+     * @param initialState user provided initial state of the board the user
+     *                     wants to start from on search
+     * @param options the depth limit, path recording, and transposition table of the search
+     * @param deadline the time limit of the search
+     * @return the stats (and path, if recorded) of the search, which are kept even
+     * when no solution was found
+     */
+    SearchResult solve(String initialState, SearchOptions options, Deadline deadline) {
+        startNanos = System.nanoTime();
+        // Only one of the two goal states can be reached, answer at once if it isn't accepted
+        long initial = PackedState.encode(initialState);
+        goalState = options.targetGoal(initial);
+        if (goalState == PackedState.NO_STATE) {
+            return SearchResult.notFound(System.nanoTime() - startNanos);
+        }
         // Initialize 'limitedDepth'
-        limitedDepth = theLimitedDepth;
-        // Create new 'Board' object with 'initialState'
-        Board rootBoard = new Board(initialState);
-        myStack = new Stack<>();
-        // Add new 'Board' object to queue
-        myStack.add(rootBoard);
+        limitedDepth = options.getDepthLimit();
+        recordPath = options.isRecordPath();
+        // Use a table of bounded size, or a map of the depth each state was reached at
+        table = TranspositionTable.forOptions(table, options);
+        if (table != null) {
+            bestDepths = null;
+            table.clear();
+            table.put(initial, 0);
+        } else {
+            if (bestDepths == null) {
+                bestDepths = new LongIntHashMap();
+            }
+            bestDepths.clear();
+            bestDepths.put(initial, 0);
+        }
+        // The table takes half of the memory cap, the stack and the recorded search tree share the rest
+        long restBytes = table != null ? (options.getTranspositionMegabytes() << 20) - table.getMaxBytes() : 0;
+        long pathBytes = recordPath ? restBytes / 2 : 0;
+        myStack.clear();
+        myStack.setMaxBytes(restBytes - pathBytes, recordPath ? Integer.BYTES : 0);
+        // Add the root to stack
+        myStack.push(initial, 0, StateStack.NO_MOVE);
+        // Record the search tree only when the solution path was asked for
+        if (recordPath) {
+            if (pathArena == null) {
+                pathArena = new PathArena();
+                pathIndices = new int[64];
+            } else if (pathIndices.length > myStack.capacity()) {
+                pathIndices = new int[myStack.capacity()];
+            }
+            pathArena.clear();
+            pathArena.setMaxBytes(pathBytes);
+            pathIndices[0] = pathArena.addRoot();
+        }
         maxDepth = 0;
         nodesCreated = 1;
         nodesExpanded = 0;
         maxFringeSize = myStack.size();
-        // Create new set of visited states
-        visited = new HashSet<>();
         // Run the search algorithm
-        search();
+        return search(deadline);
     }
 
     /**
-     * Runs the search algorithm on 'initialState' passed by user from
-     * the constructor and reports stats on completion
+     * Runs the search algorithm on the board placed on the stack by 'solve()'
+     * @param deadline the time limit of the search
+     * @return the stats (and path, if recorded) of the search
      */
-    private void search() {
+    private SearchResult search(Deadline deadline) {
         boolean found = false;
+        String solutionPath = null;
         while (!myStack.isEmpty()) {
             // Dequeue head of queue
-            Board board = myStack.pop();
-            // Get String representation of 'board'
-            String strBoard = board.getState();
-            // Add dequeue'd board/node to 'visited' set
-            visited.add(strBoard);
+            int top = myStack.pop();
+            // Arena index of the board/node, which sat at the top of 'myStack'
+            int pathIndex = recordPath ? pathIndices[top] : -1;
+            // Get packed representation, depth and last move of the board/node
+            long packedBoard = myStack.getState(top);
+            int parentDepth = myStack.getDepth(top);
+            int lastMove = myStack.getMove(top);
+            // Skip boards reached again at a smaller depth after they were pushed
+            int bestDepth = bestDepth(packedBoard);
+            if (bestDepth != LongIntHashMap.MISSING && parentDepth > bestDepth) {
+                continue;
+            }
             // Increment 'nodesExpanded'
             nodesExpanded++;
-            // Check if dequeue'd board is equal to either goal states
-            if (board.isGoalState()) {
+            if ((nodesExpanded & (Deadline.CHECK_INTERVAL - 1)) == 0) {
+                deadline.check();
+            }
+            // Check if dequeue'd board is equal to the reachable goal state
+            if (packedBoard == goalState) {
                 found = true;
-                maxDepth = board.getDepth();
+                maxDepth = parentDepth;
+                if (recordPath) {
+                    solutionPath = pathArena.path(pathIndex);
+                }
                 break;
             }
-            // Get parent's depth (parent is the 'board' local variable)
-            int parentDepth = board.getDepth();
-            // Get successor boards/nodes
-            ArrayList<Board> successorBoards = board.getSuccessorNodesDFSDLS();
-            for (Board successorBoard : successorBoards) {
-                // Check if 'successorBoard' was already previously added to 'visited' set
-                if (visited.contains(successorBoard.getState())) {
-                    continue;
-                }
-                // Check if 'parentDepth + 1' is greater than 'limitedDepth'
-                if (parentDepth + 1 <= limitedDepth) {
-                    // Increment 'numCreated' by number of 'successorBoards'
+            // Check if 'parentDepth + 1' is greater than 'limitedDepth', if so no successor can be added
+            if (parentDepth + 1 <= limitedDepth) {
+                // Get successor boards/nodes, pushed in 'ORDER_DFS_DLS' so they are popped right, down, left, then up
+                int blank = PackedState.blankIndex(packedBoard);
+                for (int move : Board.ORDER_DFS_DLS) {
+                    int target = Board.moveTarget(blank, move);
+                    // Skip moves which leave the board or undo the previous move (its state was visited)
+                    if (target < 0 || move == Board.inverseMove(lastMove)) {
+                        continue;
+                    }
+                    long successor = PackedState.move(packedBoard, blank, target);
+                    // Check if successor was already reached at a depth no larger
+                    int successorBestDepth = bestDepth(successor);
+                    if (successorBestDepth != LongIntHashMap.MISSING && successorBestDepth <= parentDepth + 1) {
+                        continue;
+                    }
+                    // Stop once the memory cap is used up instead of growing past it
+                    if (myStack.isFull() || (recordPath && pathArena.isFull())) {
+                        return SearchResult.outOfMemory(nodesCreated, nodesExpanded,
+                                Math.max(maxFringeSize, myStack.size()), System.nanoTime() - startNanos);
+                    }
+                    recordDepth(successor, parentDepth + 1);
+                    // Increment 'numCreated' by number of successors
                     nodesCreated++;
-                    // Set successor board's/node's to be equal to 1 + 'parentDepth'
-                    successorBoard.setDepth(parentDepth + 1);
-                    myStack.add(successorBoard);
+                    // Create successor board/node with depth 1 + 'parentDepth'
+                    myStack.push(successor, parentDepth + 1, move);
+                    if (recordPath) {
+                        recordPathIndex(pathArena.add(pathIndex, move));
+                    }
                 }
             }
             // Check if fringe size is the max we've seen so far
@@ -111,11 +230,62 @@ public class DLS {
                 maxFringeSize = myStack.size();
             }
         }
-        // Check if we've found a solution with the given 'limitedDepth'
-        if (found) {
-            System.out.println(maxDepth + ", " + nodesCreated + ", " + nodesExpanded + ", " + maxFringeSize);
+        return new SearchResult(found ? maxDepth : -1, nodesCreated, nodesExpanded, maxFringeSize, solutionPath,
+                System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Returns the smallest depth a state was reached at
+     * @param state the packed state
+     * @return the depth of the state, or 'LongIntHashMap.MISSING' if it wasn't reached
+     * (or lost its slot in 'table')
+     */
+    private int bestDepth(long state) {
+        return table != null ? table.get(state) : bestDepths.get(state);
+    }
+
+    /**
+     * Records the smallest depth a state was reached at
+     * @param state the packed state
+     * @param depth the depth the state was reached at
+     */
+    private void recordDepth(long state, int depth) {
+        if (table != null) {
+            table.put(state, depth);
         } else {
-            System.out.println(-1 + ", " + 0 + ", " + 0 + ", " + 0);
+            bestDepths.put(state, depth);
+        }
+    }
+
+    /**
+     * Chooses the table the following calls to 'solve()' with 'options' use and sets
+     * its counters back to 0, so they add up over those calls
+     * @param options the options of the following calls
+     */
+    void resetTable(SearchOptions options) {
+        table = TranspositionTable.forOptions(table, options);
+        if (table != null) {
+            table.resetCounters();
+        }
+    }
+
+    /**
+     * Returns the table used instead of the map of the depth each state was reached at
+     * @return the table, with the counters of the last calls to 'solve()', or null if
+     * their options asked for no table
+     */
+    TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * Stores the arena index of the board just pushed onto 'myStack'
+     * @param pathIndex index of the board in 'pathArena'
+     */
+    private void recordPathIndex(int pathIndex) {
+        if (myStack.size() > pathIndices.length) {
+            pathIndices = Arrays.copyOf(pathIndices, myStack.capacity());
         }
+        pathIndices[myStack.size() - 1] = pathIndex;
     }
-}
\ No newline at end of file
+}
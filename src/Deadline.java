@@ -0,0 +1,62 @@
+import java.util.concurrent.CancellationException;
+
+/**
+ * This class represents the time limit of a search. Search methods poll it every
+ * 'CHECK_INTERVAL' expansions, so a search running past its limit stops shortly after
+ * instead of holding on to its thread
+ * @author Alex Amado
+ */
+public final class Deadline {
+    /**
+     * A deadline which never expires
+     */
+    public static final Deadline NONE = new Deadline(0);
+    /**
+     * Number of expansions between two checks of the deadline, a power of two so
+     * searches can test 'count & (CHECK_INTERVAL - 1)'
+     */
+    public static final int CHECK_INTERVAL = 1 << 10;
+
+    /**
+     * Value of 'System.nanoTime()' past which the search must stop (unused for 'NONE')
+     */
+    private final long expiresAt;
+    /**
+     * Whether this deadline expires at all
+     */
+    private final boolean isLimited;
+
+    /**
+     * Constructs a 'Deadline' object
+     * @param theTimeLimitNanos time limit in nanoseconds from now, 0 for no limit
+     */
+    private Deadline(long theTimeLimitNanos) {
+        isLimited = theTimeLimitNanos > 0;
+        expiresAt = isLimited ? System.nanoTime() + theTimeLimitNanos : 0;
+    }
+
+    /**
+     * Returns a deadline which expires 'millis' milliseconds from now
+     * @param millis the time limit in milliseconds, 0 for no limit
+     * @return the deadline
+     */
+    public static Deadline afterMillis(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Time limit must not be negative: " + millis);
+        }
+        return millis == 0 ? NONE : new Deadline(millis * 1_000_000);
+    }
+
+    /**
+     * Stops the search if this deadline has passed or its thread was interrupted
+     * @throws CancellationException if the search must stop
+     */
+    public void check() {
+        if (Thread.interrupted()) {
+            throw new CancellationException("Search was interrupted");
+        }
+        if (isLimited && System.nanoTime() - expiresAt > 0) {
+            throw new CancellationException("Search exceeded its time limit");
+        }
+    }
+}
@@ -0,0 +1,595 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * This class represents a search method (external-memory BFS) which is ran when the user
+ * wants to run this specific search method. Like 'ParallelBFS' it goes one depth at a
+ * time, but no layer and no visited set is ever held in memory: each layer is a file of
+ * sorted, distinct packed states. The successors of a layer are gathered in a buffer the
+ * size of the RAM budget, which is sorted and written out as a run whenever it is full.
+ * The runs are then merged, and every state found in the current or previous layer is
+ * dropped while merging, since a move only reaches the layers next to its own; what
+ * is left is the next layer. Every file is read and written sequentially in blocks.
+ * The RAM budget is set with '-Dpuzzle.bfsMegabytes' (64 MB by default) and the files
+ * are kept in '-Dpuzzle.spillDir' (the temporary directory by default). The stats are
+ * the same distinct-state metrics as 'ParallelBFS'. 'countLayers' runs the same search
+ * to completion to give the exact number of states at each distance from a state
+ * @author Alex Amado
+ */
+public class ExternalBFS implements SearchEngine {
+    /**
+     * Number of states read or written at once by each file stream
+     */
+    private static final int BLOCK_STATES = 1 << 13;
+    /**
+     * Smallest number of files merged at once: the last merge of a layer reads the
+     * layer and the one before it besides the runs
+     */
+    private static final int MIN_FAN_IN = 4;
+
+    /**
+     * Buffer the successors are gathered and sorted in
+     */
+    private final long[] buffer;
+    /**
+     * Largest number of runs merged at once, so their read blocks fit in the RAM budget
+     */
+    private final int fanIn;
+    /**
+     * Directory holding the files of the current call to 'solve()'
+     */
+    private Path directory;
+    /**
+     * Number of files created in 'directory', used to name the next one
+     */
+    private int fileCount;
+    /**
+     * Number of states in the layer written last
+     */
+    private long layerSize;
+    /**
+     * Whether the goal state was found in the layer written last
+     */
+    private boolean found;
+    /**
+     * Represents the counter that is incremented every time a node of the
+     * search tree is created
+     */
+    private long nodesCreated;
+    /**
+     * Represents the counter that will be incremented every time the search
+     * algorithm acquires the successor states to the current state
+     */
+    private long nodesExpanded;
+    /**
+     * Represents the maximum size of the fringe at any point during the search, for
+     * external-memory BFS the size of the largest layer
+     */
+    private long maxFringeSize;
+    /**
+     * Packed goal state reachable from the initial state of the current call to
+     * 'solve()' ('PackedState.NO_STATE' while counting layers)
+     */
+    private long goalState;
+    /**
+     * Time limit of the current call to 'solve()'
+     */
+    private Deadline deadline;
+
+    /**
+     * Constructs an external-memory BFS object with the RAM budget set through the
+     * 'puzzle.bfsMegabytes' system property
+     */
+    public ExternalBFS() {
+        this(Long.getLong("puzzle.bfsMegabytes", 64) << 20);
+    }
+
+    /**
+     * Constructs an external-memory BFS object which allocates the buffer reused by
+     * every call to 'solve()'
+     * @param maxBytes the RAM budget of the buffer and the file streams
+     */
+    public ExternalBFS(long maxBytes) {
+        long blockBytes = (long) BLOCK_STATES * Long.BYTES;
+        long minBytes = 2 * (MIN_FAN_IN + 1) * blockBytes;
+        if (maxBytes < minBytes) {
+            throw new IllegalArgumentException("Please specify a RAM budget of at least " + minBytes + " bytes.");
+        }
+        // Half of the budget sorts the successors, the other half streams the runs
+        buffer = new long[(int) Math.min(maxBytes / 2 / Long.BYTES, Integer.MAX_VALUE - 8)];
+        fanIn = (int) Math.min(maxBytes / 2 / blockBytes - 1, 1 << 12);
+    }
+
+    /**
+     * Initializes statistical measurements and runs the search algorithm on
+     * 'initialState', one layer file at a time
+     * @param initialState user provided initial state of the board the user
+     *                     wants to start from on search
+     * @param options path recording, accepted goal state, and time limit of the search
+     * @return the stats (and path, if recorded) of the search
+     */
+    @Override
+    public SearchResult solve(String initialState, SearchOptions options) {
+        long startNanos = System.nanoTime();
+        deadline = options.startDeadline();
+        long initial = PackedState.encode(initialState);
+        // Only one of the two goal states can be reached, answer at once if it isn't accepted
+        goalState = options.targetGoal(initial);
+        if (goalState == PackedState.NO_STATE) {
+            return SearchResult.notFound(System.nanoTime() - startNanos);
+        }
+        try {
+            List<Path> layers = search(initial, Integer.MAX_VALUE, options.isRecordPath(), null);
+            int depth = layers.size() - 1;
+            String solutionPath = options.isRecordPath() && found ? pathTo(goalState, layers) : null;
+            // The reachable goal state is always found before the states run out
+            return new SearchResult(found ? depth : -1, nodesCreated, nodesExpanded, maxFringeSize, solutionPath,
+                    System.nanoTime() - startNanos);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read or write the layer files in '" + directory + "'", e);
+        } finally {
+            deleteFiles();
+        }
+    }
+
+    /**
+     * Counts the states at each distance from 'initialState', by running the search
+     * until every reachable state was found or 'options.getDepthLimit()' was reached
+     * @param initialState the initial state of the board, already validated
+     * @param options the largest distance counted (no limit by default) and time limit
+     * @return the number of states at distance 0, 1, 2 and so on
+     */
+    public long[] countLayers(String initialState, SearchOptions options) {
+        deadline = options.startDeadline();
+        goalState = PackedState.NO_STATE;
+        List<Long> counts = new ArrayList<>();
+        try {
+            search(PackedState.encode(initialState), options.getDepthLimit(), false, counts);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read or write the layer files in '" + directory + "'", e);
+        } finally {
+            deleteFiles();
+        }
+        long[] result = new long[counts.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = counts.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Runs the search algorithm, one layer at a time, until the goal state is found,
+     * the states run out, or 'maxDepth' was reached
+     * @param initial the packed root state
+     * @param maxDepth the deepest layer written
+     * @param keepLayers whether every layer file is kept to rebuild the path, instead
+     *                   of only the two a layer is checked against
+     * @param counts receives the size of each layer (null if not needed)
+     * @return the files of the layers kept, indexed by depth (null for those deleted)
+     * @throws IOException if a file can't be created, read or written
+     */
+    private List<Path> search(long initial, int maxDepth, boolean keepLayers, List<Long> counts) throws IOException {
+        directory = Files.createTempDirectory(
+                Paths.get(System.getProperty("puzzle.spillDir", System.getProperty("java.io.tmpdir"))), "puzzle-bfs-");
+        fileCount = 0;
+        nodesCreated = 1;
+        nodesExpanded = 0;
+        maxFringeSize = 1;
+        List<Path> layers = new ArrayList<>();
+        Path root = newFile();
+        try (StateWriter writer = new StateWriter(root)) {
+            writer.write(initial);
+        }
+        layers.add(root);
+        layerSize = 1;
+        found = initial == goalState;
+        if (counts != null) {
+            counts.add(1L);
+        }
+        while (!found && layerSize > 0 && layers.size() <= maxDepth) {
+            int depth = layers.size() - 1;
+            Path next = expandLayer(layers.get(depth), depth > 0 ? layers.get(depth - 1) : null);
+            // Only the newest two layers are needed to check the next one
+            if (!keepLayers && depth > 0) {
+                Files.delete(layers.get(depth - 1));
+                layers.set(depth - 1, null);
+            }
+            if (layerSize == 0) {
+                Files.delete(next);
+                break;
+            }
+            layers.add(next);
+            nodesCreated += layerSize;
+            maxFringeSize = Math.max(maxFringeSize, layerSize);
+            if (counts != null) {
+                counts.add(layerSize);
+            }
+        }
+        return layers;
+    }
+
+    /**
+     * Expands every state of a layer and writes the successors found in neither it nor
+     * the previous layer, sorted and without duplicates, to a new layer file
+     * @param layer file of the layer to expand
+     * @param previous file of the layer before it (null for the root's)
+     * @return file of the next layer, whose size is left in 'layerSize'
+     * @throws IOException if a file can't be created, read or written
+     */
+    private Path expandLayer(Path layer, Path previous) throws IOException {
+        deadline.check();
+        List<Path> runs = new ArrayList<>();
+        int size = 0;
+        try (StateReader reader = new StateReader(layer)) {
+            while (reader.hasNext()) {
+                long state = reader.next();
+                nodesExpanded++;
+                if ((nodesExpanded & (Deadline.CHECK_INTERVAL - 1)) == 0) {
+                    deadline.check();
+                }
+                if (size + SuccessorBuffer.MAX_SUCCESSORS > buffer.length) {
+                    runs.add(writeRun(size));
+                    size = 0;
+                }
+                int blank = PackedState.blankIndex(state);
+                for (int move : Board.ORDER_BFS_ASTAR_GBFS) {
+                    int target = Board.moveTarget(blank, move);
+                    if (target >= 0) {
+                        buffer[size++] = PackedState.move(state, blank, target);
+                    }
+                }
+            }
+        }
+        if (size > 0) {
+            runs.add(writeRun(size));
+        }
+        // Merge the runs down to a number whose blocks fit in the budget with the two layers
+        while (runs.size() > fanIn - 2) {
+            List<Path> merged = new ArrayList<>();
+            for (int from = 0; from < runs.size(); from += fanIn) {
+                List<Path> group = runs.subList(from, Math.min(runs.size(), from + fanIn));
+                merged.add(merge(group, null, null));
+            }
+            runs = merged;
+        }
+        return merge(runs, layer, previous);
+    }
+
+    /**
+     * Sorts the first 'size' states of 'buffer' and writes them, without duplicates,
+     * to a new run file
+     * @param size number of states in 'buffer'
+     * @return the run file
+     * @throws IOException if the file can't be created or written
+     */
+    private Path writeRun(int size) throws IOException {
+        Arrays.sort(buffer, 0, size);
+        Path run = newFile();
+        try (StateWriter writer = new StateWriter(run)) {
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || buffer[i] != buffer[i - 1]) {
+                    writer.write(buffer[i]);
+                }
+            }
+        }
+        return run;
+    }
+
+    /**
+     * Merges sorted run files into one sorted file without duplicates, then deletes them.
+     * States found in 'layer' or 'previous' are left out, in which case the result is
+     * the next layer: its size is left in 'layerSize' and 'found' is set if it holds
+     * the goal state
+     * @param runs the sorted run files
+     * @param layer file of the layer expanded (null when only merging runs)
+     * @param previous file of the layer before it (null if there is none)
+     * @return the merged file
+     * @throws IOException if a file can't be created, read or written
+     */
+    private Path merge(List<Path> runs, Path layer, Path previous) throws IOException {
+        Path merged = newFile();
+        PriorityQueue<StateReader> heads = new PriorityQueue<>(Math.max(1, runs.size()),
+                Comparator.comparingLong(StateReader::peek));
+        StateReader current = null;
+        StateReader before = null;
+        try (StateWriter writer = new StateWriter(merged)) {
+            for (Path run : runs) {
+                StateReader reader = new StateReader(run);
+                if (reader.hasNext()) {
+                    heads.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+            current = layer != null ? new StateReader(layer) : null;
+            before = previous != null ? new StateReader(previous) : null;
+            long count = 0;
+            boolean hasLast = false;
+            long last = 0;
+            while (!heads.isEmpty()) {
+                StateReader reader = heads.poll();
+                long state = reader.next();
+                if (reader.hasNext()) {
+                    heads.add(reader);
+                } else {
+                    reader.close();
+                }
+                // Skip duplicates across runs
+                if (hasLast && state == last) {
+                    continue;
+                }
+                hasLast = true;
+                last = state;
+                // Skip states of the two layers a move from 'layer' can go back to
+                if ((current != null && current.skipTo(state)) || (before != null && before.skipTo(state))) {
+                    continue;
+                }
+                writer.write(state);
+                count++;
+                if (state == goalState) {
+                    found = true;
+                }
+            }
+            if (layer != null) {
+                layerSize = count;
+            }
+        } finally {
+            for (StateReader reader : heads) {
+                reader.close();
+            }
+            if (current != null) {
+                current.close();
+            }
+            if (before != null) {
+                before.close();
+            }
+        }
+        for (Path run : runs) {
+            Files.delete(run);
+        }
+        return merged;
+    }
+
+    /**
+     * Rebuilds the moves leading from the root to 'state' by scanning each kept layer,
+     * deepest first, for a state one move away
+     * @param state a packed state found in the last layer of 'layers'
+     * @param layers the file of every layer, indexed by depth
+     * @return the moves of the blank space as letters (R, D, L and U)
+     * @throws IOException if a layer file can't be read
+     */
+    private String pathTo(long state, List<Path> layers) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        long[] parents = new long[SuccessorBuffer.MAX_SUCCESSORS];
+        int[] moves = new int[SuccessorBuffer.MAX_SUCCESSORS];
+        for (int depth = layers.size() - 2; depth >= 0; depth--) {
+            // The parent is the state reached by undoing one of the moves into 'state'
+            int blank = PackedState.blankIndex(state);
+            int count = 0;
+            for (int move : Board.ORDER_BFS_ASTAR_GBFS) {
+                int target = Board.moveTarget(blank, move);
+                if (target >= 0) {
+                    parents[count] = PackedState.move(state, blank, target);
+                    moves[count] = Board.inverseMove(move);
+                    count++;
+                }
+            }
+            int parent = -1;
+            try (StateReader reader = new StateReader(layers.get(depth))) {
+                while (parent < 0 && reader.hasNext()) {
+                    long candidate = reader.next();
+                    for (int i = 0; i < count; i++) {
+                        if (parents[i] == candidate) {
+                            parent = i;
+                        }
+                    }
+                }
+            }
+            if (parent < 0) {
+                throw new IllegalStateException("No parent of a layer " + (depth + 1) + " state in layer " + depth);
+            }
+            sb.append(PathArena.moveLetter(moves[parent]));
+            state = parents[parent];
+        }
+        return sb.reverse().toString();
+    }
+
+    /**
+     * Names a new file in 'directory'
+     * @return the path of the new file, which doesn't exist yet
+     */
+    private Path newFile() {
+        return directory.resolve("states-" + (fileCount++) + ".bin");
+    }
+
+    /**
+     * Deletes 'directory' and every file left in it
+     */
+    private void deleteFiles() {
+        if (directory == null) {
+            return;
+        }
+        try {
+            for (int i = 0; i < fileCount; i++) {
+                Files.deleteIfExists(directory.resolve("states-" + i + ".bin"));
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to delete the layer files in '" + directory + "'", e);
+        }
+        directory = null;
+    }
+
+    /**
+     * This class represents a sequential reader of a file of packed states
+     */
+    private static final class StateReader implements Closeable {
+        /**
+         * Channel the file is read through
+         */
+        private final FileChannel channel;
+        /**
+         * Block of states read from the file and not consumed yet
+         */
+        private final ByteBuffer block;
+        /**
+         * Next state of the file, valid while 'hasHead' is set
+         */
+        private long head;
+        /**
+         * Whether 'head' holds a state, false once the file is exhausted
+         */
+        private boolean hasHead;
+
+        /**
+         * Constructs a 'StateReader' positioned on the first state of a file
+         * @param file the file to read
+         * @throws IOException if the file can't be opened or read
+         */
+        private StateReader(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            block = ByteBuffer.allocate(BLOCK_STATES * Long.BYTES);
+            block.flip();
+            advance();
+        }
+
+        /**
+         * Checks whether a state is left to read
+         * @return true if 'next' can be called
+         */
+        private boolean hasNext() {
+            return hasHead;
+        }
+
+        /**
+         * Returns the next state without consuming it
+         * @return the next state
+         */
+        private long peek() {
+            return head;
+        }
+
+        /**
+         * Consumes the next state
+         * @return the next state
+         * @throws IOException if the file can't be read
+         */
+        private long next() throws IOException {
+            long state = head;
+            advance();
+            return state;
+        }
+
+        /**
+         * Consumes every state smaller than 'state', the file being sorted
+         * @param state the state looked for
+         * @return true if the file holds 'state'
+         * @throws IOException if the file can't be read
+         */
+        private boolean skipTo(long state) throws IOException {
+            while (hasHead && head < state) {
+                advance();
+            }
+            return hasHead && head == state;
+        }
+
+        /**
+         * Moves 'head' to the next state of the file, reading a new block when needed
+         * @throws IOException if the file can't be read
+         */
+        private void advance() throws IOException {
+            if (!block.hasRemaining()) {
+                block.clear();
+                while (block.hasRemaining() && channel.read(block) >= 0) {
+                    // Keep reading until the block is full or the file ends
+                }
+                block.flip();
+            }
+            hasHead = block.hasRemaining();
+            if (hasHead) {
+                head = block.getLong();
+            }
+        }
+
+        /**
+         * Closes the file
+         * @throws IOException if the file can't be closed
+         */
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * This class represents a sequential writer of a file of packed states
+     */
+    private static final class StateWriter implements Closeable {
+        /**
+         * Channel the file is written through
+         */
+        private final FileChannel channel;
+        /**
+         * Block of states waiting to be written
+         */
+        private final ByteBuffer block;
+
+        /**
+         * Constructs a 'StateWriter' creating a new file
+         * @param file the file to create
+         * @throws IOException if the file can't be created
+         */
+        private StateWriter(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            block = ByteBuffer.allocate(BLOCK_STATES * Long.BYTES);
+        }
+
+        /**
+         * Appends a state to the file
+         * @param state the packed state
+         * @throws IOException if the file can't be written
+         */
+        private void write(long state) throws IOException {
+            block.putLong(state);
+            if (!block.hasRemaining()) {
+                flush();
+            }
+        }
+
+        /**
+         * Writes the states waiting in 'block'
+         * @throws IOException if the file can't be written
+         */
+        private void flush() throws IOException {
+            block.flip();
+            while (block.hasRemaining()) {
+                channel.write(block);
+            }
+            block.clear();
+        }
+
+        /**
+         * Writes the states left and closes the file
+         * @throws IOException if the file can't be written or closed
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
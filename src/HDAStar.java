@@ -0,0 +1,452 @@
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class represents a search method (hash-distributed A*, HDA*) which is ran when the
+ * user wants to run this specific search method. The states are split between threads
+ * by a hash of their packed form: each thread owns its share, with its own open list and
+ * the best depth it has seen for each state, so no structure is ever shared or locked.
+ * A thread which generates a state owned by another sends it through that thread's
+ * 'MpscQueue'. Threads don't expand in global f order, so the first goal state found is
+ * only an upper bound: the search goes on, dropping every node whose f reaches the best
+ * solution so far, until no node is left in any open list or queue. Since the heuristics
+ * are admissible, the solution left is optimal. The calling thread acts as the first
+ * worker and the others run on threads the engine keeps between calls to 'solve()'
+ * @author Alex Amado
+ */
+public class HDAStar implements SearchEngine {
+    /**
+     * Seconds a thread of 'helpers' is kept idle before it ends, so an engine which is
+     * no longer used doesn't hold on to its threads
+     */
+    private static final long KEEP_ALIVE_SECONDS = 60;
+    /**
+     * Number of engines created so far, used to name their threads
+     */
+    private static final AtomicInteger ENGINES = new AtomicInteger();
+
+    /**
+     * Each thread searching the states it owns
+     */
+    private final Worker[] workers;
+    /**
+     * Threads running every worker but the first, one each so they all run at once
+     * (null if there is a single worker)
+     */
+    private final ThreadPoolExecutor helpers;
+    /**
+     * Number of nodes held in any open list or on their way to one. It goes up before a
+     * node is sent and down only once a node was expanded or dropped, so it reaching 0
+     * means every thread is out of work for good
+     */
+    private final AtomicLong work;
+    /**
+     * Options of the current call to 'solve()'
+     */
+    private SearchOptions searchOptions;
+    /**
+     * Packed goal state reachable from the initial state of the current call to 'solve()'
+     */
+    private long goalState;
+    /**
+     * Time limit of the current call to 'solve()', polled by every thread
+     */
+    private Deadline deadline;
+    /**
+     * Depth of the best solution found so far ('Integer.MAX_VALUE' if none was)
+     */
+    private volatile int incumbent;
+    /**
+     * Node of the best solution found so far (null if none was)
+     */
+    private Node solution;
+    /**
+     * Set when a thread failed or ran out of time, which stops every other
+     */
+    private volatile boolean stopped;
+    /**
+     * Why the search was stopped (null unless 'stopped')
+     */
+    private volatile RuntimeException failure;
+    /**
+     * Value of 'System.nanoTime()' when the current call to 'solve()' started
+     */
+    private long startNanos;
+
+    /**
+     * Constructs a HDA* object which uses 'defaultThreads(1)' threads
+     */
+    public HDAStar() {
+        this(defaultThreads(1));
+    }
+
+    /**
+     * Constructs a HDA* object which allocates the structures and threads reused by
+     * every call to 'solve()'
+     * @param theThreads number of threads the states are split between
+     */
+    public HDAStar(int theThreads) {
+        if (theThreads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive: " + theThreads);
+        }
+        workers = new Worker[theThreads];
+        for (int i = 0; i < theThreads; i++) {
+            workers[i] = new Worker();
+        }
+        work = new AtomicLong();
+        if (theThreads == 1) {
+            helpers = null;
+        } else {
+            String prefix = "hda-" + ENGINES.incrementAndGet() + "-";
+            AtomicInteger created = new AtomicInteger();
+            helpers = new ThreadPoolExecutor(theThreads - 1, theThreads - 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, prefix + created.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            helpers.allowCoreThreadTimeOut(true);
+        }
+    }
+
+    /**
+     * Returns the number of threads a HDA* engine uses by default, set with
+     * '-Dpuzzle.hdaThreads'. Otherwise the available processors are split between the
+     * engines searching at once, so a batch run doesn't start one thread per processor
+     * for each of its own threads
+     * @param engines number of engines searching at once
+     * @return the number of threads of each engine, at least 1
+     */
+    public static int defaultThreads(int engines) {
+        int threads = Integer.getInteger("puzzle.hdaThreads", Runtime.getRuntime().availableProcessors() / engines);
+        return Math.max(1, threads);
+    }
+
+    /**
+     * Initializes statistical measurements and runs the search algorithm on
+     * 'initialState', reusing the structures of previous calls
+     * @param initialState user provided initial state of the board the user
+     *                     wants to start from on search
+     * @param options the heuristic to invoke on each state at each moment of the
+     *                search, path recording, accepted goal state, and time limit
+     * @return the stats (and path, if recorded) of the search
+     */
+    @Override
+    public SearchResult solve(String initialState, SearchOptions options) {
+        startNanos = System.nanoTime();
+        deadline = options.startDeadline();
+        searchOptions = options;
+        long initial = PackedState.encode(initialState);
+        // Only one of the two goal states can be reached, answer at once if it isn't accepted
+        goalState = options.targetGoal(initial);
+        if (goalState == PackedState.NO_STATE) {
+            return SearchResult.notFound(System.nanoTime() - startNanos);
+        }
+        incumbent = Integer.MAX_VALUE;
+        solution = null;
+        stopped = false;
+        failure = null;
+        for (Worker worker : workers) {
+            worker.reset();
+        }
+        Worker rootOwner = workers[ownerOf(initial)];
+        work.set(1);
+        rootOwner.inbox.offer(new Node(initial, 0, -1, rootOwner.probe.estimate(initial), null));
+        // Run the search algorithm, the calling thread acting as the first worker
+        Future<?>[] running = new Future<?>[workers.length - 1];
+        for (int i = 0; i < running.length; i++) {
+            running[i] = helpers.submit(workers[i + 1]);
+        }
+        workers[0].run();
+        boolean interrupted = awaitHelpers(running);
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Search was interrupted");
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return result();
+    }
+
+    /**
+     * Waits for every worker run by 'helpers' to stop, so none of them is still running
+     * when the next call to 'solve()' resets their structures
+     * @param running the workers submitted to 'helpers'
+     * @return true if the calling thread was interrupted, which stops the search
+     */
+    private boolean awaitHelpers(Future<?>[] running) {
+        boolean interrupted = false;
+        for (Future<?> worker : running) {
+            while (true) {
+                try {
+                    worker.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    stopped = true;
+                } catch (ExecutionException e) {
+                    // Workers catch their own exceptions, only an 'Error' gets here
+                    throw new IllegalStateException("Search failed", e.getCause());
+                }
+            }
+        }
+        return interrupted;
+    }
+
+    /**
+     * Collects the stats of every thread once they all stopped
+     * @return the stats (and path, if recorded) of the search
+     */
+    private SearchResult result() {
+        long nodesCreated = 1;
+        long nodesExpanded = 0;
+        long maxFringeSize = 0;
+        for (Worker worker : workers) {
+            nodesCreated += worker.nodesCreated;
+            nodesExpanded += worker.nodesExpanded;
+            // Open lists peak at different times, so this is an upper bound
+            maxFringeSize += worker.maxFringeSize;
+        }
+        if (solution == null) {
+            return new SearchResult(-1, nodesCreated, nodesExpanded, maxFringeSize, null,
+                    System.nanoTime() - startNanos);
+        }
+        String solutionPath = null;
+        if (searchOptions.isRecordPath()) {
+            StringBuilder sb = new StringBuilder();
+            for (Node node = solution; node.parent != null; node = node.parent) {
+                sb.append(PathArena.moveLetter(node.move));
+            }
+            solutionPath = sb.reverse().toString();
+        }
+        return new SearchResult(solution.depth, nodesCreated, nodesExpanded, maxFringeSize, solutionPath,
+                System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Finds the thread owning a state. The high bits of the hash are used, since each
+     * thread's own table indexes on the low ones
+     * @param state the packed state
+     * @return index of the owning worker
+     */
+    private int ownerOf(long state) {
+        return (int) ((LongHashSet.mix(state) >>> 32) % workers.length);
+    }
+
+    /**
+     * Records a solution if it is better than the best one so far
+     * @param node node holding the goal state
+     */
+    private synchronized void offerSolution(Node node) {
+        if (node.depth < incumbent) {
+            solution = node;
+            incumbent = node.depth;
+        }
+    }
+
+    /**
+     * This class represents a state waiting in an open list or a queue, and the way it
+     * was reached
+     */
+    private static final class Node {
+        /**
+         * Packed state of the node
+         */
+        private final long state;
+        /**
+         * Depth of the node (its cost g)
+         */
+        private final int depth;
+        /**
+         * Move which produced the node (-1 for the root)
+         */
+        private final int move;
+        /**
+         * Priority of the node, f = g + h
+         */
+        private final int priority;
+        /**
+         * Node this one was produced from (null for the root, or if no path is recorded)
+         */
+        private final Node parent;
+
+        /**
+         * Constructs a 'Node' object
+         * @param theState packed state of the node
+         * @param theDepth depth of the node
+         * @param theMove move which produced the node (-1 for the root)
+         * @param theHeuristic heuristic value of the node
+         * @param theParent node this one was produced from, or null
+         */
+        private Node(long theState, int theDepth, int theMove, int theHeuristic, Node theParent) {
+            state = theState;
+            depth = theDepth;
+            move = theMove;
+            priority = theDepth + theHeuristic;
+            parent = theParent;
+        }
+    }
+
+    /**
+     * This class represents one thread of the search and the share of the states it owns
+     */
+    private final class Worker implements Runnable {
+        /**
+         * Nodes sent to this thread by the others (and the root)
+         */
+        private final MpscQueue<Node> inbox = new MpscQueue<>();
+        /**
+         * Open list of the nodes this thread owns, by f = g + h
+         */
+        private final BucketQueue<Node> open = new BucketQueue<>();
+        /**
+         * Smallest depth each state owned by this thread was reached at
+         */
+        private final LongIntHashMap bestDepths = new LongIntHashMap();
+        /**
+         * Measures the heuristic of the states this thread generates
+         */
+        private final IDAStar probe = new IDAStar();
+        /**
+         * Reusable buffer the successors of each expanded node are written into
+         */
+        private final Node[] successors = new Node[SuccessorBuffer.MAX_SUCCESSORS];
+        /**
+         * Number of nodes created by this thread
+         */
+        private long nodesCreated;
+        /**
+         * Number of nodes expanded by this thread
+         */
+        private long nodesExpanded;
+        /**
+         * Largest size of 'open'
+         */
+        private int maxFringeSize;
+
+        /**
+         * Empties this thread's structures and configures its heuristic for the
+         * current call to 'solve()'
+         */
+        private void reset() {
+            inbox.clear();
+            open.clear();
+            bestDepths.clear();
+            probe.prepareSubtrees(searchOptions, goalState, deadline, null);
+            nodesCreated = 0;
+            nodesExpanded = 0;
+            maxFringeSize = 0;
+        }
+
+        /**
+         * Expands the best node this thread owns until no work is left anywhere
+         */
+        @Override
+        public void run() {
+            try {
+                search();
+            } catch (RuntimeException e) {
+                failure = e;
+                stopped = true;
+            }
+        }
+
+        /**
+         * Runs the search loop of this thread
+         */
+        private void search() {
+            while (!stopped) {
+                Node received;
+                while ((received = inbox.poll()) != null) {
+                    receive(received);
+                }
+                if (open.isEmpty()) {
+                    if (work.get() == 0) {
+                        return;
+                    }
+                    Thread.onSpinWait();
+                    continue;
+                }
+                Node node = open.remove();
+                // Drop nodes reached again at a smaller depth, and those which can't
+                // lead to a better solution than the best one so far
+                if (node.depth > bestDepths.get(node.state) || node.priority >= incumbent) {
+                    work.decrementAndGet();
+                    continue;
+                }
+                expand(node);
+            }
+        }
+
+        /**
+         * Adds a node to the open list, unless its state was already reached at a
+         * depth no larger
+         * @param node a node owned by this thread
+         */
+        private void receive(Node node) {
+            int best = bestDepths.get(node.state);
+            if (best != LongIntHashMap.MISSING && best <= node.depth) {
+                work.decrementAndGet();
+                return;
+            }
+            bestDepths.put(node.state, node.depth);
+            open.add(node, node.priority);
+            if (open.size() > maxFringeSize) {
+                maxFringeSize = open.size();
+            }
+        }
+
+        /**
+         * Expands a node, sending each successor to the thread owning it
+         * @param node the node to expand
+         */
+        private void expand(Node node) {
+            // Increment 'nodesExpanded'
+            nodesExpanded++;
+            if ((nodesExpanded & (Deadline.CHECK_INTERVAL - 1)) == 0) {
+                deadline.check();
+            }
+            // Check if the node is the reachable goal state
+            if (node.state == goalState) {
+                offerSolution(node);
+                work.decrementAndGet();
+                return;
+            }
+            Node parent = searchOptions.isRecordPath() ? node : null;
+            int count = 0;
+            int blank = PackedState.blankIndex(node.state);
+            for (int move : Board.ORDER_BFS_ASTAR_GBFS) {
+                int target = Board.moveTarget(blank, move);
+                // Skip moves which leave the board or undo the previous move
+                if (target < 0 || move == Board.inverseMove(node.move)) {
+                    continue;
+                }
+                long state = PackedState.move(node.state, blank, target);
+                Node successor = new Node(state, node.depth + 1, move, probe.estimate(state), parent);
+                if (successor.priority < incumbent) {
+                    successors[count++] = successor;
+                }
+            }
+            nodesCreated += count;
+            // Count the successors before any other thread can see them, and this node
+            // as done, in a single update
+            work.addAndGet(count - 1);
+            for (int i = 0; i < count; i++) {
+                Worker owner = workers[ownerOf(successors[i].state)];
+                if (owner == this) {
+                    receive(successors[i]);
+                } else {
+                    owner.inbox.offer(successors[i]);
+                }
+                successors[i] = null;
+            }
+        }
+    }
+}
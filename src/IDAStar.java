@@ -0,0 +1,390 @@
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class represents a search method (IDA*) which is ran when the user wants to
+ * run this specific search method. This search methods searches over a 15-puzzle
+ * tile game in hopes of finding a goal state/board. Unlike A*, only the current path
+ * is kept in memory: the state is a single packed 'long' which is altered in place
+ * by making and unmaking moves, so memory stays proportional to the solution depth
+ * @author Alex Amado
+ */
+public class IDAStar implements SearchEngine {
+    /**
+     * String to compare against when deciphering if user wants heuristic 1
+     */
+    private static final String HEURISTIC_ONE = "h1";
+    /**
+     * String to compare against when deciphering if user wants heuristic 3
+     */
+    private static final String HEURISTIC_THREE = "h3";
+    /**
+     * Value returned by 'search(...)' when the goal state was found
+     */
+    private static final int FOUND = -1;
+    /**
+     * Value returned by 'search(...)' when no node exceeded the current bound
+     */
+    private static final int NOT_FOUND = Integer.MAX_VALUE;
+    /**
+     * Value returned by 'search(...)' when another thread already found the goal state
+     */
+    static final int CANCELLED = Integer.MIN_VALUE;
+
+    /**
+     * Represents the depth in the search tree where the solution is found
+     */
+    private int maxDepth;
+    /**
+     * Represents the counter that is incremented every time a node of the
+     * search tree is created
+     */
+    private long nodesCreated;
+    /**
+     * Represents the counter that will be incremented every time the search
+     * algorithm acquires the successor states to the current state
+     */
+    private long nodesExpanded;
+    /**
+     * Represents the maximum size of the fringe at any point during the search,
+     * for IDA* this is the length of the longest path held on the recursion stack
+     */
+    private int maxFringeSize;
+    /**
+     * A boolean value which indicates whether the user wanted to run this algorithm with
+     * heuristic 1
+     */
+    private boolean isHeuristicOne;
+    /**
+     * A boolean value which indicates whether the user wanted to run this algorithm with
+     * heuristic 3
+     */
+    private boolean isHeuristicThree;
+    /**
+     * Pattern database used to measure heuristic 3 (null until heuristic 3 is first used)
+     */
+    private PatternDatabase patternDatabase;
+    /**
+     * Manhattan distance table of goal state 1 (see 'Board.manhattanTable')
+     */
+    private final byte[] manhattanGoalOne;
+    /**
+     * Manhattan distance table of goal state 2 (see 'Board.manhattanTable')
+     */
+    private final byte[] manhattanGoalTwo;
+    /**
+     * Packed state of the node currently being searched, altered in place
+     */
+    private long state;
+    /**
+     * Cell index of the blank space in 'state'
+     */
+    private int blankIndex;
+    /**
+     * Packed goal state reachable from the root state, the only one measured and
+     * compared against
+     */
+    private long goalState;
+    /**
+     * Manhattan distance table of 'goalState'
+     */
+    private byte[] manhattanGoal;
+    /**
+     * Heuristic of 'state' measured on 'goalState'
+     */
+    private int heuristic;
+    /**
+     * Moves of the solution, appended from the goal back to the root while the
+     * recursion unwinds (null unless the current call to 'solve()' records the path).
+     * The current path already lives on the recursion stack, so nothing is recorded
+     * per node
+     */
+    private StringBuilder solutionPath;
+    /**
+     * Time limit of the current call to 'solve()'
+     */
+    private Deadline deadline;
+    /**
+     * Value of 'System.nanoTime()' when the current call to 'solve()' started
+     */
+    private long startNanos;
+    /**
+     * Set once any thread searching the same iteration found the goal state (null
+     * unless this object searches subtrees for 'ParallelIDAStar')
+     */
+    private AtomicBoolean solved;
+
+    /**
+     * Constructs a IDA* object which prepares the tables reused by every call
+     * to 'solve()'
+     */
+    public IDAStar() {
+        manhattanGoalOne = Board.manhattanTable(PackedState.GOAL_ONE);
+        manhattanGoalTwo = Board.manhattanTable(PackedState.GOAL_TWO);
+    }
+
+    /**
+     * Initializes statistical measurements and runs the search algorithm on
+     * 'initialState'
+     * @param initialState user provided initial state of the board the user
+     *                     wants to start from on search
+     * @param options the heuristic to invoke on each state at each moment of the
+     *                search (number of missing tiles and sum of Manhattan distances
+     *                to each cell of the boards correct positions, or the pattern
+     *                database), path recording, and time limit
+     * @return the stats (and path, if recorded) of the search
+     */
+    @Override
+    public SearchResult solve(String initialState, SearchOptions options) {
+        startNanos = System.nanoTime();
+        deadline = options.startDeadline();
+        solved = null;
+        // Initialize root state
+        state = PackedState.encode(initialState);
+        // Only one of the two goal states can be reached, answer at once if it isn't accepted
+        long theGoalState = options.targetGoal(state);
+        if (theGoalState == PackedState.NO_STATE) {
+            return SearchResult.notFound(System.nanoTime() - startNanos);
+        }
+        configure(options.getHeuristic(), theGoalState);
+        blankIndex = PackedState.blankIndex(state);
+        heuristic = evaluate();
+        maxDepth = 0;
+        nodesCreated = 1;
+        nodesExpanded = 0;
+        maxFringeSize = 1;
+        solutionPath = options.isRecordPath() ? new StringBuilder() : null;
+        // Run the search algorithm
+        return search();
+    }
+
+    /**
+     * Chooses the heuristic and the goal state it is measured on
+     * @param theHeuristic 'h1', 'h2', or 'h3'
+     * @param theGoalState packed goal state reachable from the root state
+     */
+    private void configure(String theHeuristic, long theGoalState) {
+        // Initialize which heuristic to choose
+        isHeuristicOne = theHeuristic.equals(HEURISTIC_ONE);
+        isHeuristicThree = theHeuristic.equals(HEURISTIC_THREE);
+        if (isHeuristicThree && patternDatabase == null) {
+            patternDatabase = PatternDatabase.getDefault();
+        }
+        goalState = theGoalState;
+        manhattanGoal = goalState == PackedState.GOAL_ONE ? manhattanGoalOne : manhattanGoalTwo;
+    }
+
+    /**
+     * Prepares this object to search subtrees of one iteration for 'ParallelIDAStar',
+     * clearing its stats
+     * @param options the heuristic of the search, and whether the solution path is recorded
+     * @param theGoalState packed goal state reachable from the root state
+     * @param theDeadline time limit of the search
+     * @param theSolved set once any thread found the goal state, which stops every other
+     */
+    void prepareSubtrees(SearchOptions options, long theGoalState, Deadline theDeadline, AtomicBoolean theSolved) {
+        configure(options.getHeuristic(), theGoalState);
+        deadline = theDeadline;
+        solved = theSolved;
+        solutionPath = options.isRecordPath() ? new StringBuilder() : null;
+        maxDepth = 0;
+        nodesCreated = 0;
+        nodesExpanded = 0;
+        maxFringeSize = 0;
+    }
+
+    /**
+     * Measures the chosen heuristic of a state, as set by 'prepareSubtrees'
+     * @param theState the packed state
+     * @return the heuristic value
+     */
+    int estimate(long theState) {
+        state = theState;
+        return evaluate();
+    }
+
+    /**
+     * Searches depth-first below a state found at 'depth' without exceeding 'bound'
+     * @param root packed state the subtree starts from
+     * @param depth depth of 'root' (its cost g)
+     * @param bound the largest f = g + h allowed in this iteration
+     * @param lastMove move which produced 'root' (-1 for the root of the whole search)
+     * @return a negative value if the goal state was reached ('CANCELLED' if another
+     * thread reached it first), otherwise the smallest f which exceeded 'bound'
+     * ('Integer.MAX_VALUE' if there was none)
+     */
+    int searchSubtree(long root, int depth, int bound, int lastMove) {
+        state = root;
+        blankIndex = PackedState.blankIndex(root);
+        heuristic = evaluate();
+        int f = depth + heuristic;
+        return f > bound ? f : search(depth, bound, lastMove);
+    }
+
+    /**
+     * Returns the depth of the solution found by 'searchSubtree'
+     * @return the depth of the solution
+     */
+    int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns the number of nodes created since 'prepareSubtrees'
+     * @return the number of nodes created
+     */
+    long getNodesCreated() {
+        return nodesCreated;
+    }
+
+    /**
+     * Returns the number of nodes expanded since 'prepareSubtrees'
+     * @return the number of nodes expanded
+     */
+    long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    /**
+     * Returns the length of the longest path held on the recursion stack since
+     * 'prepareSubtrees', counted from the root of the whole search
+     * @return the maximum size of the fringe
+     */
+    int getMaxFringeSize() {
+        return maxFringeSize;
+    }
+
+    /**
+     * Returns the moves leading from the root of the subtree to the goal state
+     * @return the moves of the blank space (R, D, L and U), or null if the path isn't recorded
+     */
+    String getSubtreePath() {
+        return solutionPath == null ? null : new StringBuilder(solutionPath).reverse().toString();
+    }
+
+    /**
+     * Runs the search algorithm on the root state set up by 'solve()'. Each iteration is a
+     * depth-first search bounded by f = g + h, the next bound being the smallest
+     * f which exceeded the previous one, so the first solution found is optimal
+     * @return the stats (and path, if recorded) of the search
+     */
+    private SearchResult search() {
+        int bound = heuristic;
+        while (true) {
+            int result = search(0, bound, -1);
+            if (result == FOUND) {
+                String path = solutionPath == null ? null : solutionPath.reverse().toString();
+                return new SearchResult(maxDepth, nodesCreated, nodesExpanded, maxFringeSize, path,
+                        System.nanoTime() - startNanos);
+            }
+            if (result == NOT_FOUND) {
+                return SearchResult.notFound(System.nanoTime() - startNanos);
+            }
+            bound = result;
+        }
+    }
+
+    /**
+     * Searches depth-first below the current 'state' without exceeding 'bound'
+     * @param depth depth of the current 'state' (its cost g)
+     * @param bound the largest f = g + h allowed in this iteration
+     * @param lastMove move which produced the current 'state' (-1 for the root)
+     * @return 'FOUND' if the goal state was reached, 'CANCELLED' if another thread
+     * reached it first, otherwise the smallest f which exceeded 'bound' ('NOT_FOUND'
+     * if there was none)
+     */
+    private int search(int depth, int bound, int lastMove) {
+        if (depth + 1 > maxFringeSize) {
+            maxFringeSize = depth + 1;
+        }
+        // Check if current state is equal to the reachable goal state
+        if (state == goalState) {
+            maxDepth = depth;
+            return FOUND;
+        }
+        // Increment 'nodesExpanded'
+        nodesExpanded++;
+        if ((nodesExpanded & (Deadline.CHECK_INTERVAL - 1)) == 0) {
+            deadline.check();
+            if (solved != null && solved.get()) {
+                return CANCELLED;
+            }
+        }
+        int minExceeded = NOT_FOUND;
+        int blank = blankIndex;
+        for (int move : Board.ORDER_BFS_ASTAR_GBFS) {
+            int target = Board.moveTarget(blank, move);
+            // Skip moves which leave the board or undo the previous move
+            if (target < 0 || move == Board.inverseMove(lastMove)) {
+                continue;
+            }
+            nodesCreated++;
+            // Make the move
+            int tile = PackedState.tileAt(state, target);
+            long parentState = state;
+            state = PackedState.move(state, blank, target);
+            int delta = isHeuristicThree ? patternDatabase.estimate(state, goalState) - heuristic
+                    : delta(tile, blank, target);
+            blankIndex = target;
+            heuristic += delta;
+            int f = depth + 1 + heuristic;
+            int result = f > bound ? f : search(depth + 1, bound, move);
+            if (result == FOUND) {
+                if (solutionPath != null) {
+                    solutionPath.append(PathArena.moveLetter(move));
+                }
+                return FOUND;
+            }
+            if (result == CANCELLED) {
+                return CANCELLED;
+            }
+            minExceeded = Math.min(minExceeded, result);
+            // Unmake the move
+            state = parentState;
+            blankIndex = blank;
+            heuristic -= delta;
+        }
+        return minExceeded;
+    }
+
+    /**
+     * Measures the chosen heuristic of 'state' on 'goalState'. The blank space is
+     * not counted, which keeps the heuristic admissible so the solution is optimal
+     * @return the heuristic value
+     */
+    private int evaluate() {
+        if (isHeuristicThree) {
+            return patternDatabase.estimate(state, goalState);
+        }
+        int value = 0;
+        for (int i = 0; i < PackedState.CELLS; i++) {
+            int tile = PackedState.tileAt(state, i);
+            if (tile == 0) {
+                continue;
+            }
+            if (isHeuristicOne) {
+                if (tile != PackedState.tileAt(goalState, i)) value++;
+            } else {
+                value += manhattanGoal[tile << 4 | i];
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Computes how the chosen heuristic changes when 'tile' slides from cell
+     * 'target' into the blank space found in cell 'blank', measured on 'goalState'
+     * @param tile the tile which moves
+     * @param blank cell index of the blank space before the move
+     * @param target cell index of 'tile' before the move
+     * @return the change in the heuristic value
+     */
+    private int delta(int tile, int blank, int target) {
+        if (isHeuristicOne) {
+            int delta = 0;
+            if (tile != PackedState.tileAt(goalState, blank)) delta++;
+            if (tile != PackedState.tileAt(goalState, target)) delta--;
+            return delta;
+        }
+        return manhattanGoal[tile << 4 | blank] - manhattanGoal[tile << 4 | target];
+    }
+}
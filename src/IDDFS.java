@@ -0,0 +1,83 @@
+/**
+ * This class represents a search method (IDDFS) which is ran when the user wants to
+ * run this specific search method. It runs a 'DLS' with a growing depth
+ * limit until a solution is found, so the first solution is as shallow as the one BFS
+ * would find while memory stays proportional to what a single DLS keeps. Every move
+ * changes the parity of the distance between the blank space and its goal cell, so
+ * only limits of the solution's parity are tried. The stats add up every iteration,
+ * except 'maxFringeSize' which is the largest of any iteration
+ * @author Alex Amado
+ */
+public class IDDFS implements SearchEngine {
+    /**
+     * Depth-limited search run once per limit
+     */
+    private final DLS dls;
+
+    /**
+     * Constructs an IDDFS object which allocates the structures reused by every call
+     * to 'solve()'
+     */
+    public IDDFS() {
+        dls = new DLS();
+    }
+
+    /**
+     * Runs a depth-limited search on 'initialState' with limits growing by 2 until a
+     * solution is found
+     * @param initialState user provided initial state of the board the user
+     *                     wants to start from on search
+     * @param options the largest depth limit tried (no limit by default), path
+     *                recording, transposition table, accepted goal state, and time
+     *                limit of the search
+     * @return the stats (and path, if recorded) of the search, an out of memory result
+     * if the stack or the recorded path outgrew the memory cap
+     */
+    @Override
+    public SearchResult solve(String initialState, SearchOptions options) {
+        long startNanos = System.nanoTime();
+        Deadline deadline = options.startDeadline();
+        long initial = PackedState.encode(initialState);
+        // Only one of the two goal states can be reached, answer at once if it isn't accepted
+        long goalState = options.targetGoal(initial);
+        if (goalState == PackedState.NO_STATE) {
+            return SearchResult.notFound(System.nanoTime() - startNanos);
+        }
+        // The solution is at least as deep as the blank space is far from its goal cell
+        int blank = PackedState.blankIndex(initial);
+        int goalBlank = PackedState.blankIndex(goalState);
+        int limit = Math.abs(blank / PackedState.WIDTH - goalBlank / PackedState.WIDTH)
+                + Math.abs(blank % PackedState.WIDTH - goalBlank % PackedState.WIDTH);
+        dls.resetTable(options);
+        long nodesCreated = 0;
+        long nodesExpanded = 0;
+        long maxFringeSize = 0;
+        while (limit <= options.getDepthLimit()) {
+            SearchResult result = dls.solve(initialState, options.withDepthLimit(limit), deadline);
+            nodesCreated += result.getNodesCreated();
+            nodesExpanded += result.getNodesExpanded();
+            maxFringeSize = Math.max(maxFringeSize, result.getMaxFringeSize());
+            if (result.isSolved()) {
+                return new SearchResult(result.getMaxDepth(), nodesCreated, nodesExpanded, maxFringeSize,
+                        result.getPath(), System.nanoTime() - startNanos);
+            }
+            if (result.isOutOfMemory()) {
+                return SearchResult.outOfMemory(nodesCreated, nodesExpanded, maxFringeSize, System.nanoTime() - startNanos);
+            }
+            if (limit > Integer.MAX_VALUE - 2) {
+                break;
+            }
+            limit += 2;
+        }
+        return SearchResult.notFound(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Returns the table the depth-limited search keeps its depths in
+     * @return the table, with the counters of every iteration of the last call to
+     * 'solve()', or null if its options asked for no table
+     */
+    TranspositionTable getTranspositionTable() {
+        return dls.getTranspositionTable();
+    }
+}
@@ -0,0 +1,231 @@
+import java.util.Arrays;
+
+/**
+ * This class represents a set of primitive 'long' keys (packed states/boards) which
+ * uses open addressing with linear probing, so no key is ever boxed and no entry
+ * object is ever allocated. The table grows by 'growthFactor' whenever the number
+ * of keys goes past 'loadFactor' times the table capacity
+ * @author Alex Amado
+ */
+public class LongHashSet {
+    /**
+     * Default number of slots in a newly created table
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 12;
+    /**
+     * Default fraction of the table which may be filled before it grows
+     */
+    public static final float DEFAULT_LOAD_FACTOR = 0.5f;
+    /**
+     * Default factor the table is multiplied by when it grows
+     */
+    public static final int DEFAULT_GROWTH_FACTOR = 2;
+    /**
+     * Largest table capacity supported (length of a Java array must stay below 2^31)
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+    /**
+     * Key value used to mark an empty slot. A packed state can never be 0 since
+     * each tile value appears exactly once, so this never collides in practice
+     */
+    private static final long EMPTY = 0L;
+
+    /**
+     * Table of keys, a slot holding 'EMPTY' is free
+     */
+    private long[] keys;
+    /**
+     * Bit mask used to map a hash onto a slot ('keys.length - 1')
+     */
+    private int mask;
+    /**
+     * Number of keys stored in the set
+     */
+    private int size;
+    /**
+     * Number of keys at which the table will grow
+     */
+    private int threshold;
+    /**
+     * Indicates whether the key 0 (which can't be stored in 'keys') is in the set
+     */
+    private boolean containsZero;
+    /**
+     * Fraction of the table which may be filled before it grows
+     */
+    private final float loadFactor;
+    /**
+     * Factor the table is multiplied by when it grows
+     */
+    private final int growthFactor;
+    /**
+     * Number of slots the table was created with, which 'clear' shrinks it back to
+     */
+    private final int initialCapacity;
+
+    /**
+     * Constructs an empty 'LongHashSet' with the default capacity, load factor
+     * and growth factor
+     */
+    public LongHashSet() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR, DEFAULT_GROWTH_FACTOR);
+    }
+
+    /**
+     * Constructs an empty 'LongHashSet'
+     * @param theInitialCapacity number of keys the set should hold before it first grows
+     * @param theLoadFactor fraction of the table which may be filled before it grows,
+     *                      must be in (0, 1)
+     * @param theGrowthFactor factor the table is multiplied by when it grows, must be
+     *                        a power of two greater than 1
+     */
+    public LongHashSet(int theInitialCapacity, float theLoadFactor, int theGrowthFactor) {
+        if (!(theLoadFactor > 0f && theLoadFactor < 1f)) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1.");
+        }
+        if (theGrowthFactor < 2 || Integer.bitCount(theGrowthFactor) != 1) {
+            throw new IllegalArgumentException("Growth factor must be a power of two greater than 1.");
+        }
+        loadFactor = theLoadFactor;
+        growthFactor = theGrowthFactor;
+        initialCapacity = tableSizeFor((long) Math.ceil(Math.max(theInitialCapacity, 1) / (double) theLoadFactor));
+        allocate(initialCapacity);
+    }
+
+    /**
+     * Adds 'key' to the set
+     * @param key the key to add
+     * @return true if the key was not already in the set
+     */
+    public boolean add(long key) {
+        if (key == EMPTY) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int slot = (int) mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        if (++size > threshold) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether 'key' is in the set
+     * @param key the key to look for
+     * @return true if the key is in the set
+     */
+    public boolean contains(long key) {
+        if (key == EMPTY) {
+            return containsZero;
+        }
+        int slot = (int) mix(key) & mask;
+        long current;
+        while ((current = keys[slot]) != EMPTY) {
+            if (current == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of keys in the set
+     * @return the number of keys in the set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the current number of slots in the table
+     * @return the current number of slots in the table
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Removes every key from the set. A table which grew is shrunk back to its initial
+     * capacity, so one large search doesn't make every later call pay for clearing
+     * all of its slots; otherwise the table is kept so it can be reused
+     */
+    public void clear() {
+        if (keys.length > initialCapacity) {
+            allocate(initialCapacity);
+        } else {
+            Arrays.fill(keys, EMPTY);
+        }
+        size = 0;
+        containsZero = false;
+    }
+
+    /**
+     * Scrambles the bits of a key so that packed states, which only differ in a few
+     * nibbles, are spread over the whole table (finalizer of MurmurHash3)
+     * @param key the key to scramble
+     * @return the scrambled key
+     */
+    static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * Rounds a requested number of slots up to a supported power of two
+     * @param slots the requested number of slots
+     * @return the table capacity to use
+     */
+    static int tableSizeFor(long slots) {
+        int capacity = 2;
+        while (capacity < slots && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Allocates an empty table of 'capacity' slots
+     * @param capacity number of slots, a power of two
+     */
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        threshold = capacity == MAX_CAPACITY ? capacity - 1 : (int) (capacity * loadFactor);
+    }
+
+    /**
+     * Grows the table by 'growthFactor' and reinserts every key
+     */
+    private void grow() {
+        if (keys.length == MAX_CAPACITY) {
+            throw new IllegalStateException("LongHashSet is full.");
+        }
+        long[] oldKeys = keys;
+        allocate((int) Math.min((long) oldKeys.length * growthFactor, MAX_CAPACITY));
+        for (long key : oldKeys) {
+            if (key != EMPTY) {
+                int slot = (int) mix(key) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+import java.util.Arrays;
+
+/**
+ * This class represents a map from primitive 'long' keys (packed states/boards) to
+ * 'int' values, using open addressing with linear probing like 'LongHashSet', so no
+ * key or value is ever boxed and no entry object is ever allocated. The table doubles
+ * whenever the number of keys goes past half its capacity
+ * @author Alex Amado
+ */
+public class LongIntHashMap {
+    /**
+     * Value returned by 'get' for a key which is not in the map
+     */
+    public static final int MISSING = -1;
+    /**
+     * Largest table capacity supported (length of a Java array must stay below 2^31)
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+    /**
+     * Key value used to mark an empty slot. A packed state can never be 0 since
+     * each tile value appears exactly once, so this never collides in practice
+     */
+    private static final long EMPTY = 0L;
+
+    /**
+     * Table of keys, a slot holding 'EMPTY' is free
+     */
+    private long[] keys;
+    /**
+     * Value of the key found in the same slot of 'keys'
+     */
+    private int[] values;
+    /**
+     * Bit mask used to map a hash onto a slot ('keys.length - 1')
+     */
+    private int mask;
+    /**
+     * Number of keys stored in the map
+     */
+    private int size;
+    /**
+     * Number of keys at which the table will grow
+     */
+    private int threshold;
+    /**
+     * Number of slots the table was created with, which 'clear' shrinks it back to
+     */
+    private final int initialCapacity;
+    /**
+     * Indicates whether the key 0 (which can't be stored in 'keys') is in the map
+     */
+    private boolean containsZero;
+    /**
+     * Value of the key 0, if it is in the map
+     */
+    private int zeroValue;
+
+    /**
+     * Constructs an empty 'LongIntHashMap' with the default capacity of 'LongHashSet'
+     */
+    public LongIntHashMap() {
+        initialCapacity = LongHashSet.tableSizeFor(LongHashSet.DEFAULT_CAPACITY * 2L);
+        allocate(initialCapacity);
+    }
+
+    /**
+     * Maps 'key' to 'value', unless 'key' is already in the map
+     * @param key the key to add
+     * @param value the value of the key, must not be 'MISSING'
+     * @return true if the key was not already in the map
+     */
+    public boolean putIfAbsent(long key, int value) {
+        if (key == EMPTY) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            zeroValue = value;
+            size++;
+            return true;
+        }
+        int slot = (int) LongHashSet.mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > threshold) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Maps 'key' to 'value', replacing its previous value if it is already in the map
+     * @param key the key to add
+     * @param value the value of the key, must not be 'MISSING'
+     */
+    public void put(long key, int value) {
+        if (key == EMPTY) {
+            if (!containsZero) {
+                containsZero = true;
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+        int slot = (int) LongHashSet.mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > threshold) {
+            grow();
+        }
+    }
+
+    /**
+     * Returns the value of 'key'
+     * @param key the key to look for
+     * @return the value of the key, or 'MISSING' if it is not in the map
+     */
+    public int get(long key) {
+        if (key == EMPTY) {
+            return containsZero ? zeroValue : MISSING;
+        }
+        int slot = (int) LongHashSet.mix(key) & mask;
+        long current;
+        while ((current = keys[slot]) != EMPTY) {
+            if (current == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    /**
+     * Returns the number of keys in the map
+     * @return the number of keys in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every key from the map. A table which grew is shrunk back to its initial
+     * capacity, so one large search doesn't make every later call pay for clearing
+     * all of its slots; otherwise the table is kept so it can be reused
+     */
+    public void clear() {
+        if (keys.length > initialCapacity) {
+            allocate(initialCapacity);
+        } else {
+            Arrays.fill(keys, EMPTY);
+        }
+        size = 0;
+        containsZero = false;
+    }
+
+    /**
+     * Allocates an empty table of 'capacity' slots
+     * @param capacity number of slots, a power of two
+     */
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        threshold = capacity == MAX_CAPACITY ? capacity - 1 : capacity / 2;
+    }
+
+    /**
+     * Doubles the table and reinserts every key
+     */
+    private void grow() {
+        if (keys.length == MAX_CAPACITY) {
+            throw new IllegalStateException("LongIntHashMap is full.");
+        }
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = (int) LongHashSet.mix(oldKeys[i]) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
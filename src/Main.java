@@ -1,4 +1,16 @@
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -6,12 +18,69 @@ import java.util.Set;
  * @author Alex Amado
  */
 public class Main {
+    /**
+     * Whether the time to first solve is reported on standard error, set with
+     * '-Dpuzzle.startupReport=true'
+     */
+    private static final boolean STARTUP_REPORT = Boolean.getBoolean("puzzle.startupReport");
+    /**
+     * Command line flag selecting batch mode:
+     * '--batch {puzzleFile} {searchMethod} {options (optional)}'
+     */
+    private static final String BATCH_FLAG = "--batch";
+    /**
+     * Command line flag selecting corpus generation: '--corpus {outputFile} walk {depth} {count}',
+     * '--corpus {outputFile} random {count}', or '--corpus {outputFile} korf {instanceFile}'
+     */
+    private static final String CORPUS_FLAG = "--corpus";
+    /**
+     * Command line flag printing which goal state can be reached: '--goal {initialState}'
+     */
+    private static final String GOAL_FLAG = "--goal";
+    /**
+     * Command line flag printing how many states lie at each distance from a state:
+     * '--distances {initialState} {maxDistance (optional)}'
+     */
+    private static final String DISTANCES_FLAG = "--distances";
+    /**
+     * Command line flag giving 'DFS', 'DLS' and 'IDDFS' a memory cap and a transposition
+     * table, placed before the other arguments: '--tt {megabytes}:{policy (optional)} ...'.
+     * The table takes half of the cap, the stack and the recorded path the other half
+     */
+    private static final String TT_FLAG = "--tt";
+    /**
+     * Names the stats of 'ParallelBFS' and 'ExternalBFS', which count distinct states
+     * and so differ from those 'BFS' reports
+     */
+    private static final String DISTINCT_STATES_LABEL = " (distinct states: depth, reached, expanded, largest layer)";
+
     /**
      * Driver method
      * @param args command line arguments
+     * @throws IOException if the puzzle file of a batch run or a corpus file can't be
+     *                     read or written
      */
-    public static void main(String[] args) {
-        if (args.length == 2) {
+    public static void main(String[] args) throws IOException {
+        long mainStart = System.nanoTime();
+        SearchOptions baseOptions = SearchOptions.DEFAULT;
+        if (args.length > 1 && args[0].equals(TT_FLAG)) {
+            baseOptions = parseTranspositionTable(args[1]);
+            args = Arrays.copyOfRange(args, 2, args.length);
+        }
+        if (args.length > 0 && args[0].equals(BATCH_FLAG)) {
+            runBatch(args, baseOptions);
+        } else if (args.length > 0 && args[0].equals(CORPUS_FLAG)) {
+            runCorpus(args);
+        } else if (args.length > 0 && args[0].equals(DISTANCES_FLAG)) {
+            runDistances(args);
+        } else if (args.length == 2 && args[0].equals(GOAL_FLAG)) {
+            if (!verifyInitialState(args[1])) {
+                throw new IllegalArgumentException("Please specify valid initial state.");
+            }
+            // Only one of the two goal states can be reached, decided by parity alone
+            long goal = PackedState.reachableGoal(PackedState.encode(args[1]));
+            System.out.println("Goal state " + (goal == PackedState.GOAL_ONE ? 1 : 2) + ": \"" + PackedState.decode(goal) + "\"");
+        } else if (args.length == 2) {
             String initialState = args[0];
             if (!verifyInitialState(initialState)) {
                 throw new IllegalArgumentException("Please specify valid initial state.");
@@ -22,15 +91,39 @@ public class Main {
                 case "BFS":
                     // Use breadth-first search
                     System.out.println("BFS");
-                    BFS bfs = new BFS(initialState);
+                    report(new BFS().solve(initialState));
                     break;
                 case "DFS":
                     // Use depth-first search
                     System.out.println("DFS");
-                    DFS dfs = new DFS(initialState);
+                    DFS dfs = new DFS();
+                    report(dfs.solve(initialState, baseOptions));
+                    reportTable(dfs.getTranspositionTable());
+                    break;
+                case "BiBFS":
+                    // Use bidirectional breadth-first search
+                    System.out.println("BiBFS");
+                    report(new BidirectionalBFS().solve(initialState));
+                    break;
+                case "ParBFS":
+                    // Use breadth-first search with each layer expanded in parallel
+                    System.out.println("ParBFS" + DISTINCT_STATES_LABEL);
+                    report(new ParallelBFS().solve(initialState));
+                    break;
+                case "ExtBFS":
+                    // Use breadth-first search with its layers kept on disk
+                    System.out.println("ExtBFS" + DISTINCT_STATES_LABEL);
+                    report(new ExternalBFS().solve(initialState));
+                    break;
+                case "IDDFS":
+                    // Use iterative deepening depth-first search
+                    System.out.println("IDDFS");
+                    IDDFS iddfs = new IDDFS();
+                    report(iddfs.solve(initialState, baseOptions));
+                    reportTable(iddfs.getTranspositionTable());
                     break;
                 default:
-                    throw new IllegalArgumentException("Please specify either \'BFS\' or \'DFS\' search methods.");
+                    throw new IllegalArgumentException("Please specify either \'BFS\', \'DFS\', \'BiBFS\', \'ParBFS\', \'ExtBFS\', or \'IDDFS\' search methods.");
             }
         } else if (args.length == 3) {
             String initialState = args[0];
@@ -40,6 +133,10 @@ public class Main {
 
             String searchMethod = args[1];
             String options = args[2];
+            // Load the pattern database before searching so its cost shows up on its own
+            if (options.equals("h3")) {
+                PatternDatabase.getDefault();
+            }
             switch (searchMethod) {
                 case "GBFS":
                     if (!verifyOptions(searchMethod, options)) {
@@ -47,7 +144,7 @@ public class Main {
                     }
                     // Use greedy search
                     System.out.println("GBFS " + options);
-                    Greedy greedy = new Greedy(initialState, options);
+                    report(new Greedy().solve(initialState, SearchOptions.fromCommandLine(searchMethod, options)));
                     break;
                 case "AStar":
                     if (!verifyOptions(searchMethod, options)) {
@@ -55,7 +152,31 @@ public class Main {
                     }
                     // Use A* search
                     System.out.println("A* " + options);
-                    AStar aStar = new AStar(initialState, options);
+                    report(new AStar().solve(initialState, SearchOptions.fromCommandLine(searchMethod, options)));
+                    break;
+                case "IDAStar":
+                    if (!verifyOptions(searchMethod, options)) {
+                        throw new IllegalArgumentException("Please specify valid options");
+                    }
+                    // Use iterative deepening A* search
+                    System.out.println("IDA* " + options);
+                    report(new IDAStar().solve(initialState, SearchOptions.fromCommandLine(searchMethod, options)));
+                    break;
+                case "ParIDAStar":
+                    if (!verifyOptions(searchMethod, options)) {
+                        throw new IllegalArgumentException("Please specify valid options");
+                    }
+                    // Use iterative deepening A* search with each iteration split over threads
+                    System.out.println("Parallel IDA* " + options);
+                    report(new ParallelIDAStar().solve(initialState, SearchOptions.fromCommandLine(searchMethod, options)));
+                    break;
+                case "HDAStar":
+                    if (!verifyOptions(searchMethod, options)) {
+                        throw new IllegalArgumentException("Please specify valid options");
+                    }
+                    // Use A* search with the states split between threads by hash
+                    System.out.println("HDA* " + options);
+                    report(new HDAStar().solve(initialState, SearchOptions.fromCommandLine(searchMethod, options)));
                     break;
                 case "DLS":
                     if (!verifyOptions(searchMethod, options)) {
@@ -63,15 +184,203 @@ public class Main {
                     }
                     // Use depth-limited search
                     System.out.println("DLS " + options);
-                    int limitedDepth = Integer.parseInt(options);
-                    DLS dls = new DLS(initialState, limitedDepth);
+                    DLS dls = new DLS();
+                    report(dls.solve(initialState, baseOptions.withCommandLineOption(searchMethod, options)));
+                    reportTable(dls.getTranspositionTable());
                     break;
                 default:
-                    throw new IllegalArgumentException("Please specify either \'GBFS\', \'AStar\', or \'DLS\' search methods.");
+                    throw new IllegalArgumentException("Please specify either \'GBFS\', \'AStar\', \'IDAStar\', \'ParIDAStar\', \'HDAStar\', or \'DLS\' search methods.");
             }
         } else {
             throw new IllegalArgumentException("Please specify: {initialState}, {searchMethod}, {options (optional)}");
         }
+        if (STARTUP_REPORT) {
+            reportStartup(mainStart);
+        }
+    }
+
+    /**
+     * Prints the stats of a search, followed by the solution path when it was recorded,
+     * or 'out of memory' if it outgrew its memory cap
+     * @param result the result of the search
+     */
+    private static void report(SearchResult result) {
+        if (result.isOutOfMemory()) {
+            System.out.println(ResultSink.OUT_OF_MEMORY);
+            return;
+        }
+        System.out.println(result);
+        if (result.getPath() != null) {
+            System.out.println(result.getPath());
+        }
+    }
+
+    /**
+     * Prints the size and counters of a transposition table on standard error
+     * @param table the table used by the search, or null if none was
+     */
+    private static void reportTable(TranspositionTable table) {
+        if (table != null) {
+            System.err.println(table);
+        }
+    }
+
+    /**
+     * Solves every puzzle of a file ('--batch {puzzleFile} {searchMethod} {options}'),
+     * either one initial state per line or a corpus file written by '--corpus'. From a
+     * corpus, '-Dpuzzle.bucket' keeps only the puzzles whose optimal length falls in one
+     * difficulty bucket (e.g. '40' for 40 to 49 moves). The number of threads is set
+     * with '-Dpuzzle.threads' (every available processor by default), the threads of
+     * each HDA* engine with '-Dpuzzle.hdaThreads' (the processors split between the
+     * batch threads by default), the time limit of each puzzle with
+     * '-Dpuzzle.timeoutMillis' (no limit by default), the format of the results with
+     * '-Dpuzzle.output' (see 'ResultSink') and the file they are written to with
+     * '-Dpuzzle.outputFile' (standard output by default)
+     * @param args command line arguments
+     * @param baseOptions options given before the batch flag, such as the transposition table
+     * @throws IOException if the puzzle file can't be read
+     */
+    private static void runBatch(String[] args, SearchOptions baseOptions) throws IOException {
+        if (args.length != 3 && args.length != 4) {
+            throw new IllegalArgumentException("Please specify: --batch {puzzleFile}, {searchMethod}, {options (optional)}");
+        }
+        String searchMethod = args[2];
+        String options = args.length == 4 ? args[3] : null;
+        if (!List.of("BFS", "DFS", "BiBFS", "ParBFS", "ExtBFS", "IDDFS", "GBFS", "AStar", "IDAStar", "ParIDAStar", "HDAStar", "DLS").contains(searchMethod)) {
+            throw new IllegalArgumentException("Please specify either \'BFS\', \'DFS\', \'BiBFS\', \'ParBFS\', \'ExtBFS\', \'IDDFS\', \'GBFS\', \'AStar\', \'IDAStar\', \'ParIDAStar\', \'HDAStar\', or \'DLS\' search methods.");
+        }
+        boolean needsOptions = List.of("GBFS", "AStar", "IDAStar", "ParIDAStar", "HDAStar", "DLS").contains(searchMethod);
+        if (needsOptions != (options != null) || (needsOptions && !verifyOptions(searchMethod, options))) {
+            throw new IllegalArgumentException("Please specify valid options");
+        }
+        Path puzzleFile = Paths.get(args[1]);
+        List<String> puzzles = PuzzleCorpus.isCorpus(puzzleFile)
+                ? PuzzleCorpus.readStates(puzzleFile, Integer.getInteger("puzzle.bucket", -1))
+                : BatchSolver.readPuzzles(puzzleFile);
+        // Load the pattern database before searching so no worker waits on it
+        if ("h3".equals(options)) {
+            PatternDatabase.getDefault();
+        }
+        int threads = Integer.getInteger("puzzle.threads", Runtime.getRuntime().availableProcessors());
+        long timeLimitMillis = Long.getLong("puzzle.timeoutMillis", 0);
+        String format = System.getProperty("puzzle.output", "console");
+        String outputFile = System.getProperty("puzzle.outputFile");
+        WritableByteChannel channel = outputFile == null ? new FileOutputStream(FileDescriptor.out).getChannel()
+                : FileChannel.open(Paths.get(outputFile), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+        try (ResultSink sink = ResultSink.create(format, channel)) {
+            new BatchSolver(searchMethod, options, threads, baseOptions.withTimeLimitMillis(timeLimitMillis))
+                    .solveAll(puzzles, sink);
+        }
+    }
+
+    /**
+     * Parses the argument of the transposition table flag ('--tt {megabytes}:{policy}',
+     * the policy being 'always', 'depth-preferred', or 'two-tier'). The megabytes cap the
+     * whole search: half for the table, half for the stack and the recorded path
+     * @param argument the argument following the flag, such as '64' or '64:depth-preferred'
+     * @return the default options using that table
+     */
+    private static SearchOptions parseTranspositionTable(String argument) {
+        String[] parts = argument.split(":", 2);
+        if (!parts[0].matches("\\d{1,9}")) {
+            throw new IllegalArgumentException("Please specify: --tt {megabytes (half for the table, half for the stack and path)}:{always|depth-preferred|two-tier (optional)}");
+        }
+        ReplacementPolicy policy = parts.length == 2 ? ReplacementPolicy.parse(parts[1])
+                : SearchOptions.DEFAULT.getReplacementPolicy();
+        return SearchOptions.DEFAULT.withTranspositionTable(Long.parseLong(parts[0]), policy);
+    }
+
+    /**
+     * Counts the states at each distance from an initial state with 'ExternalBFS'
+     * ('--distances {initialState} {maxDistance (optional)}') and prints one
+     * 'distance count' line per distance, then the total. Every reachable state is
+     * counted unless a largest distance is given
+     * @param args command line arguments
+     */
+    private static void runDistances(String[] args) {
+        if (args.length != 2 && args.length != 3) {
+            throw new IllegalArgumentException("Please specify: --distances {initialState}, {maxDistance (optional)}");
+        }
+        if (!verifyInitialState(args[1])) {
+            throw new IllegalArgumentException("Please specify valid initial state.");
+        }
+        SearchOptions options = SearchOptions.DEFAULT;
+        if (args.length == 3) {
+            if (!args[2].matches("\\d+")) {
+                throw new IllegalArgumentException("Please specify valid maximum distance.");
+            }
+            options = options.withDepthLimit(Integer.parseInt(args[2]));
+        }
+        long[] counts = new ExternalBFS().countLayers(args[1], options);
+        long total = 0;
+        for (int distance = 0; distance < counts.length; distance++) {
+            System.out.println(distance + " " + counts[distance]);
+            total += counts[distance];
+        }
+        System.out.println("Total " + total);
+    }
+
+    /**
+     * Generates a corpus of puzzles tagged with their optimal length and writes it to a
+     * file ('--corpus {outputFile} walk {depth} {count}', '--corpus {outputFile} random
+     * {count}', or '--corpus {outputFile} korf {instanceFile}'), then prints how many
+     * puzzles fell in each difficulty bucket. The seed is set with '-Dpuzzle.seed' (0 by
+     * default), and the optimal lengths are measured with IDA* and heuristic 3 using
+     * '-Dpuzzle.threads' and '-Dpuzzle.timeoutMillis' as batch runs do
+     * @param args command line arguments
+     * @throws IOException if the instance file can't be read or the corpus can't be written
+     */
+    private static void runCorpus(String[] args) throws IOException {
+        if (args.length < 4) {
+            throw new IllegalArgumentException("Please specify: --corpus {outputFile}, {walk|random|korf}, {arguments}");
+        }
+        long seed = Long.getLong("puzzle.seed", 0);
+        String kind = args[2];
+        long[] states;
+        // Only Korf's instances may come with their optimal length
+        int[] knownLengths = null;
+        if (kind.equals("walk") && args.length == 5) {
+            states = PuzzleCorpus.randomWalks(seed, Integer.parseInt(args[3]), Integer.parseInt(args[4]));
+        } else if (kind.equals("random") && args.length == 4) {
+            states = PuzzleCorpus.randomPermutations(seed, Integer.parseInt(args[3]));
+        } else if (kind.equals("korf") && args.length == 4) {
+            seed = 0;
+            List<Integer> lengths = new ArrayList<>();
+            states = PuzzleCorpus.readKorf(Paths.get(args[3]), lengths);
+            knownLengths = new int[lengths.size()];
+            for (int i = 0; i < knownLengths.length; i++) {
+                knownLengths[i] = lengths.get(i);
+            }
+        } else {
+            throw new IllegalArgumentException("Please specify: walk {depth} {count}, random {count}, or korf {instanceFile}");
+        }
+        if (knownLengths == null) {
+            knownLengths = new int[states.length];
+            Arrays.fill(knownLengths, PuzzleCorpus.UNKNOWN_LENGTH);
+        }
+        int threads = Integer.getInteger("puzzle.threads", Runtime.getRuntime().availableProcessors());
+        long timeLimitMillis = Long.getLong("puzzle.timeoutMillis", 0);
+        int[] optimalLengths = PuzzleCorpus.measureOptimalLengths(states, knownLengths, threads, timeLimitMillis);
+        PuzzleCorpus corpus = new PuzzleCorpus(seed, states, optimalLengths);
+        corpus.write(Paths.get(args[1]));
+        System.out.println(corpus.size() + " puzzles written to " + args[1]);
+        for (String line : corpus.bucketCounts()) {
+            System.out.println(line);
+        }
+    }
+
+    /**
+     * Reports on standard error how long it took to produce the first solution,
+     * both since the JVM started and since 'main()' was entered
+     * @param mainStart value of 'System.nanoTime()' when 'main()' was entered
+     */
+    private static void reportStartup(long mainStart) {
+        long mainMillis = (System.nanoTime() - mainStart) / 1_000_000;
+        long uptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        long loadMillis = PatternDatabase.getDefaultLoadMillis();
+        System.err.println("Time to first solve: " + uptimeMillis + " ms since JVM start, " + mainMillis + " ms in main"
+                + (loadMillis >= 0 ? ", pattern database loaded in " + loadMillis + " ms" : ""));
     }
 
     /**
@@ -79,7 +388,7 @@ public class Main {
      * @param initialState the initial state of the 'Board' we must perform a search on
      * @return a boolean whether or not the initial state is valid
      */
-    private static boolean verifyInitialState(String initialState) {
+    static boolean verifyInitialState(String initialState) {
         boolean isValid = true;
         Set<Character> validCharacters = new HashSet<Character>();
         validCharacters.add(' ');
@@ -124,8 +433,9 @@ public class Main {
     private static boolean verifyOptions(String searchMethod, String option) {
         boolean isValid = true;
         if (option.length() > 0) {
-            if (searchMethod.equals("GBFS") || searchMethod.equals("AStar")) {
-                if (!option.equals("h1") && !option.equals("h2")) {
+            if (searchMethod.equals("GBFS") || searchMethod.equals("AStar") || searchMethod.equals("IDAStar")
+                    || searchMethod.equals("ParIDAStar") || searchMethod.equals("HDAStar")) {
+                if (!option.equals("h1") && !option.equals("h2") && !option.equals("h3")) {
                     isValid = false;
                 }
             } else if (searchMethod.equals("DLS")) {
@@ -0,0 +1,86 @@
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class represents an unbounded queue which many threads may add to but only one
+ * thread takes from. Producers append with a single atomic swap of the tail and never
+ * wait on each other, and the consumer only follows links, so no lock is ever taken.
+ * An element being appended may briefly stay invisible to 'poll', so the consumer must
+ * track on its own whether more elements are on their way
+ * @param <E> the type of the elements
+ * @author Alex Amado
+ */
+public class MpscQueue<E> {
+    /**
+     * Last link of the queue, swapped by every producer
+     */
+    private final AtomicReference<Link<E>> tail;
+    /**
+     * Link whose element was taken last (or the initial empty link), only used by the consumer
+     */
+    private Link<E> head;
+
+    /**
+     * Constructs an empty 'MpscQueue'
+     */
+    public MpscQueue() {
+        head = new Link<>(null);
+        tail = new AtomicReference<>(head);
+    }
+
+    /**
+     * Appends an element. Safe to call from many threads at once
+     * @param element the element to append
+     */
+    public void offer(E element) {
+        Link<E> link = new Link<>(element);
+        Link<E> previous = tail.getAndSet(link);
+        previous.next = link;
+    }
+
+    /**
+     * Takes the oldest element. Must only be called by the consumer thread
+     * @return the element, or null if none is visible yet
+     */
+    public E poll() {
+        Link<E> next = head.next;
+        if (next == null) {
+            return null;
+        }
+        E element = next.element;
+        next.element = null;
+        head = next;
+        return element;
+    }
+
+    /**
+     * Drops every visible element. Must only be called by the consumer thread
+     */
+    public void clear() {
+        while (poll() != null) {
+            // Keep dropping
+        }
+    }
+
+    /**
+     * This class represents one link of the queue
+     * @param <E> the type of the element
+     */
+    private static final class Link<E> {
+        /**
+         * The element, null once the consumer took it
+         */
+        private E element;
+        /**
+         * The link appended after this one, null while this link is the tail
+         */
+        private volatile Link<E> next;
+
+        /**
+         * Constructs a 'Link' object
+         * @param theElement the element
+         */
+        private Link(E theElement) {
+            element = theElement;
+        }
+    }
+}
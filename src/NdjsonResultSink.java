@@ -0,0 +1,64 @@
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * This class represents a result sink writing one JSON object per line (newline-delimited
+ * JSON). The heuristic and path are null when absent. No string needs escaping since
+ * states, names, and paths only hold letters, digits, and spaces
+ * @author Alex Amado
+ */
+public class NdjsonResultSink extends ResultSink {
+    /**
+     * Constructs a 'NdjsonResultSink' object
+     * @param theChannel channel the records are written to
+     */
+    public NdjsonResultSink(WritableByteChannel theChannel) {
+        super(theChannel);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(int index, String initialState, String algorithm, String heuristic,
+                      SearchResult result) throws IOException {
+        putAscii("{\"index\":");
+        putDecimal(index);
+        putAscii(",\"state\":");
+        putString(initialState);
+        putAscii(",\"algorithm\":");
+        putString(algorithm);
+        putAscii(",\"heuristic\":");
+        putString(heuristic);
+        putAscii(",\"status\":");
+        putString(statusOf(result));
+        putAscii(",\"depth\":");
+        putDecimal(result.getMaxDepth());
+        putAscii(",\"created\":");
+        putDecimal(result.getNodesCreated());
+        putAscii(",\"expanded\":");
+        putDecimal(result.getNodesExpanded());
+        putAscii(",\"maxFringe\":");
+        putDecimal(result.getMaxFringeSize());
+        putAscii(",\"wallNanos\":");
+        putDecimal(result.getWallNanos());
+        putAscii(",\"path\":");
+        putString(result.getPath());
+        putAscii("}\n");
+    }
+
+    /**
+     * Appends a JSON string, or null
+     * @param value the string, without characters needing escaping
+     * @throws IOException if the channel fails
+     */
+    private void putString(String value) throws IOException {
+        if (value == null) {
+            putAscii("null");
+            return;
+        }
+        put('"');
+        putAscii(value);
+        put('"');
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * This class holds the static helpers used to encode a 15-puzzle state into a single
+ * 64-bit 'long'. Each of the 16 cells takes 4 bits (a nibble), cell 0 (top left) lives
+ * in the lowest nibble and cell 15 (bottom right) in the highest one. Tiles '1' - 'F'
+ * are stored as the values 1 - 15 and the blank space is stored as 0
+ * @author Alex Amado
+ */
+public final class PackedState {
+    /**
+     * Number of cells on the board
+     */
+    public static final int CELLS = 16;
+    /**
+     * Number of cells in one row (or column) of the board
+     */
+    public static final int WIDTH = 4;
+    /**
+     * Characters used to represent each tile value, indexed by tile value
+     */
+    private static final char[] TILE_CHARS = {
+            ' ', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'
+    };
+    /**
+     * Packed representation of goal state number 1
+     */
+    public static final long GOAL_ONE = encode("123456789ABCDEF ");
+    /**
+     * Packed representation of goal state number 2
+     */
+    public static final long GOAL_TWO = encode("123456789ABCDFE ");
+    /**
+     * Value which is never a valid packed state (every cell would hold tile 'F')
+     */
+    public static final long NO_STATE = -1L;
+
+    /**
+     * Prevents instantiation, this class only holds static helpers
+     */
+    private PackedState() {
+    }
+
+    /**
+     * Encodes a 16 character state (as accepted by 'Main.verifyInitialState') into
+     * its packed form
+     * @param state String representation of the state/board
+     * @return the packed representation of 'state'
+     */
+    public static long encode(String state) {
+        long packed = 0L;
+        for (int i = 0; i < CELLS; i++) {
+            packed |= (long) tileValue(state.charAt(i)) << (i << 2);
+        }
+        return packed;
+    }
+
+    /**
+     * Decodes a packed state back into its 16 character String representation
+     * @param packed the packed state
+     * @return String representation of the state/board
+     */
+    public static String decode(long packed) {
+        char[] chars = new char[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            chars[i] = TILE_CHARS[tileAt(packed, i)];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Decodes a packed state into the 2D array layout used by 'Board.getBoard()'
+     * @param packed the packed state
+     * @return a freshly allocated 4x4 character array
+     */
+    public static char[][] toArray(long packed) {
+        char[][] board = new char[WIDTH][WIDTH];
+        for (int i = 0; i < CELLS; i++) {
+            board[i / WIDTH][i % WIDTH] = TILE_CHARS[tileAt(packed, i)];
+        }
+        return board;
+    }
+
+    /**
+     * Returns the tile value stored in cell 'index'
+     * @param packed the packed state
+     * @param index cell index (row * 4 + col)
+     * @return the tile value (0 for the blank space)
+     */
+    public static int tileAt(long packed, int index) {
+        return (int) (packed >>> (index << 2)) & 0xF;
+    }
+
+    /**
+     * Finds the cell index of the blank space in a packed state
+     * @param packed the packed state
+     * @return cell index of the blank space
+     */
+    public static int blankIndex(long packed) {
+        for (int i = 0; i < CELLS; i++) {
+            if (tileAt(packed, i) == 0) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Packed state has no blank space.");
+    }
+
+    /**
+     * Finds which of the two goal states can be reached from a packed state. Every move
+     * swaps the blank space with a tile, flipping the parity of the permutation of the
+     * 16 cells, and moves the blank space one cell, flipping the parity of its distance
+     * to cell 15. Both parities start equal on goal state 1, so they stay equal exactly
+     * on the states which can reach it. Goal state 2 differs from it by one swap, so
+     * every other state reaches goal state 2. The permutation parity is counted from its
+     * cycles rather than its inversions, which takes one pass over the 16 cells
+     * @param packed the packed state
+     * @return 'GOAL_ONE' or 'GOAL_TWO'
+     */
+    public static long reachableGoal(long packed) {
+        // Bit mask of the cells already visited by a cycle
+        int visited = 0;
+        int cycles = 0;
+        int blank = 0;
+        for (int start = 0; start < CELLS; start++) {
+            if ((visited & 1 << start) != 0) {
+                continue;
+            }
+            cycles++;
+            // Follow the cycle: the tile in 'cell' belongs in cell 'tile - 1' (the blank space in cell 15)
+            for (int cell = start; (visited & 1 << cell) == 0; cell = (tileAt(packed, cell) + 15) & 0xF) {
+                visited |= 1 << cell;
+                if (tileAt(packed, cell) == 0) {
+                    blank = cell;
+                }
+            }
+        }
+        int permutationParity = (CELLS - cycles) & 1;
+        int blankDistance = (WIDTH - 1 - blank / WIDTH) + (WIDTH - 1 - blank % WIDTH);
+        return ((permutationParity + blankDistance) & 1) == 0 ? GOAL_ONE : GOAL_TWO;
+    }
+
+    /**
+     * Slides the tile found in cell 'target' into the blank space found in cell 'blank'.
+     * Since the blank space is stored as 0, the swap only has to move one nibble
+     * @param packed the packed state
+     * @param blank cell index of the blank space
+     * @param target cell index of the tile adjacent to the blank space
+     * @return the packed state after the move
+     */
+    public static long move(long packed, int blank, int target) {
+        long tile = (packed >>> (target << 2)) & 0xFL;
+        return packed & ~(0xFL << (target << 2)) | tile << (blank << 2);
+    }
+
+    /**
+     * Returns the character used to represent a tile value
+     * @param tile the tile value (0 for the blank space)
+     * @return the character representing 'tile'
+     */
+    public static char tileChar(int tile) {
+        return TILE_CHARS[tile];
+    }
+
+    /**
+     * Converts a tile character into its tile value
+     * @param c the tile character (' ', '1' - '9' or 'A' - 'F')
+     * @return the tile value (0 for the blank space)
+     */
+    public static int tileValue(char c) {
+        if (c == ' ') {
+            return 0;
+        } else if (c >= '1' && c <= '9') {
+            return c - '0';
+        } else if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        throw new IllegalArgumentException("Invalid tile character: '" + c + "'");
+    }
+}
@@ -0,0 +1,286 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class represents a search method (parallel BFS) which is ran when the user wants
+ * to run this specific search method. The search goes one depth at a time: the current
+ * layer is cut into chunks which the threads of a 'ForkJoinPool' expand at once, each
+ * writing the new states it finds into its own buffer, and the buffers are joined into
+ * the next layer once every chunk is done. Visited states are shared through a
+ * 'ConcurrentLongByteMap', so each state lands in exactly one buffer.
+ * The stats count distinct states, so they are different metrics from those of 'BFS':
+ * its queue holds a state once for every parent which reached it before it was
+ * expanded, and expands it each time, so its counts follow the number of shortest paths
+ * in the order they were queued. Here 'nodesCreated' counts the distinct states reached,
+ * 'nodesExpanded' the states of every layer before the goal's, and 'maxFringeSize' the
+ * largest layer. Since a layer is expanded as a whole, they only depend on the puzzle
+ * and not on the number of threads or how they were scheduled
+ * @author Alex Amado
+ */
+public class ParallelBFS implements SearchEngine {
+    /**
+     * Number of states of a layer expanded by a single task
+     */
+    private static final int CHUNK_SIZE = 1 << 12;
+    /**
+     * Value the root is mapped to in 'visited', since no move reached it
+     */
+    private static final byte ROOT_MOVE = 4;
+
+    /**
+     * Pool the chunks of each layer are expanded on
+     */
+    private final ForkJoinPool pool;
+    /**
+     * Every state reached so far, mapped to the move which reached it
+     */
+    private final ConcurrentLongByteMap visited;
+    /**
+     * States of the layer being expanded
+     */
+    private long[] layer;
+    /**
+     * Number of states in 'layer'
+     */
+    private int layerSize;
+    /**
+     * Represents the depth in the search tree where the solution is found
+     */
+    private int maxDepth;
+    /**
+     * Represents the counter that is incremented every time a node of the
+     * search tree is created
+     */
+    private long nodesCreated;
+    /**
+     * Represents the counter that will be incremented every time the search
+     * algorithm acquires the successor states to the current state
+     */
+    private long nodesExpanded;
+    /**
+     * Represents the maximum size of the fringe at any point during the search, for
+     * parallel BFS the size of the largest layer
+     */
+    private long maxFringeSize;
+    /**
+     * Packed goal state reachable from the initial state of the current call to 'solve()'
+     */
+    private long goalState;
+    /**
+     * Time limit of the current call to 'solve()', also polled by the tasks
+     */
+    private Deadline deadline;
+    /**
+     * Value of 'System.nanoTime()' when the current call to 'solve()' started
+     */
+    private long startNanos;
+
+    /**
+     * Constructs a parallel BFS object which expands its layers on the common pool
+     */
+    public ParallelBFS() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a parallel BFS object which allocates the structures reused by every
+     * call to 'solve()'
+     * @param thePool pool the chunks of each layer are expanded on
+     */
+    public ParallelBFS(ForkJoinPool thePool) {
+        pool = thePool;
+        visited = new ConcurrentLongByteMap();
+        layer = new long[1024];
+    }
+
+    /**
+     * Initializes statistical measurements and runs the search algorithm on
+     * 'initialState', reusing the structures of previous calls
+     * @param initialState user provided initial state of the board the user
+     *                     wants to start from on search
+     * @param options path recording, accepted goal state, and time limit of the search
+     * @return the stats (and path, if recorded) of the search
+     */
+    @Override
+    public SearchResult solve(String initialState, SearchOptions options) {
+        startNanos = System.nanoTime();
+        deadline = options.startDeadline();
+        long initial = PackedState.encode(initialState);
+        // Only one of the two goal states can be reached, answer at once if it isn't accepted
+        goalState = options.targetGoal(initial);
+        if (goalState == PackedState.NO_STATE) {
+            return SearchResult.notFound(System.nanoTime() - startNanos);
+        }
+        visited.clear();
+        visited.putIfAbsent(initial, ROOT_MOVE);
+        layer[0] = initial;
+        layerSize = 1;
+        maxDepth = 0;
+        nodesCreated = 1;
+        nodesExpanded = 0;
+        maxFringeSize = 1;
+        // Run the search algorithm
+        return search(options.isRecordPath());
+    }
+
+    /**
+     * Runs the search algorithm, one layer at a time, from the root placed by 'solve()'
+     * @param recordPath whether the solution path is rebuilt
+     * @return the stats (and path, if recorded) of the search
+     */
+    private SearchResult search(boolean recordPath) {
+        int depth = 0;
+        while (layerSize > 0) {
+            // Check if the newest layer holds the reachable goal state
+            if (visited.contains(goalState)) {
+                maxDepth = depth;
+                return new SearchResult(maxDepth, nodesCreated, nodesExpanded, maxFringeSize,
+                        recordPath ? pathTo(goalState) : null, System.nanoTime() - startNanos);
+            }
+            deadline.check();
+            // Every state but the root has at most 3 new successors, the root 4
+            visited.ensureCapacity((int) nodesCreated, layerSize * SuccessorBuffer.MAX_SUCCESSORS);
+            expandLayer();
+            depth++;
+            nodesCreated += layerSize;
+            if (layerSize > maxFringeSize) {
+                maxFringeSize = layerSize;
+            }
+        }
+        // The reachable goal state is always found before the states run out
+        return new SearchResult(-1, nodesCreated, nodesExpanded, maxFringeSize, null, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Expands every state of 'layer' on the pool and replaces it with the next layer,
+     * joining the buffers of the chunks in chunk order
+     */
+    private void expandLayer() {
+        ExpandChunk[] chunks = new ExpandChunk[(layerSize + CHUNK_SIZE - 1) / CHUNK_SIZE];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new ExpandChunk(i * CHUNK_SIZE, Math.min(layerSize, (i + 1) * CHUNK_SIZE));
+        }
+        pool.invoke(new RecursiveAction() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute() {
+                // Unlike 'invokeAll', wait for every chunk even once one failed, so none is
+                // still writing into 'visited' when 'solve()' throws or the next call clears it
+                for (int i = 1; i < chunks.length; i++) {
+                    chunks[i].fork();
+                }
+                chunks[0].quietlyInvoke();
+                for (int i = 1; i < chunks.length; i++) {
+                    chunks[i].quietlyJoin();
+                }
+                for (ExpandChunk chunk : chunks) {
+                    Throwable failure = chunk.getException();
+                    if (failure instanceof RuntimeException) {
+                        throw (RuntimeException) failure;
+                    }
+                    if (failure != null) {
+                        throw (Error) failure;
+                    }
+                }
+            }
+        });
+        nodesExpanded += layerSize;
+        int nextSize = 0;
+        for (ExpandChunk chunk : chunks) {
+            nextSize += chunk.size;
+        }
+        long[] next = nextSize <= layer.length ? layer : new long[Math.max(nextSize, layer.length * 2)];
+        // Every chunk is done reading 'layer', so it can be overwritten in place
+        int offset = 0;
+        for (ExpandChunk chunk : chunks) {
+            System.arraycopy(chunk.states, 0, next, offset, chunk.size);
+            offset += chunk.size;
+        }
+        layer = next;
+        layerSize = nextSize;
+    }
+
+    /**
+     * Rebuilds the moves leading from the root to 'state' by undoing the move which
+     * reached each state
+     * @param state a packed state reached by the search
+     * @return the moves of the blank space as letters (R, D, L and U)
+     */
+    private String pathTo(long state) {
+        StringBuilder sb = new StringBuilder();
+        int move;
+        while ((move = visited.get(state)) != ROOT_MOVE) {
+            sb.append(PathArena.moveLetter(move));
+            int blank = PackedState.blankIndex(state);
+            state = PackedState.move(state, blank, Board.moveTarget(blank, Board.inverseMove(move)));
+        }
+        return sb.reverse().toString();
+    }
+
+    /**
+     * This class represents the task expanding one chunk of the current layer into its
+     * own buffer of new states
+     */
+    private final class ExpandChunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Index of the first state of the chunk in 'layer'
+         */
+        private final int from;
+        /**
+         * Index past the last state of the chunk in 'layer'
+         */
+        private final int to;
+        /**
+         * New states found by this chunk
+         */
+        private long[] states;
+        /**
+         * Number of states in 'states'
+         */
+        private int size;
+
+        /**
+         * Constructs a 'ExpandChunk' object
+         * @param theFrom index of the first state of the chunk in 'layer'
+         * @param theTo index past the last state of the chunk in 'layer'
+         */
+        private ExpandChunk(int theFrom, int theTo) {
+            from = theFrom;
+            to = theTo;
+        }
+
+        /**
+         * Expands the states of the chunk, keeping the successors no other task has
+         * reached before
+         */
+        @Override
+        protected void compute() {
+            states = new long[(to - from) * 2];
+            for (int i = from; i < to; i++) {
+                if ((i & (Deadline.CHECK_INTERVAL - 1)) == 0) {
+                    deadline.check();
+                }
+                long state = layer[i];
+                int blank = PackedState.blankIndex(state);
+                for (int move : Board.ORDER_BFS_ASTAR_GBFS) {
+                    int target = Board.moveTarget(blank, move);
+                    if (target < 0) {
+                        continue;
+                    }
+                    long successor = PackedState.move(state, blank, target);
+                    if (!visited.putIfAbsent(successor, (byte) move)) {
+                        continue;
+                    }
+                    if (size == states.length) {
+                        states = Arrays.copyOf(states, states.length * 2);
+                    }
+                    states[size++] = successor;
+                }
+            }
+        }
+    }
+}
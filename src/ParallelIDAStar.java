@@ -0,0 +1,421 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class represents a search method (parallel IDA*) which is ran when the user wants
+ * to run this specific search method. The first few levels of the search tree are
+ * expanded once, until there are enough states to keep every thread busy, and those
+ * states become the roots of subtrees. Each iteration then hands every subtree to a task
+ * of a 'ForkJoinPool', where the 'IDAStar' kept by each thread searches it with the same
+ * heuristic and bound the sequential search would use; idle threads steal the subtrees
+ * left over. Any solution found within the bound is optimal, so the first thread to find
+ * one stops the others and the depth matches the sequential search. Every iteration has
+ * its own stop flag and result, so a task still running from an iteration which timed
+ * out can't stop or answer a later one. The stats are summed over the threads and depend
+ * on how far the others got before they stopped
+ * @author Alex Amado
+ */
+public class ParallelIDAStar implements SearchEngine {
+    /**
+     * Number of subtrees made for each thread of the pool, so threads which run out of
+     * work can steal from the others
+     */
+    private static final int SUBTREES_PER_THREAD = 16;
+    /**
+     * Deepest level the subtree roots are taken from, so the moves leading to them fit
+     * in a 'long' (2 bits per move)
+     */
+    private static final int MAX_SPLIT_DEPTH = 24;
+
+    /**
+     * Pool the subtrees of each iteration are searched on
+     */
+    private final ForkJoinPool pool;
+    /**
+     * Measures the heuristic of the root state in the calling thread
+     */
+    private final IDAStar rootProbe;
+    /**
+     * Searcher of each thread of the pool, reused for every subtree the thread is handed
+     */
+    private final ThreadLocal<IDAStar> probes;
+    /**
+     * Packed state of each subtree root
+     */
+    private long[] roots;
+    /**
+     * Move which produced each subtree root
+     */
+    private int[] rootMoves;
+    /**
+     * Moves leading from the root state to each subtree root, 2 bits per move with the
+     * first move in the lowest bits
+     */
+    private long[] rootPaths;
+    /**
+     * Number of subtree roots
+     */
+    private int rootCount;
+    /**
+     * Depth of every subtree root
+     */
+    private int splitDepth;
+    /**
+     * Represents the counter that is incremented every time a node of the
+     * search tree is created
+     */
+    private long nodesCreated;
+    /**
+     * Represents the counter that will be incremented every time the search
+     * algorithm acquires the successor states to the current state
+     */
+    private long nodesExpanded;
+    /**
+     * Represents the maximum size of the fringe at any point during the search, for
+     * IDA* the length of the longest path held on a recursion stack
+     */
+    private int maxFringeSize;
+    /**
+     * Packed goal state reachable from the initial state of the current call to 'solve()'
+     */
+    private long goalState;
+    /**
+     * Value of 'System.nanoTime()' when the current call to 'solve()' started
+     */
+    private long startNanos;
+
+    /**
+     * Constructs a parallel IDA* object which searches its subtrees on the common pool
+     */
+    public ParallelIDAStar() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a parallel IDA* object which allocates the structures reused by every
+     * call to 'solve()'
+     * @param thePool pool the subtrees of each iteration are searched on
+     */
+    public ParallelIDAStar(ForkJoinPool thePool) {
+        pool = thePool;
+        rootProbe = new IDAStar();
+        probes = ThreadLocal.withInitial(IDAStar::new);
+        roots = new long[64];
+        rootMoves = new int[64];
+        rootPaths = new long[64];
+    }
+
+    /**
+     * Initializes statistical measurements and runs the search algorithm on
+     * 'initialState'
+     * @param initialState user provided initial state of the board the user
+     *                     wants to start from on search
+     * @param options the heuristic of the search, path recording, accepted goal state,
+     *                and time limit
+     * @return the stats (and path, if recorded) of the search
+     */
+    @Override
+    public SearchResult solve(String initialState, SearchOptions options) {
+        startNanos = System.nanoTime();
+        Deadline deadline = options.startDeadline();
+        long initial = PackedState.encode(initialState);
+        // Only one of the two goal states can be reached, answer at once if it isn't accepted
+        goalState = options.targetGoal(initial);
+        if (goalState == PackedState.NO_STATE) {
+            return SearchResult.notFound(System.nanoTime() - startNanos);
+        }
+        nodesCreated = 1;
+        nodesExpanded = 0;
+        maxFringeSize = 1;
+        // The goal state may lie above the level the subtrees are split at
+        if (split(initial, pool.getParallelism() * SUBTREES_PER_THREAD)) {
+            String path = options.isRecordPath() ? pathOf(rootPaths[0], splitDepth) : null;
+            return new SearchResult(splitDepth, nodesCreated, nodesExpanded, maxFringeSize, path,
+                    System.nanoTime() - startNanos);
+        }
+        rootProbe.prepareSubtrees(options, goalState, deadline, new AtomicBoolean());
+        int bound = rootProbe.estimate(initial);
+        while (true) {
+            Iteration iteration = new Iteration(options, goalState, deadline, splitDepth, bound);
+            int result = iterate(iteration);
+            SearchSubtree winner = iteration.winner;
+            if (winner != null) {
+                String path = options.isRecordPath()
+                        ? pathOf(rootPaths[winner.index], splitDepth) + winner.subtreePath : null;
+                return new SearchResult(winner.maxDepth, nodesCreated, nodesExpanded, maxFringeSize,
+                        path, System.nanoTime() - startNanos);
+            }
+            if (result == Integer.MAX_VALUE) {
+                return SearchResult.notFound(System.nanoTime() - startNanos);
+            }
+            bound = result;
+        }
+    }
+
+    /**
+     * Expands the levels of the search tree above the subtrees, one level at a time,
+     * until one holds at least 'wanted' states. Like the sequential search, a move
+     * undoing the previous one is skipped but states aren't checked for duplicates
+     * @param initial the packed root state
+     * @param wanted number of subtrees wanted
+     * @return true if the goal state was reached above the subtrees, in which case
+     * it is the only root left
+     */
+    private boolean split(long initial, int wanted) {
+        roots[0] = initial;
+        rootMoves[0] = -1;
+        rootPaths[0] = 0L;
+        rootCount = 1;
+        splitDepth = 0;
+        long[] nextRoots = new long[roots.length];
+        int[] nextMoves = new int[roots.length];
+        long[] nextPaths = new long[roots.length];
+        while (true) {
+            for (int i = 0; i < rootCount; i++) {
+                if (roots[i] == goalState) {
+                    roots[0] = roots[i];
+                    rootPaths[0] = rootPaths[i];
+                    rootCount = 1;
+                    return true;
+                }
+            }
+            if (rootCount >= wanted || splitDepth == MAX_SPLIT_DEPTH) {
+                return false;
+            }
+            int nextCount = 0;
+            for (int i = 0; i < rootCount; i++) {
+                nodesExpanded++;
+                int blank = PackedState.blankIndex(roots[i]);
+                for (int move : Board.ORDER_BFS_ASTAR_GBFS) {
+                    int target = Board.moveTarget(blank, move);
+                    // Skip moves which leave the board or undo the previous move
+                    if (target < 0 || move == Board.inverseMove(rootMoves[i])) {
+                        continue;
+                    }
+                    if (nextCount == nextRoots.length) {
+                        nextRoots = Arrays.copyOf(nextRoots, nextCount * 2);
+                        nextMoves = Arrays.copyOf(nextMoves, nextCount * 2);
+                        nextPaths = Arrays.copyOf(nextPaths, nextCount * 2);
+                    }
+                    nextRoots[nextCount] = PackedState.move(roots[i], blank, target);
+                    nextMoves[nextCount] = move;
+                    nextPaths[nextCount] = rootPaths[i] | (long) move << (splitDepth << 1);
+                    nextCount++;
+                }
+            }
+            nodesCreated += nextCount;
+            // Swap the levels, keeping the old arrays for the level after
+            long[] oldRoots = roots;
+            int[] oldMoves = rootMoves;
+            long[] oldPaths = rootPaths;
+            roots = nextRoots;
+            rootMoves = nextMoves;
+            rootPaths = nextPaths;
+            nextRoots = oldRoots.length >= roots.length ? oldRoots : new long[roots.length];
+            nextMoves = oldMoves.length >= roots.length ? oldMoves : new int[roots.length];
+            nextPaths = oldPaths.length >= roots.length ? oldPaths : new long[roots.length];
+            rootCount = nextCount;
+            splitDepth++;
+            if (splitDepth + 1 > maxFringeSize) {
+                maxFringeSize = splitDepth + 1;
+            }
+        }
+    }
+
+    /**
+     * Runs one iteration: every subtree is searched on the pool without exceeding its bound
+     * @param iteration the bound of the iteration, which also collects its result
+     * @return the smallest f which exceeded the bound over every subtree
+     * ('Integer.MAX_VALUE' if there was none)
+     */
+    private int iterate(Iteration iteration) {
+        SearchSubtree[] tasks = new SearchSubtree[rootCount];
+        for (int i = 0; i < rootCount; i++) {
+            tasks[i] = new SearchSubtree(iteration, i, roots[i], rootMoves[i]);
+        }
+        try {
+            pool.invoke(new RecursiveAction() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(tasks);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Stop the tasks still running before giving up on the search
+            iteration.solved.set(true);
+            throw e;
+        }
+        int minExceeded = Integer.MAX_VALUE;
+        for (SearchSubtree task : tasks) {
+            nodesCreated += task.nodesCreated;
+            nodesExpanded += task.nodesExpanded;
+            maxFringeSize = Math.max(maxFringeSize, task.maxFringeSize);
+            if (task.result >= 0) {
+                minExceeded = Math.min(minExceeded, task.result);
+            }
+        }
+        return minExceeded;
+    }
+
+    /**
+     * Rebuilds the moves leading from the root state to a subtree root
+     * @param path moves packed 2 bits each, first move in the lowest bits
+     * @param length number of moves
+     * @return the moves of the blank space as letters (R, D, L and U)
+     */
+    private static String pathOf(long path, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(PathArena.moveLetter((int) (path >>> (i << 1)) & 3));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * This class represents one iteration of a call to 'solve()': what its tasks search,
+     * the flag they stop each other with, and the task which found the goal state
+     */
+    private static final class Iteration {
+        /**
+         * Options of the call to 'solve()'
+         */
+        private final SearchOptions options;
+        /**
+         * Packed goal state the tasks look for
+         */
+        private final long goalState;
+        /**
+         * Time limit of the call to 'solve()', polled by the tasks
+         */
+        private final Deadline deadline;
+        /**
+         * Depth of every subtree root
+         */
+        private final int depth;
+        /**
+         * The largest f = g + h allowed in this iteration
+         */
+        private final int bound;
+        /**
+         * Set once a task found the goal state, or the iteration was given up
+         */
+        private final AtomicBoolean solved;
+        /**
+         * Task which found the goal state (null if none did)
+         */
+        private volatile SearchSubtree winner;
+
+        /**
+         * Constructs an 'Iteration' object
+         * @param theOptions options of the call to 'solve()'
+         * @param theGoalState packed goal state the tasks look for
+         * @param theDeadline time limit of the call to 'solve()'
+         * @param theDepth depth of every subtree root
+         * @param theBound the largest f = g + h allowed in this iteration
+         */
+        private Iteration(SearchOptions theOptions, long theGoalState, Deadline theDeadline, int theDepth,
+                          int theBound) {
+            options = theOptions;
+            goalState = theGoalState;
+            deadline = theDeadline;
+            depth = theDepth;
+            bound = theBound;
+            solved = new AtomicBoolean();
+        }
+    }
+
+    /**
+     * This class represents the task searching one subtree in one iteration
+     */
+    private final class SearchSubtree extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Iteration the task belongs to
+         */
+        private final Iteration iteration;
+        /**
+         * Index of the subtree root in 'roots'
+         */
+        private final int index;
+        /**
+         * Packed state of the subtree root
+         */
+        private final long root;
+        /**
+         * Move which produced the subtree root
+         */
+        private final int rootMove;
+        /**
+         * Value returned by 'IDAStar.searchSubtree', negative if the search stopped on
+         * a goal state or never started
+         */
+        private int result = -1;
+        /**
+         * Number of nodes created in the subtree
+         */
+        private long nodesCreated;
+        /**
+         * Number of nodes expanded in the subtree
+         */
+        private long nodesExpanded;
+        /**
+         * Length of the longest path held on the recursion stack, counted from the root
+         * of the whole search
+         */
+        private int maxFringeSize;
+        /**
+         * Depth of the goal state, if this task found it
+         */
+        private int maxDepth;
+        /**
+         * Moves leading from the subtree root to the goal state, if this task found it
+         * and the path is recorded
+         */
+        private String subtreePath;
+
+        /**
+         * Constructs a 'SearchSubtree' object
+         * @param theIteration iteration the task belongs to
+         * @param theIndex index of the subtree root in 'roots'
+         * @param theRoot packed state of the subtree root
+         * @param theRootMove move which produced the subtree root
+         */
+        private SearchSubtree(Iteration theIteration, int theIndex, long theRoot, int theRootMove) {
+            iteration = theIteration;
+            index = theIndex;
+            root = theRoot;
+            rootMove = theRootMove;
+        }
+
+        /**
+         * Searches the subtree with the searcher of the current thread, unless another
+         * task already found the goal state
+         */
+        @Override
+        protected void compute() {
+            if (iteration.solved.get()) {
+                return;
+            }
+            IDAStar probe = probes.get();
+            probe.prepareSubtrees(iteration.options, iteration.goalState, iteration.deadline, iteration.solved);
+            result = probe.searchSubtree(root, iteration.depth, iteration.bound, rootMove);
+            nodesCreated = probe.getNodesCreated();
+            nodesExpanded = probe.getNodesExpanded();
+            maxFringeSize = probe.getMaxFringeSize();
+            if (result >= 0 || result == IDAStar.CANCELLED) {
+                return;
+            }
+            maxDepth = probe.getMaxDepth();
+            subtreePath = probe.getSubtreePath();
+            if (iteration.solved.compareAndSet(false, true)) {
+                iteration.winner = this;
+            }
+        }
+    }
+}
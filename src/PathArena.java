@@ -0,0 +1,170 @@
+import java.util.Arrays;
+
+/**
+ * This class represents an arena recording the search tree so the move sequence leading
+ * to a state/board can be rebuilt once the goal is found. Each node is a single 'int'
+ * holding the index of its parent and the 2-bit move which produced it, so no object
+ * or reference is kept per node. Searches only create an arena when the user asked
+ * for the solution path ('-Dpuzzle.path=true'). The arena can be given a memory cap,
+ * past which adding a node fails instead of growing
+ * @author Alex Amado
+ */
+public class PathArena {
+    /**
+     * Whether the searches should record and print the solution path, set with
+     * '-Dpuzzle.path=true'
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("puzzle.path");
+    /**
+     * Number of bytes taken by each node: its link
+     */
+    public static final int BYTES_PER_ENTRY = Integer.BYTES;
+    /**
+     * Number of nodes the arena holds before it first grows
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+    /**
+     * Largest number of nodes supported. A link keeps 30 bits for the parent index, and
+     * the index 2^30 - 1 is left out since its links would include 'NO_PARENT' (-1)
+     */
+    private static final int MAX_CAPACITY = (1 << 30) - 1;
+    /**
+     * Letter of each move ('Board.RIGHT', 'Board.DOWN', 'Board.LEFT' and 'Board.UP')
+     */
+    private static final String MOVE_LETTERS = "RDLU";
+    /**
+     * Link value of the root node, which has no parent
+     */
+    private static final int NO_PARENT = -1;
+
+    /**
+     * Link of each node: 'parentIndex * 4 + move'
+     */
+    private int[] links;
+    /**
+     * Number of nodes in the arena
+     */
+    private int size;
+    /**
+     * Largest number of nodes the arena may hold, see 'setMaxBytes'
+     */
+    private int maxSize;
+
+    /**
+     * Constructs an empty 'PathArena' with no memory cap
+     */
+    public PathArena() {
+        links = new int[INITIAL_CAPACITY];
+        size = 0;
+        maxSize = MAX_CAPACITY;
+    }
+
+    /**
+     * Caps the memory taken by the arena, past which adding a node throws instead of
+     * growing. An arena already larger than the cap is shrunk, so it should be set
+     * while the arena is empty
+     * @param maxBytes the memory cap, 0 for no cap
+     */
+    public void setMaxBytes(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Memory cap must not be negative: " + maxBytes);
+        }
+        maxSize = maxBytes == 0 ? MAX_CAPACITY : (int) Math.max(1, Math.min(maxBytes / BYTES_PER_ENTRY, MAX_CAPACITY));
+        if (links.length > maxSize) {
+            links = Arrays.copyOf(links, maxSize);
+        }
+    }
+
+    /**
+     * Adds the root of the search tree
+     * @return index of the root node
+     */
+    public int addRoot() {
+        return append(NO_PARENT);
+    }
+
+    /**
+     * Adds a node produced by applying 'move' to the node at 'parentIndex'
+     * @param parentIndex index of the parent node
+     * @param move 'Board.RIGHT', 'Board.DOWN', 'Board.LEFT' or 'Board.UP'
+     * @return index of the new node
+     */
+    public int add(int parentIndex, int move) {
+        return append(parentIndex << 2 | move);
+    }
+
+    /**
+     * Rebuilds the moves leading from the root to the node at 'index'
+     * @param index index of the node
+     * @return the moves of the blank space as letters (R, D, L and U)
+     */
+    public String path(int index) {
+        StringBuilder sb = new StringBuilder();
+        while (links[index] != NO_PARENT) {
+            sb.append(moveLetter(links[index] & 3));
+            index = links[index] >>> 2;
+        }
+        return sb.reverse().toString();
+    }
+
+    /**
+     * Returns the number of nodes in the arena
+     * @return the number of nodes in the arena
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the arena reached its memory cap, so adding a node would throw
+     * @return true if no node can be added
+     */
+    public boolean isFull() {
+        return size >= maxSize;
+    }
+
+    /**
+     * Removes every node while keeping the arena allocated so it can be reused
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Returns the letter of a move
+     * @param move 'Board.RIGHT', 'Board.DOWN', 'Board.LEFT' or 'Board.UP'
+     * @return 'R', 'D', 'L' or 'U'
+     */
+    public static char moveLetter(int move) {
+        return MOVE_LETTERS.charAt(move);
+    }
+
+    /**
+     * Returns the move a letter stands for
+     * @param letter 'R', 'D', 'L' or 'U'
+     * @return 'Board.RIGHT', 'Board.DOWN', 'Board.LEFT' or 'Board.UP'
+     */
+    public static int moveOf(char letter) {
+        int move = MOVE_LETTERS.indexOf(letter);
+        if (move < 0) {
+            throw new IllegalArgumentException("Unknown move: " + letter);
+        }
+        return move;
+    }
+
+    /**
+     * Appends a link to the arena
+     * @param link the link of the new node
+     * @return index of the new node
+     */
+    private int append(int link) {
+        if (size == links.length) {
+            if (size >= maxSize) {
+                throw new IllegalStateException("PathArena is full: " + maxSize + " nodes take its whole memory cap.");
+            }
+            links = Arrays.copyOf(links, (int) Math.min(2L * size, maxSize));
+        }
+        links[size] = link;
+        return size++;
+    }
+}
@@ -0,0 +1,485 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * This class represents a disjoint additive pattern database heuristic (heuristic 3).
+ * The tiles are split into disjoint patterns, and for every placement of a pattern's
+ * tiles a table holds the fewest moves of those tiles needed to bring them home. Only
+ * moves of a pattern's own tiles are counted, so the values of the different patterns
+ * can be added while the sum stays admissible. The tables are generated once by a
+ * retrograde breadth-first search from the goal, written to a compact binary file and
+ * mapped read-only from it on later runs. The mapping is never copied into the heap, so
+ * the operating system pages it in lazily and several solver processes share the same
+ * page cache
+ * @author Alex Amado
+ */
+public class PatternDatabase {
+    /**
+     * Partition of the tiles into three patterns of 5 tiles (fast to generate)
+     */
+    public static final String PARTITION_555 = "555";
+    /**
+     * Partition of the tiles into patterns of 6, 6 and 3 tiles (stronger, takes
+     * longer to generate and around 11 MB on disk)
+     */
+    public static final String PARTITION_663 = "663";
+    /**
+     * Directory the tables are stored in, set with '-Dpuzzle.pdbDir=...'
+     */
+    private static final String DIRECTORY = System.getProperty("puzzle.pdbDir", "pdb");
+    /**
+     * Partition to use, set with '-Dpuzzle.pdbPartition=555' or '663'
+     */
+    private static final String PARTITION = System.getProperty("puzzle.pdbPartition", PARTITION_555);
+    /**
+     * Whether every page of the mapping is touched when it is loaded instead of on first
+     * use, set with '-Dpuzzle.pdbPreload=true'
+     */
+    private static final boolean PRELOAD = Boolean.getBoolean("puzzle.pdbPreload");
+    /**
+     * Marks the start of a pattern database file ("PDB1")
+     */
+    private static final int MAGIC = 0x50444231;
+    /**
+     * Value marking a not yet reached abstract state during generation
+     */
+    private static final int UNREACHED = 0xFF;
+    /**
+     * Tile value of 'E', which trades places with 'F' between the two goal states
+     */
+    private static final int TILE_E = 14;
+    /**
+     * Tile value of 'F', which trades places with 'E' between the two goal states
+     */
+    private static final int TILE_F = 15;
+
+    /**
+     * The pattern database used by the search methods, loaded on first use
+     */
+    private static PatternDatabase defaultInstance;
+    /**
+     * Time taken to load (and, if needed, generate) 'defaultInstance', in nanoseconds
+     */
+    private static long defaultLoadNanos = -1;
+
+    /**
+     * Tile values of each pattern
+     */
+    private final int[][] patterns;
+    /**
+     * Table of each pattern, indexed by the rank of the cells its tiles occupy
+     * (see 'rank'), holding the fewest moves needed to bring them home
+     */
+    private final ByteBuffer[] tables;
+
+    /**
+     * Constructs a 'PatternDatabase' object from already built tables
+     * @param thePatterns tile values of each pattern
+     * @param theTables table of each pattern, either on the heap or memory-mapped
+     */
+    private PatternDatabase(int[][] thePatterns, ByteBuffer[] theTables) {
+        patterns = thePatterns;
+        tables = theTables;
+    }
+
+    /**
+     * Returns the pattern database used by the search methods. The first call loads it
+     * from 'puzzle.pdbDir', generating and writing the tables first if they don't exist
+     * @return the pattern database
+     */
+    public static synchronized PatternDatabase getDefault() {
+        if (defaultInstance == null) {
+            long start = System.nanoTime();
+            try {
+                defaultInstance = load(Paths.get(DIRECTORY), PARTITION);
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to load pattern database from '" + DIRECTORY + "'", e);
+            }
+            defaultLoadNanos = System.nanoTime() - start;
+        }
+        return defaultInstance;
+    }
+
+    /**
+     * Returns how long loading the default pattern database took
+     * @return load time in milliseconds, or -1 if it hasn't been loaded
+     */
+    public static synchronized long getDefaultLoadMillis() {
+        return defaultLoadNanos < 0 ? -1 : defaultLoadNanos / 1_000_000;
+    }
+
+    /**
+     * Loads the pattern database of 'partition' from 'directory', generating and
+     * writing it first if the file doesn't exist yet. The file is written under a
+     * temporary name and then renamed in a single step, so another process never maps
+     * a half-written file, and a generation which was killed leaves no file behind
+     * @param directory directory holding the pattern database files
+     * @param partition 'PARTITION_555' or 'PARTITION_663'
+     * @return the pattern database
+     * @throws IOException if the file can't be read or written
+     */
+    public static PatternDatabase load(Path directory, String partition) throws IOException {
+        Path file = directory.resolve("pdb-" + partition + ".bin");
+        if (!Files.exists(file)) {
+            System.err.println("Generating pattern database " + file + " ...");
+            PatternDatabase generated = generate(partition);
+            Files.createDirectories(directory);
+            // Named after the process rather than made by 'createTempFile', which would
+            // keep other users from reading it
+            Path temporary = directory.resolve("pdb-" + partition + ".bin." + ProcessHandle.current().pid() + ".tmp");
+            try {
+                generated.write(temporary);
+                // Another process generating the same tables at once replaces them with equal ones
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        }
+        return read(file, partition, PRELOAD);
+    }
+
+    /**
+     * Generates every table of 'partition' by retrograde breadth-first search
+     * @param partition 'PARTITION_555' or 'PARTITION_663'
+     * @return the generated pattern database
+     */
+    public static PatternDatabase generate(String partition) {
+        int[][] patterns = partitionPatterns(partition);
+        ByteBuffer[] tables = new ByteBuffer[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            tables[i] = ByteBuffer.wrap(buildTable(patterns[i]));
+        }
+        return new PatternDatabase(patterns, tables);
+    }
+
+    /**
+     * Estimates the number of moves needed to reach the closer of the two goal states
+     * @param state the packed state
+     * @return the sum of the pattern tables on the closer goal state
+     */
+    public int estimate(long state) {
+        long cells = cellsOf(state);
+        return Math.min(estimateGoalOne(cells), estimateGoalOne(swapTilesEF(cells)));
+    }
+
+    /**
+     * Estimates the number of moves needed to reach one of the goal states
+     * @param state the packed state
+     * @param goal 'PackedState.GOAL_ONE' or 'PackedState.GOAL_TWO'
+     * @return the sum of the pattern tables on 'goal'
+     */
+    public int estimate(long state, long goal) {
+        long cells = cellsOf(state);
+        return estimateGoalOne(goal == PackedState.GOAL_ONE ? cells : swapTilesEF(cells));
+    }
+
+    /**
+     * Inverts a packed state
+     * @param state the packed state
+     * @return packed cell index of each tile value (nibble 't' holds the cell of tile 't')
+     */
+    private static long cellsOf(long state) {
+        long cells = 0L;
+        for (int i = 0; i < PackedState.CELLS; i++) {
+            cells |= (long) i << (PackedState.tileAt(state, i) << 2);
+        }
+        return cells;
+    }
+
+    /**
+     * Lets tiles 'E' and 'F' stand in for each other. Goal state 2 only trades the
+     * cells of 'E' and 'F', so measuring the swapped placement on goal state 1
+     * measures the original one on goal state 2
+     * @param cells packed cell index of each tile value
+     * @return the same placement with the cells of 'E' and 'F' swapped
+     */
+    private static long swapTilesEF(long cells) {
+        long cellE = (cells >>> (TILE_E << 2)) & 0xFL;
+        long cellF = (cells >>> (TILE_F << 2)) & 0xFL;
+        return cells & ~(0xFFL << (TILE_E << 2)) | cellF << (TILE_E << 2) | cellE << (TILE_F << 2);
+    }
+
+    /**
+     * Sums the pattern tables for the given tile placement, measured on goal state 1
+     * @param cells packed cell index of each tile value (nibble 't' holds the cell of tile 't')
+     * @return the sum of the pattern tables
+     */
+    private int estimateGoalOne(long cells) {
+        int sum = 0;
+        for (int p = 0; p < patterns.length; p++) {
+            int[] pattern = patterns[p];
+            int rank = 0;
+            // Bit mask of the cells used by the pattern's earlier tiles
+            int used = 0;
+            for (int i = 0; i < pattern.length; i++) {
+                int cell = PackedState.tileAt(cells, pattern[i]);
+                int smaller = Integer.bitCount(used & ((1 << cell) - 1));
+                rank = rank * (PackedState.CELLS - i) + cell - smaller;
+                used |= 1 << cell;
+            }
+            sum += tables[p].get(rank) & 0xFF;
+        }
+        return sum;
+    }
+
+    /**
+     * Writes the pattern database to 'file'. The format is the magic number, the
+     * number of patterns, then for each pattern its size, its tile values, the
+     * number of table entries and the entries themselves (one byte each)
+     * @param file the file to write
+     * @throws IOException if the file can't be written
+     */
+    public void write(Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file);
+             DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 1 << 16))) {
+            data.writeInt(MAGIC);
+            data.writeInt(patterns.length);
+            for (int p = 0; p < patterns.length; p++) {
+                data.writeByte(patterns[p].length);
+                for (int tile : patterns[p]) {
+                    data.writeByte(tile);
+                }
+                ByteBuffer table = tables[p].duplicate();
+                table.clear();
+                data.writeInt(table.remaining());
+                byte[] chunk = new byte[Math.min(table.remaining(), 1 << 16)];
+                while (table.hasRemaining()) {
+                    int length = Math.min(chunk.length, table.remaining());
+                    table.get(chunk, 0, length);
+                    data.write(chunk, 0, length);
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps a pattern database written by 'write' read-only. The tables are slices of
+     * the mapping, so nothing is copied and pages are read from disk on first use.
+     * The patterns must be those of 'partition' and every table must be complete
+     * @param file the file to read
+     * @param partition 'PARTITION_555' or 'PARTITION_663'
+     * @param preload whether every page should be touched now instead of on first use
+     * @return the pattern database
+     * @throws IOException if the file can't be read or isn't a complete pattern
+     *                     database of 'partition'
+     */
+    public static PatternDatabase read(Path file, String partition, boolean preload) throws IOException {
+        int[][] expected = partitionPatterns(partition);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (preload) {
+                buffer.load();
+            }
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("'" + file + "' is not a pattern database file.");
+            }
+            if (buffer.getInt() != expected.length) {
+                throw new IOException("'" + file + "' doesn't hold the patterns of partition " + partition + ".");
+            }
+            ByteBuffer[] tables = new ByteBuffer[expected.length];
+            for (int p = 0; p < expected.length; p++) {
+                if (buffer.get() != expected[p].length) {
+                    throw new IOException("'" + file + "' doesn't hold the patterns of partition " + partition + ".");
+                }
+                for (int tile : expected[p]) {
+                    if (buffer.get() != tile) {
+                        throw new IOException("'" + file + "' doesn't hold the patterns of partition " + partition + ".");
+                    }
+                }
+                int length = buffer.getInt();
+                if (length != tableSize(expected[p].length) || length > buffer.remaining()) {
+                    throw new IOException("'" + file + "' holds an incomplete table for pattern " + p + ".");
+                }
+                tables[p] = buffer.slice(buffer.position(), length);
+                buffer.position(buffer.position() + length);
+            }
+            return new PatternDatabase(expected, tables);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("'" + file + "' is truncated.", e);
+        }
+    }
+
+    /**
+     * Returns the tile values of each pattern of a partition
+     * @param partition 'PARTITION_555' or 'PARTITION_663'
+     * @return tile values of each pattern
+     */
+    private static int[][] partitionPatterns(String partition) {
+        switch (partition) {
+            case PARTITION_555:
+                return new int[][] {{1, 2, 5, 6, 9}, {3, 4, 7, 8, 12}, {10, 11, 13, 14, 15}};
+            case PARTITION_663:
+                return new int[][] {{1, 2, 5, 6, 9, 13}, {3, 4, 7, 8, 11, 12}, {10, 14, 15}};
+            default:
+                throw new IllegalArgumentException("Please specify either '" + PARTITION_555
+                        + "' or '" + PARTITION_663 + "' pattern database partitions.");
+        }
+    }
+
+    /**
+     * Builds the table of one pattern by a breadth-first search backwards from goal
+     * state 1 over abstract states (cells of the pattern's tiles plus the blank space).
+     * Moving the blank space into a cell not used by the pattern costs nothing, moving
+     * it onto one of the pattern's tiles costs one move
+     * @param pattern tile values of the pattern
+     * @return the table, indexed by 'rank'
+     */
+    private static byte[] buildTable(int[] pattern) {
+        int size = tableSize(pattern.length);
+        // Distance of each abstract state, indexed by 'rank * 16 + blank'
+        byte[] distances = new byte[size * PackedState.CELLS];
+        Arrays.fill(distances, (byte) UNREACHED);
+        int[] cells = new int[pattern.length];
+        for (int i = 0; i < pattern.length; i++) {
+            cells[i] = goalCell(pattern[i]);
+        }
+        int start = rank(cells) * PackedState.CELLS + goalCell(0);
+        distances[start] = 0;
+        int[] current = {start};
+        int currentSize = 1;
+        int[] next = new int[1024];
+        int[] patternIndexAt = new int[PackedState.CELLS];
+        for (int cost = 0; currentSize > 0; cost++) {
+            int nextSize = 0;
+            for (int head = 0; head < currentSize; head++) {
+                int abstractState = current[head];
+                if ((distances[abstractState] & 0xFF) < cost) {
+                    // Already reached more cheaply
+                    continue;
+                }
+                int blank = abstractState % PackedState.CELLS;
+                int rank = abstractState / PackedState.CELLS;
+                unrank(rank, cells);
+                Arrays.fill(patternIndexAt, -1);
+                for (int i = 0; i < cells.length; i++) {
+                    patternIndexAt[cells[i]] = i;
+                }
+                for (int move = 0; move < 4; move++) {
+                    int target = Board.moveTarget(blank, move);
+                    if (target < 0) {
+                        continue;
+                    }
+                    int tile = patternIndexAt[target];
+                    if (tile < 0) {
+                        // Free move of the blank space, stays in this layer
+                        int successor = rank * PackedState.CELLS + target;
+                        if ((distances[successor] & 0xFF) > cost) {
+                            distances[successor] = (byte) cost;
+                            if (currentSize == current.length) {
+                                current = Arrays.copyOf(current, current.length * 2);
+                            }
+                            current[currentSize++] = successor;
+                        }
+                    } else {
+                        // One of the pattern's tiles moves into the blank space
+                        cells[tile] = blank;
+                        int successor = rank(cells) * PackedState.CELLS + target;
+                        cells[tile] = target;
+                        if ((distances[successor] & 0xFF) > cost + 1) {
+                            distances[successor] = (byte) (cost + 1);
+                            if (nextSize == next.length) {
+                                next = Arrays.copyOf(next, next.length * 2);
+                            }
+                            next[nextSize++] = successor;
+                        }
+                    }
+                }
+            }
+            int[] swap = current;
+            current = next;
+            currentSize = nextSize;
+            next = swap;
+        }
+        // Keep the best distance over every position of the blank space
+        byte[] table = new byte[size];
+        for (int rank = 0; rank < size; rank++) {
+            int best = UNREACHED;
+            for (int blank = 0; blank < PackedState.CELLS; blank++) {
+                best = Math.min(best, distances[rank * PackedState.CELLS + blank] & 0xFF);
+            }
+            table[rank] = (byte) best;
+        }
+        return table;
+    }
+
+    /**
+     * Returns the cell a tile occupies in goal state 1
+     * @param tile the tile value (0 for the blank space)
+     * @return cell index of 'tile' in goal state 1
+     */
+    private static int goalCell(int tile) {
+        return tile == 0 ? PackedState.CELLS - 1 : tile - 1;
+    }
+
+    /**
+     * Returns the number of ways 'k' tiles can be placed on the board
+     * @param k number of tiles
+     * @return 16 * 15 * ... * (16 - k + 1)
+     */
+    private static int tableSize(int k) {
+        int size = 1;
+        for (int i = 0; i < k; i++) {
+            size *= PackedState.CELLS - i;
+        }
+        return size;
+    }
+
+    /**
+     * Ranks a placement of distinct cells into a dense index in [0, tableSize(k))
+     * @param cells cell index of each of the pattern's tiles
+     * @return the rank of the placement
+     */
+    private static int rank(int[] cells) {
+        int rank = 0;
+        for (int i = 0; i < cells.length; i++) {
+            int smaller = 0;
+            for (int j = 0; j < i; j++) {
+                if (cells[j] < cells[i]) smaller++;
+            }
+            rank = rank * (PackedState.CELLS - i) + cells[i] - smaller;
+        }
+        return rank;
+    }
+
+    /**
+     * Inverse of 'rank'
+     * @param rank the rank of a placement
+     * @param cells array the cell index of each of the pattern's tiles is written into
+     */
+    private static void unrank(int rank, int[] cells) {
+        int k = cells.length;
+        for (int i = k - 1; i >= 0; i--) {
+            int radix = PackedState.CELLS - i;
+            cells[i] = rank % radix;
+            rank /= radix;
+        }
+        // Turn each digit (index among the cells not used by earlier tiles) into a cell
+        int used = 0;
+        for (int i = 0; i < k; i++) {
+            int remaining = cells[i];
+            int cell = 0;
+            while (true) {
+                if ((used & 1 << cell) == 0) {
+                    if (remaining == 0) break;
+                    remaining--;
+                }
+                cell++;
+            }
+            cells[i] = cell;
+            used |= 1 << cell;
+        }
+    }
+}
@@ -0,0 +1,496 @@
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * This class represents a corpus of puzzles used as standard inputs for batch runs and
+ * benchmarks. Puzzles come from random walks away from goal state 1, from uniformly
+ * random permutations that can reach goal state 1, or from Korf's 100 instances, and
+ * each is tagged with the length of its optimal solution. A corpus is written to a
+ * compact binary file: the magic number, the number of puzzles and the seed, then 9
+ * bytes per puzzle (its packed state and its optimal length, 'UNKNOWN_LENGTH' if it
+ * couldn't be solved within the time limit). The same seed always produces the same file
+ * @author Alex Amado
+ */
+public final class PuzzleCorpus {
+    /**
+     * Magic number at the start of a corpus file ("PZC1")
+     */
+    public static final int MAGIC = 0x505A4331;
+    /**
+     * Optimal length stored for a puzzle which couldn't be solved within the time limit
+     */
+    public static final int UNKNOWN_LENGTH = 0xFF;
+    /**
+     * Width of a difficulty bucket: bucket 'b' holds the optimal lengths 'b' to 'b + 9'
+     */
+    public static final int BUCKET_WIDTH = 10;
+    /**
+     * Number of bytes taken by one puzzle in a corpus file
+     */
+    private static final int RECORD_BYTES = Long.BYTES + 1;
+    /**
+     * Number of bytes taken by the header of a corpus file
+     */
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+    /**
+     * Seed the puzzles were generated from (0 for Korf's instances)
+     */
+    private final long seed;
+    /**
+     * Packed state of each puzzle
+     */
+    private final long[] states;
+    /**
+     * Optimal solution length of each puzzle, 'UNKNOWN_LENGTH' if unknown
+     */
+    private final int[] optimalLengths;
+
+    /**
+     * Constructs a 'PuzzleCorpus' object
+     * @param theSeed seed the puzzles were generated from
+     * @param theStates packed state of each puzzle
+     * @param theOptimalLengths optimal solution length of each puzzle
+     */
+    public PuzzleCorpus(long theSeed, long[] theStates, int[] theOptimalLengths) {
+        if (theStates.length != theOptimalLengths.length) {
+            throw new IllegalArgumentException("Every puzzle needs exactly one optimal length.");
+        }
+        seed = theSeed;
+        states = theStates;
+        optimalLengths = theOptimalLengths;
+    }
+
+    /**
+     * Scrambles goal state 1 with random walks. Each walk makes 'depth' moves, never
+     * undoing the move before, so its optimal solution is at most 'depth' moves long
+     * @param seed seed of the random number generator
+     * @param depth number of moves of each walk
+     * @param count number of puzzles
+     * @return the packed state of each puzzle
+     */
+    public static long[] randomWalks(long seed, int depth, int count) {
+        if (depth < 0 || count < 0) {
+            throw new IllegalArgumentException("Depth and count must not be negative.");
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] walks = new long[count];
+        for (int i = 0; i < count; i++) {
+            long state = PackedState.GOAL_ONE;
+            int blank = PackedState.blankIndex(state);
+            int lastMove = -1;
+            for (int step = 0; step < depth; step++) {
+                int move;
+                int target;
+                // Draw again until the move stays on the board and doesn't undo the last one
+                do {
+                    move = random.nextInt(4);
+                    target = Board.moveTarget(blank, move);
+                } while (target < 0 || (lastMove >= 0 && move == Board.inverseMove(lastMove)));
+                state = PackedState.move(state, blank, target);
+                blank = target;
+                lastMove = move;
+            }
+            walks[i] = state;
+        }
+        return walks;
+    }
+
+    /**
+     * Draws puzzles uniformly among the permutations that can reach goal state 1. A
+     * uniform shuffle of the 16 cells lands on the wrong half half of the time, and
+     * swapping two tiles (never the blank space) maps that half onto the right one
+     * one to one, so the result stays uniform
+     * @param seed seed of the random number generator
+     * @param count number of puzzles
+     * @return the packed state of each puzzle
+     */
+    public static long[] randomPermutations(long seed, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative.");
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] permutations = new long[count];
+        int[] cells = new int[PackedState.CELLS];
+        for (int i = 0; i < count; i++) {
+            for (int cell = 0; cell < cells.length; cell++) {
+                cells[cell] = cell;
+            }
+            // Fisher-Yates shuffle
+            for (int cell = cells.length - 1; cell > 0; cell--) {
+                int other = random.nextInt(cell + 1);
+                int tile = cells[cell];
+                cells[cell] = cells[other];
+                cells[other] = tile;
+            }
+            long state = 0L;
+            for (int cell = 0; cell < cells.length; cell++) {
+                state |= (long) cells[cell] << (cell << 2);
+            }
+            if (PackedState.reachableGoal(state) != PackedState.GOAL_ONE) {
+                // Swap the first two tiles that aren't the blank space
+                int first = PackedState.tileAt(state, 0) != 0 ? 0 : 1;
+                int second = PackedState.tileAt(state, first + 1) != 0 ? first + 1 : first + 2;
+                state = swapCells(state, first, second);
+            }
+            permutations[i] = state;
+        }
+        return permutations;
+    }
+
+    /**
+     * Reads Korf's 100 instances (or any file in their format) and converts them to this
+     * program's layout. Each line holds 16 numbers, the tile of each cell with 0 for the
+     * blank space, optionally preceded by the instance number and followed by the known
+     * optimal length. Korf's goal has the blank space first and tile 't' in cell 't', so
+     * the board is turned upside down: the tile in cell 'p' moves to cell '15 - p' and
+     * tile 't' becomes tile '16 - t', which turns his goal into goal state 1 and keeps
+     * every solution the same length
+     * @param file the instance file
+     * @param knownLengths receives the optimal length of each instance, 'UNKNOWN_LENGTH'
+     *                     if the line doesn't give it
+     * @return the packed state of each instance, in file order
+     * @throws IOException if the file can't be read
+     */
+    public static long[] readKorf(Path file, List<Integer> knownLengths) throws IOException {
+        List<Long> instances = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] fields = trimmed.split("[\\s,]+");
+            // 16 tiles, the instance number and the tiles, or the number, tiles and length
+            int first = fields.length == PackedState.CELLS ? 0 : 1;
+            if (fields.length < PackedState.CELLS || fields.length > PackedState.CELLS + 2) {
+                throw new IllegalArgumentException("Expected 16 tiles on line " + lineNumber + ": \"" + line + "\"");
+            }
+            long state = 0L;
+            int seen = 0;
+            for (int p = 0; p < PackedState.CELLS; p++) {
+                int tile = Integer.parseInt(fields[first + p]);
+                if (tile < 0 || tile >= PackedState.CELLS || (seen & 1 << tile) != 0) {
+                    throw new IllegalArgumentException("Invalid tiles on line " + lineNumber + ": \"" + line + "\"");
+                }
+                seen |= 1 << tile;
+                int converted = tile == 0 ? 0 : PackedState.CELLS - tile;
+                state |= (long) converted << ((PackedState.CELLS - 1 - p) << 2);
+            }
+            instances.add(state);
+            knownLengths.add(fields.length == PackedState.CELLS + 2
+                    ? Integer.parseInt(fields[fields.length - 1]) : UNKNOWN_LENGTH);
+        }
+        long[] states = new long[instances.size()];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = instances.get(i);
+        }
+        return states;
+    }
+
+    /**
+     * Measures the optimal solution length of each puzzle with IDA* and heuristic 3,
+     * spread over a pool of threads
+     * @param states packed state of each puzzle
+     * @param knownLengths optimal length of each puzzle when already known, 'UNKNOWN_LENGTH'
+     *                     for the ones to solve
+     * @param threads number of puzzles solved concurrently
+     * @param timeLimitMillis time limit of each puzzle in milliseconds, 0 for no limit
+     * @return the optimal length of each puzzle, 'UNKNOWN_LENGTH' for the ones that timed out
+     */
+    public static int[] measureOptimalLengths(long[] states, int[] knownLengths, int threads, long timeLimitMillis) {
+        List<String> unsolved = new ArrayList<>();
+        for (int i = 0; i < states.length; i++) {
+            if (knownLengths[i] == UNKNOWN_LENGTH) {
+                unsolved.add(PackedState.decode(states[i]));
+            }
+        }
+        PatternDatabase.getDefault();
+        List<SearchResult> results = new BatchSolver("IDAStar", "h3", threads, timeLimitMillis).solveAll(unsolved);
+        int[] lengths = knownLengths.clone();
+        int next = 0;
+        for (int i = 0; i < lengths.length; i++) {
+            if (lengths[i] == UNKNOWN_LENGTH) {
+                SearchResult result = results.get(next++);
+                lengths[i] = result.isSolved() ? result.getMaxDepth() : UNKNOWN_LENGTH;
+            }
+        }
+        return lengths;
+    }
+
+    /**
+     * Writes the corpus to 'file'
+     * @param file the file to write
+     * @throws IOException if the file can't be written
+     */
+    public void write(Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file);
+             DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 1 << 16))) {
+            data.writeInt(MAGIC);
+            data.writeInt(states.length);
+            data.writeLong(seed);
+            for (int i = 0; i < states.length; i++) {
+                data.writeLong(states[i]);
+                data.writeByte(optimalLengths[i]);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a file starts with the magic number of a corpus file
+     * @param file the file to check
+     * @return true if 'file' is a corpus file
+     * @throws IOException if the file can't be read
+     */
+    public static boolean isCorpus(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                // Keep reading until the magic number is complete or the file ends
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Reads the initial states of a corpus file, keeping only one difficulty bucket
+     * @param file the corpus file
+     * @param bucket lowest optimal length of the bucket to keep (a multiple of
+     *               'BUCKET_WIDTH'), or -1 to keep every puzzle
+     * @return the initial states, in file order
+     * @throws IOException if the file can't be read or isn't a corpus file
+     */
+    public static List<String> readStates(Path file, int bucket) throws IOException {
+        if (bucket < 0) {
+            return readStates(file, 0, UNKNOWN_LENGTH);
+        }
+        return readStates(file, bucket, bucket + BUCKET_WIDTH - 1);
+    }
+
+    /**
+     * Reads the initial states of a corpus file, keeping only the puzzles whose optimal
+     * length falls in a range ('UNKNOWN_LENGTH' counts as the longest)
+     * @param file the corpus file
+     * @param minLength shortest optimal length kept
+     * @param maxLength longest optimal length kept
+     * @return the initial states, in file order
+     * @throws IOException if the file can't be read or isn't a corpus file
+     */
+    public static List<String> readStates(Path file, int minLength, int maxLength) throws IOException {
+        List<String> puzzles = new ArrayList<>();
+        try (Reader reader = new Reader(file)) {
+            while (reader.next()) {
+                int length = reader.getOptimalLength();
+                if (length >= minLength && length <= maxLength) {
+                    puzzles.add(PackedState.decode(reader.getState()));
+                }
+            }
+        }
+        return puzzles;
+    }
+
+    /**
+     * Returns the difficulty bucket of an optimal length
+     * @param optimalLength the optimal length
+     * @return the lowest optimal length of its bucket, -1 if the length is unknown
+     */
+    public static int bucketOf(int optimalLength) {
+        return optimalLength == UNKNOWN_LENGTH ? -1 : optimalLength / BUCKET_WIDTH * BUCKET_WIDTH;
+    }
+
+    /**
+     * Returns the number of puzzles in each difficulty bucket
+     * @return one line per bucket in ascending order, e.g. "40-49: 12"
+     */
+    public List<String> bucketCounts() {
+        int buckets = UNKNOWN_LENGTH / BUCKET_WIDTH + 1;
+        int[] counts = new int[buckets];
+        int unknown = 0;
+        for (int length : optimalLengths) {
+            if (length == UNKNOWN_LENGTH) {
+                unknown++;
+            } else {
+                counts[length / BUCKET_WIDTH]++;
+            }
+        }
+        List<String> lines = new ArrayList<>();
+        for (int b = 0; b < buckets; b++) {
+            if (counts[b] > 0) {
+                lines.add(b * BUCKET_WIDTH + "-" + (b * BUCKET_WIDTH + BUCKET_WIDTH - 1) + ": " + counts[b]);
+            }
+        }
+        if (unknown > 0) {
+            lines.add("unknown: " + unknown);
+        }
+        return lines;
+    }
+
+    /**
+     * Returns the number of puzzles
+     * @return the number of puzzles
+     */
+    public int size() {
+        return states.length;
+    }
+
+    /**
+     * Swaps the tiles of two cells of a packed state
+     * @param state the packed state
+     * @param first cell index of the first tile
+     * @param second cell index of the second tile
+     * @return the packed state with the two tiles swapped
+     */
+    private static long swapCells(long state, int first, int second) {
+        long a = (state >>> (first << 2)) & 0xFL;
+        long b = (state >>> (second << 2)) & 0xFL;
+        state &= ~(0xFL << (first << 2)) & ~(0xFL << (second << 2));
+        return state | b << (first << 2) | a << (second << 2);
+    }
+
+    /**
+     * This class represents a cursor streaming the puzzles of a corpus file, one at a
+     * time, through a fixed buffer so a corpus of any size is read in constant memory
+     * @author Alex Amado
+     */
+    public static final class Reader implements Closeable {
+        /**
+         * Represents the channel the corpus is read from
+         */
+        private final FileChannel myChannel;
+        /**
+         * Represents the buffer the records are read into
+         */
+        private final ByteBuffer myBuffer = ByteBuffer.allocate(RECORD_BYTES * 4096);
+        /**
+         * Represents the number of puzzles in the corpus
+         */
+        private final int mySize;
+        /**
+         * Represents the seed the corpus was generated from
+         */
+        private final long mySeed;
+        /**
+         * Represents the number of puzzles not read yet
+         */
+        private int myRemaining;
+        /**
+         * Represents the packed state of the current puzzle
+         */
+        private long myState;
+        /**
+         * Represents the optimal length of the current puzzle
+         */
+        private int myOptimalLength;
+
+        /**
+         * Constructs a 'Reader' object positioned before the first puzzle
+         * @param theFile the corpus file
+         * @throws IOException if the file can't be read or isn't a corpus file
+         */
+        public Reader(Path theFile) throws IOException {
+            myChannel = FileChannel.open(theFile, StandardOpenOption.READ);
+            try {
+                myBuffer.limit(HEADER_BYTES);
+                fill();
+                if (myBuffer.getInt() != MAGIC) {
+                    throw new IOException("'" + theFile + "' is not a corpus file.");
+                }
+                mySize = myBuffer.getInt();
+                mySeed = myBuffer.getLong();
+                myRemaining = mySize;
+                myBuffer.clear().limit(0);
+            } catch (IOException e) {
+                myChannel.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Moves to the next puzzle
+         * @return false if every puzzle has been read
+         * @throws IOException if the file can't be read or ends early
+         */
+        public boolean next() throws IOException {
+            if (myRemaining == 0) {
+                return false;
+            }
+            if (!myBuffer.hasRemaining()) {
+                // Records never straddle a refill, so the buffer is read empty first
+                myBuffer.clear().limit(Math.min(myBuffer.capacity() / RECORD_BYTES, myRemaining) * RECORD_BYTES);
+                fill();
+            }
+            myState = myBuffer.getLong();
+            myOptimalLength = myBuffer.get() & 0xFF;
+            myRemaining--;
+            return true;
+        }
+
+        /**
+         * Returns the packed state of the current puzzle
+         * @return the packed state
+         */
+        public long getState() {
+            return myState;
+        }
+
+        /**
+         * Returns the optimal solution length of the current puzzle
+         * @return the optimal length, 'UNKNOWN_LENGTH' if unknown
+         */
+        public int getOptimalLength() {
+            return myOptimalLength;
+        }
+
+        /**
+         * Returns the number of puzzles in the corpus
+         * @return the number of puzzles
+         */
+        public int size() {
+            return mySize;
+        }
+
+        /**
+         * Returns the seed the corpus was generated from
+         * @return the seed
+         */
+        public long getSeed() {
+            return mySeed;
+        }
+
+        /**
+         * Reads from the channel until the buffer is full up to its limit, then flips it
+         * @throws IOException if the file ends early
+         */
+        private void fill() throws IOException {
+            while (myBuffer.hasRemaining()) {
+                if (myChannel.read(myBuffer) < 0) {
+                    throw new EOFException("Corpus file ends early.");
+                }
+            }
+            myBuffer.flip();
+        }
+
+        /**
+         * Closes the channel
+         * @throws IOException if the channel can't be closed
+         */
+        @Override
+        public void close() throws IOException {
+            myChannel.close();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * This enum represents the schemes a 'TranspositionTable' can use to decide which entry
+ * is kept when two states land on the same slot. The scheme is chosen with
+ * '--tt {megabytes}:always|depth-preferred|two-tier' or '-Dpuzzle.ttPolicy' (two-tier by
+ * default)
+ * @author Alex Amado
+ */
+public enum ReplacementPolicy {
+    /**
+     * The newest state always takes the slot
+     */
+    ALWAYS,
+    /**
+     * The state reached at the smaller depth keeps the slot, since it stands for the
+     * larger subtree below it
+     */
+    DEPTH_PREFERRED,
+    /**
+     * Slots are paired into buckets: the first slot of a bucket is depth-preferred and
+     * the second is always replaced, so the shallow states are kept while the newest
+     * state still gets a slot
+     */
+    TWO_TIER;
+
+    /**
+     * Returns the scheme chosen through the 'puzzle.ttPolicy' system property
+     * @return the chosen scheme, 'TWO_TIER' if none was chosen
+     */
+    public static ReplacementPolicy fromSystemProperty() {
+        return parse(System.getProperty("puzzle.ttPolicy", "two-tier"));
+    }
+
+    /**
+     * Parses a scheme name such as 'always' or 'depth-preferred' (case insensitive)
+     * @param name the name of the scheme
+     * @return the matching scheme
+     */
+    public static ReplacementPolicy parse(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Please specify either 'always', 'depth-preferred', or 'two-tier' replacement.");
+        }
+    }
+}
@@ -0,0 +1,200 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * This class represents a destination for the results of a batch run. Every format
+ * writes through a single buffered channel: records are encoded straight into a
+ * 'ByteBuffer' which is only handed to the channel once full, so solving many easy
+ * puzzles isn't slowed down by one system call per line. The format is chosen with
+ * '-Dpuzzle.output=console|csv|ndjson|binary'
+ * @author Alex Amado
+ */
+public abstract class ResultSink implements Closeable {
+    /**
+     * Status of a puzzle whose goal state was found
+     */
+    public static final String SOLVED = "solved";
+    /**
+     * Status of a puzzle whose search ended without finding a goal state
+     */
+    public static final String NOT_FOUND = "not found";
+    /**
+     * Status of a puzzle which exceeded its time limit
+     */
+    public static final String TIMED_OUT = "timed out";
+    /**
+     * Status of a puzzle whose search outgrew its memory cap
+     */
+    public static final String OUT_OF_MEMORY = "out of memory";
+    /**
+     * Size of the output buffer in bytes
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Channel the records are written to
+     */
+    private final WritableByteChannel channel;
+    /**
+     * Buffer the records are encoded into before being written to 'channel'
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Constructs a 'ResultSink' object
+     * @param theChannel channel the records are written to, closed along with the sink
+     */
+    protected ResultSink(WritableByteChannel theChannel) {
+        channel = theChannel;
+        buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    }
+
+    /**
+     * Creates the sink for an output format
+     * @param format 'console', 'csv', 'ndjson', or 'binary'
+     * @param channel channel the records are written to
+     * @return a new sink
+     * @throws IOException if the sink fails to write its header
+     */
+    public static ResultSink create(String format, WritableByteChannel channel) throws IOException {
+        switch (format) {
+            case "console":
+                return new ConsoleResultSink(channel);
+            case "csv":
+                return new CsvResultSink(channel);
+            case "ndjson":
+                return new NdjsonResultSink(channel);
+            case "binary":
+                return new BinaryResultSink(channel);
+            default:
+                throw new IllegalArgumentException("Please specify either 'console', 'csv', 'ndjson', or 'binary' output.");
+        }
+    }
+
+    /**
+     * Writes the result of a puzzle
+     * @param index position of the puzzle in the batch
+     * @param initialState the initial state of the board
+     * @param algorithm the search method, as named on the command line
+     * @param heuristic the heuristic or depth limit given as options (null for none)
+     * @param result the result of the search
+     * @throws IOException if the channel fails
+     */
+    public abstract void write(int index, String initialState, String algorithm, String heuristic,
+                               SearchResult result) throws IOException;
+
+    /**
+     * Returns the status of a puzzle
+     * @param result the result of the search
+     * @return 'SOLVED', 'NOT_FOUND', 'TIMED_OUT', or 'OUT_OF_MEMORY'
+     */
+    protected static String statusOf(SearchResult result) {
+        if (result.isTimedOut()) {
+            return TIMED_OUT;
+        }
+        if (result.isOutOfMemory()) {
+            return OUT_OF_MEMORY;
+        }
+        return result.isSolved() ? SOLVED : NOT_FOUND;
+    }
+
+    /**
+     * Appends a byte to the output
+     * @param value the byte
+     * @throws IOException if the channel fails
+     */
+    protected final void put(int value) throws IOException {
+        ensureRemaining(1);
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Appends an 'int' (big-endian) to the output
+     * @param value the value
+     * @throws IOException if the channel fails
+     */
+    protected final void putInt(int value) throws IOException {
+        ensureRemaining(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    /**
+     * Appends a 'long' (big-endian) to the output
+     * @param value the value
+     * @throws IOException if the channel fails
+     */
+    protected final void putLong(long value) throws IOException {
+        ensureRemaining(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    /**
+     * Appends text to the output. Every string written by the sinks (states, names,
+     * numbers, and paths) is ASCII, so each character is a single byte
+     * @param text the text
+     * @throws IOException if the channel fails
+     */
+    protected final void putAscii(CharSequence text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            buffer.put((byte) text.charAt(i));
+        }
+    }
+
+    /**
+     * Appends the decimal representation of a number to the output
+     * @param value the number
+     * @throws IOException if the channel fails
+     */
+    protected final void putDecimal(long value) throws IOException {
+        putAscii(Long.toString(value));
+    }
+
+    /**
+     * Writes everything buffered so far to the channel
+     * @throws IOException if the channel fails
+     */
+    public void flush() throws IOException {
+        drain();
+    }
+
+    /**
+     * Flushes the buffer and closes the channel
+     * @throws IOException if the channel fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Makes sure the buffer has room for 'bytes' more bytes, draining it if needed
+     * @param bytes number of bytes about to be appended
+     * @throws IOException if the channel fails
+     */
+    private void ensureRemaining(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+    }
+
+    /**
+     * Writes the content of the buffer to the channel and empties it
+     * @throws IOException if the channel fails
+     */
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * This interface represents a search method which can solve any number of puzzles.
+ * An engine keeps its fringe, visited set, and other scratch structures between calls
+ * to 'solve', clearing them instead of allocating new ones, so a thread solving many
+ * puzzles should keep and reuse one engine. Engines are not thread-safe
+ * @author Alex Amado
+ */
+public interface SearchEngine {
+    /**
+     * Searches for a goal state/board starting from 'initialState'. Options an engine
+     * has no use for (such as the heuristic for BFS) are ignored
+     * @param initialState the initial state of the board, already validated
+     * @param options the heuristic, depth limit, path recording, tie-breaking policy,
+     *                and time limit of the search
+     * @return the stats, timing (and path, if recorded) of the search
+     * @throws java.util.concurrent.CancellationException if the time limit expired
+     */
+    SearchResult solve(String initialState, SearchOptions options);
+
+    /**
+     * Searches for a goal state/board starting from 'initialState' with the default options
+     * @param initialState the initial state of the board, already validated
+     * @return the stats, timing (and path, if recorded) of the search
+     */
+    default SearchResult solve(String initialState) {
+        return solve(initialState, SearchOptions.DEFAULT);
+    }
+
+    /**
+     * Creates the engine for a search method, as named on the command line
+     * @param searchMethod 'BFS', 'DFS', 'BiBFS', 'ParBFS', 'ExtBFS', 'IDDFS', 'GBFS',
+     *                     'AStar', 'IDAStar', 'ParIDAStar', 'HDAStar', or 'DLS'
+     * @return a new engine
+     */
+    static SearchEngine create(String searchMethod) {
+        switch (searchMethod) {
+            case "BFS":
+                return new BFS();
+            case "DFS":
+                return new DFS();
+            case "BiBFS":
+                return new BidirectionalBFS();
+            case "ParBFS":
+                return new ParallelBFS();
+            case "ExtBFS":
+                return new ExternalBFS();
+            case "IDDFS":
+                return new IDDFS();
+            case "GBFS":
+                return new Greedy();
+            case "AStar":
+                return new AStar();
+            case "IDAStar":
+                return new IDAStar();
+            case "ParIDAStar":
+                return new ParallelIDAStar();
+            case "HDAStar":
+                return new HDAStar();
+            case "DLS":
+                return new DLS();
+            default:
+                throw new IllegalArgumentException("Unknown search method: " + searchMethod);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+/**
+ * This class represents the options of a single call to 'SearchEngine.solve': the
+ * heuristic, the depth limit, whether the solution path is recorded, how ties are
+ * broken, the time limit, which goal states are accepted, and the transposition table
+ * of 'DFS', 'DLS' and 'IDDFS'. Options are immutable; each 'with' method returns a copy
+ * with one option changed, so a caller can keep and share a configured instance
+ * @author Alex Amado
+ */
+public final class SearchOptions {
+    /**
+     * Goal value accepting whichever goal state can be reached
+     */
+    public static final long ANY_GOAL = 0L;
+    /**
+     * Options every search starts from: heuristic two, no depth or time limit, and the
+     * path recording, tie-breaking, accepted goal and transposition table chosen through
+     * system properties
+     */
+    public static final SearchOptions DEFAULT = new SearchOptions("h2", Integer.MAX_VALUE, PathArena.ENABLED,
+            TieBreak.fromSystemProperty(), 0, goalFromSystemProperty(), Long.getLong("puzzle.ttMegabytes", 0),
+            ReplacementPolicy.fromSystemProperty());
+
+    /**
+     * Heuristic used by informed searches ('h1', 'h2', or 'h3')
+     */
+    private final String heuristic;
+    /**
+     * Maximum depth explored by depth-limited searches
+     */
+    private final int depthLimit;
+    /**
+     * Whether the solution path is recorded
+     */
+    private final boolean recordPath;
+    /**
+     * Policy used by A* and Greedy search to order nodes sharing a priority
+     */
+    private final TieBreak tieBreak;
+    /**
+     * Time limit of the search in milliseconds, 0 for no limit
+     */
+    private final long timeLimitMillis;
+    /**
+     * Packed goal state the search must reach, or 'ANY_GOAL'
+     */
+    private final long goal;
+    /**
+     * Memory cap in megabytes of 'DFS', 'DLS' and 'IDDFS' when they use a transposition
+     * table, 0 for no table
+     */
+    private final long transpositionMegabytes;
+    /**
+     * Scheme deciding which entry keeps a slot of the transposition table
+     */
+    private final ReplacementPolicy replacementPolicy;
+
+    /**
+     * Constructs a 'SearchOptions' object
+     * @param theHeuristic heuristic used by informed searches
+     * @param theDepthLimit maximum depth explored by depth-limited searches
+     * @param theRecordPath whether the solution path is recorded
+     * @param theTieBreak policy used to order nodes sharing a priority
+     * @param theTimeLimitMillis time limit in milliseconds, 0 for no limit
+     * @param theGoal packed goal state the search must reach, or 'ANY_GOAL'
+     * @param theTranspositionMegabytes memory cap of the transposition table, 0 for no table
+     * @param theReplacementPolicy scheme deciding which entry keeps a slot of the table
+     */
+    private SearchOptions(String theHeuristic, int theDepthLimit, boolean theRecordPath, TieBreak theTieBreak,
+                          long theTimeLimitMillis, long theGoal, long theTranspositionMegabytes,
+                          ReplacementPolicy theReplacementPolicy) {
+        heuristic = theHeuristic;
+        depthLimit = theDepthLimit;
+        recordPath = theRecordPath;
+        tieBreak = theTieBreak;
+        timeLimitMillis = theTimeLimitMillis;
+        goal = theGoal;
+        transpositionMegabytes = theTranspositionMegabytes;
+        replacementPolicy = theReplacementPolicy;
+    }
+
+    /**
+     * Reads the accepted goal state from '-Dpuzzle.goal' ('1' or '2'), any goal by default
+     * @return the packed goal state, or 'ANY_GOAL'
+     */
+    private static long goalFromSystemProperty() {
+        String property = System.getProperty("puzzle.goal");
+        if (property == null) {
+            return ANY_GOAL;
+        }
+        switch (property) {
+            case "1":
+                return PackedState.GOAL_ONE;
+            case "2":
+                return PackedState.GOAL_TWO;
+            default:
+                throw new IllegalArgumentException("Please specify either '1' or '2' for puzzle.goal.");
+        }
+    }
+
+    /**
+     * Returns the options given on the command line: the heuristic of 'GBFS', 'AStar',
+     * 'IDAStar', 'ParIDAStar', and 'HDAStar', or the depth limit of 'DLS'
+     * @param searchMethod the search method, as named on the command line
+     * @param option the option given after the search method, null if none
+     * @return the default options with 'option' applied
+     */
+    public static SearchOptions fromCommandLine(String searchMethod, String option) {
+        return DEFAULT.withCommandLineOption(searchMethod, option);
+    }
+
+    /**
+     * Returns a copy of these options with the option given on the command line applied:
+     * the heuristic of 'GBFS', 'AStar', 'IDAStar', 'ParIDAStar', and 'HDAStar', or the
+     * depth limit of 'DLS'
+     * @param searchMethod the search method, as named on the command line
+     * @param option the option given after the search method, null if none
+     * @return the new options
+     */
+    public SearchOptions withCommandLineOption(String searchMethod, String option) {
+        if (option == null) {
+            return this;
+        }
+        if (searchMethod.equals("DLS")) {
+            return withDepthLimit(Integer.parseInt(option));
+        }
+        return withHeuristic(option);
+    }
+
+    /**
+     * Returns a copy of these options using another heuristic
+     * @param theHeuristic 'h1', 'h2', or 'h3'
+     * @return the new options
+     */
+    public SearchOptions withHeuristic(String theHeuristic) {
+        if (!theHeuristic.equals("h1") && !theHeuristic.equals("h2") && !theHeuristic.equals("h3")) {
+            throw new IllegalArgumentException("Please specify either 'h1', 'h2', or 'h3' heuristic.");
+        }
+        return new SearchOptions(theHeuristic, depthLimit, recordPath, tieBreak, timeLimitMillis, goal,
+                transpositionMegabytes, replacementPolicy);
+    }
+
+    /**
+     * Returns a copy of these options using another depth limit
+     * @param theDepthLimit maximum depth explored by depth-limited searches
+     * @return the new options
+     */
+    public SearchOptions withDepthLimit(int theDepthLimit) {
+        if (theDepthLimit < 0) {
+            throw new IllegalArgumentException("Depth limit must not be negative: " + theDepthLimit);
+        }
+        return new SearchOptions(heuristic, theDepthLimit, recordPath, tieBreak, timeLimitMillis, goal,
+                transpositionMegabytes, replacementPolicy);
+    }
+
+    /**
+     * Returns a copy of these options which does or doesn't record the solution path
+     * @param theRecordPath whether the solution path is recorded
+     * @return the new options
+     */
+    public SearchOptions withRecordPath(boolean theRecordPath) {
+        return new SearchOptions(heuristic, depthLimit, theRecordPath, tieBreak, timeLimitMillis, goal,
+                transpositionMegabytes, replacementPolicy);
+    }
+
+    /**
+     * Returns a copy of these options using another tie-breaking policy
+     * @param theTieBreak policy used to order nodes sharing a priority
+     * @return the new options
+     */
+    public SearchOptions withTieBreak(TieBreak theTieBreak) {
+        return new SearchOptions(heuristic, depthLimit, recordPath, theTieBreak, timeLimitMillis, goal,
+                transpositionMegabytes, replacementPolicy);
+    }
+
+    /**
+     * Returns a copy of these options using another time limit
+     * @param theTimeLimitMillis time limit in milliseconds, 0 for no limit
+     * @return the new options
+     */
+    public SearchOptions withTimeLimitMillis(long theTimeLimitMillis) {
+        if (theTimeLimitMillis < 0) {
+            throw new IllegalArgumentException("Time limit must not be negative: " + theTimeLimitMillis);
+        }
+        return new SearchOptions(heuristic, depthLimit, recordPath, tieBreak, theTimeLimitMillis, goal,
+                transpositionMegabytes, replacementPolicy);
+    }
+
+    /**
+     * Returns a copy of these options accepting only one goal state
+     * @param theGoal 'PackedState.GOAL_ONE', 'PackedState.GOAL_TWO', or 'ANY_GOAL'
+     * @return the new options
+     */
+    public SearchOptions withGoal(long theGoal) {
+        if (theGoal != PackedState.GOAL_ONE && theGoal != PackedState.GOAL_TWO && theGoal != ANY_GOAL) {
+            throw new IllegalArgumentException("Goal must be one of the two goal states.");
+        }
+        return new SearchOptions(heuristic, depthLimit, recordPath, tieBreak, timeLimitMillis, theGoal,
+                transpositionMegabytes, replacementPolicy);
+    }
+
+    /**
+     * Returns a copy of these options using another transposition table for 'DFS',
+     * 'DLS' and 'IDDFS'. The memory cap is one budget for the whole search: the table
+     * takes half of it, and the stack and, when recorded, the solution path share the
+     * other half (a quarter each). A search outgrowing it stops with an out of memory
+     * result instead of taking more
+     * @param theTranspositionMegabytes memory cap in megabytes, 0 for no table
+     * @param theReplacementPolicy scheme deciding which entry keeps a slot of the table
+     * @return the new options
+     */
+    public SearchOptions withTranspositionTable(long theTranspositionMegabytes, ReplacementPolicy theReplacementPolicy) {
+        if (theTranspositionMegabytes < 0) {
+            throw new IllegalArgumentException("Transposition table size must not be negative: " + theTranspositionMegabytes);
+        }
+        return new SearchOptions(heuristic, depthLimit, recordPath, tieBreak, timeLimitMillis, goal,
+                theTranspositionMegabytes, theReplacementPolicy);
+    }
+
+    /**
+     * Returns the heuristic used by informed searches
+     * @return 'h1', 'h2', or 'h3'
+     */
+    public String getHeuristic() {
+        return heuristic;
+    }
+
+    /**
+     * Returns the maximum depth explored by depth-limited searches
+     * @return the depth limit
+     */
+    public int getDepthLimit() {
+        return depthLimit;
+    }
+
+    /**
+     * Returns whether the solution path is recorded
+     * @return true if the solution path is recorded
+     */
+    public boolean isRecordPath() {
+        return recordPath;
+    }
+
+    /**
+     * Returns the policy used to order nodes sharing a priority
+     * @return the tie-breaking policy
+     */
+    public TieBreak getTieBreak() {
+        return tieBreak;
+    }
+
+    /**
+     * Returns the time limit of the search
+     * @return the time limit in milliseconds, 0 for no limit
+     */
+    public long getTimeLimitMillis() {
+        return timeLimitMillis;
+    }
+
+    /**
+     * Returns the goal state the search must reach
+     * @return the packed goal state, or 'ANY_GOAL'
+     */
+    public long getGoal() {
+        return goal;
+    }
+
+    /**
+     * Returns the memory cap of 'DFS', 'DLS' and 'IDDFS' when they use a transposition table
+     * @return the memory cap in megabytes, 0 for no table
+     */
+    public long getTranspositionMegabytes() {
+        return transpositionMegabytes;
+    }
+
+    /**
+     * Returns the part of the memory cap taken by the transposition table, the rest
+     * bounding the stack and the recorded path
+     * @return half of the memory cap in bytes, 0 for no table
+     */
+    public long getTranspositionTableBytes() {
+        return (transpositionMegabytes << 20) / 2;
+    }
+
+    /**
+     * Returns the scheme deciding which entry keeps a slot of the transposition table
+     * @return the replacement scheme
+     */
+    public ReplacementPolicy getReplacementPolicy() {
+        return replacementPolicy;
+    }
+
+    /**
+     * Finds the goal state a search from 'initialState' should look for: the one
+     * reachable from it (see 'PackedState.reachableGoal'), provided it is accepted
+     * @param initialState the packed initial state
+     * @return the packed goal state, or 'PackedState.NO_STATE' if the accepted goal
+     * can't be reached and the search can answer at once
+     */
+    public long targetGoal(long initialState) {
+        long reachable = PackedState.reachableGoal(initialState);
+        return goal == ANY_GOAL || goal == reachable ? reachable : PackedState.NO_STATE;
+    }
+
+    /**
+     * Starts the clock of a search
+     * @return a deadline expiring once the time limit has passed from now
+     */
+    public Deadline startDeadline() {
+        return Deadline.afterMillis(timeLimitMillis);
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ * This class represents the outcome of a search: the statistical measurements every
+ * search method reports, the time it took and, when it was recorded, the solution path
+ * @author Alex Amado
+ */
+public final class SearchResult {
+    /**
+     * Represents the depth in the search tree where the solution is found (-1 if
+     * no solution was found)
+     */
+    private final int maxDepth;
+    /**
+     * Represents the number of nodes of the search tree which were created
+     */
+    private final long nodesCreated;
+    /**
+     * Represents the number of nodes whose successors were acquired
+     */
+    private final long nodesExpanded;
+    /**
+     * Represents the maximum size of the fringe at any point during the search
+     */
+    private final long maxFringeSize;
+    /**
+     * Moves of the blank space leading to the goal state as letters (R, D, L and U),
+     * null if the path wasn't recorded or no solution was found
+     */
+    private final String path;
+    /**
+     * Represents the time the search took in nanoseconds
+     */
+    private final long wallNanos;
+    /**
+     * Represents whether the search was stopped by its time limit
+     */
+    private final boolean timedOut;
+    /**
+     * Represents whether the search was stopped by its memory cap
+     */
+    private final boolean outOfMemory;
+
+    /**
+     * Constructs a 'SearchResult' object
+     * @param theMaxDepth depth of the solution (-1 if no solution was found)
+     * @param theNodesCreated number of nodes created
+     * @param theNodesExpanded number of nodes expanded
+     * @param theMaxFringeSize maximum size of the fringe
+     * @param thePath the solution path, or null
+     * @param theWallNanos time the search took in nanoseconds
+     */
+    public SearchResult(int theMaxDepth, long theNodesCreated, long theNodesExpanded, long theMaxFringeSize,
+                        String thePath, long theWallNanos) {
+        this(theMaxDepth, theNodesCreated, theNodesExpanded, theMaxFringeSize, thePath, theWallNanos, false, false);
+    }
+
+    /**
+     * Constructs a 'SearchResult' object
+     * @param theMaxDepth depth of the solution (-1 if no solution was found)
+     * @param theNodesCreated number of nodes created
+     * @param theNodesExpanded number of nodes expanded
+     * @param theMaxFringeSize maximum size of the fringe
+     * @param thePath the solution path, or null
+     * @param theWallNanos time the search took in nanoseconds
+     * @param theTimedOut whether the search was stopped by its time limit
+     * @param theOutOfMemory whether the search was stopped by its memory cap
+     */
+    private SearchResult(int theMaxDepth, long theNodesCreated, long theNodesExpanded, long theMaxFringeSize,
+                         String thePath, long theWallNanos, boolean theTimedOut, boolean theOutOfMemory) {
+        maxDepth = theMaxDepth;
+        nodesCreated = theNodesCreated;
+        nodesExpanded = theNodesExpanded;
+        maxFringeSize = theMaxFringeSize;
+        path = thePath;
+        wallNanos = theWallNanos;
+        timedOut = theTimedOut;
+        outOfMemory = theOutOfMemory;
+    }
+
+    /**
+     * Returns the result of a search which found no solution, reported as '-1, 0, 0, 0'
+     * @param theWallNanos time the search took in nanoseconds
+     * @return a result without a solution
+     */
+    public static SearchResult notFound(long theWallNanos) {
+        return new SearchResult(-1, 0, 0, 0, null, theWallNanos, false, false);
+    }
+
+    /**
+     * Returns the result of a search which was stopped by its time limit
+     * @param theWallNanos time the search ran for in nanoseconds
+     * @return a result without a solution
+     */
+    public static SearchResult timedOut(long theWallNanos) {
+        return new SearchResult(-1, 0, 0, 0, null, theWallNanos, true, false);
+    }
+
+    /**
+     * Returns the result of a search which was stopped by its memory cap, keeping the
+     * stats gathered until then
+     * @param theNodesCreated number of nodes created
+     * @param theNodesExpanded number of nodes expanded
+     * @param theMaxFringeSize maximum size of the fringe
+     * @param theWallNanos time the search ran for in nanoseconds
+     * @return a result without a solution
+     */
+    public static SearchResult outOfMemory(long theNodesCreated, long theNodesExpanded, long theMaxFringeSize,
+                                           long theWallNanos) {
+        return new SearchResult(-1, theNodesCreated, theNodesExpanded, theMaxFringeSize, null, theWallNanos, false,
+                true);
+    }
+
+    /**
+     * Checks whether a solution was found
+     * @return true if a solution was found
+     */
+    public boolean isSolved() {
+        return maxDepth >= 0;
+    }
+
+    /**
+     * Checks whether the search was stopped by its time limit
+     * @return true if the search timed out
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Checks whether the search was stopped by its memory cap
+     * @return true if the search ran out of memory
+     */
+    public boolean isOutOfMemory() {
+        return outOfMemory;
+    }
+
+    /**
+     * Returns the depth of the solution
+     * @return the depth of the solution, -1 if none was found
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns the number of nodes created
+     * @return the number of nodes created
+     */
+    public long getNodesCreated() {
+        return nodesCreated;
+    }
+
+    /**
+     * Returns the number of nodes expanded
+     * @return the number of nodes expanded
+     */
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    /**
+     * Returns the maximum size of the fringe
+     * @return the maximum size of the fringe
+     */
+    public long getMaxFringeSize() {
+        return maxFringeSize;
+    }
+
+    /**
+     * Returns the solution path
+     * @return the moves of the blank space (R, D, L and U), or null if the path wasn't
+     * recorded or no solution was found
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the time the search took
+     * @return the wall-clock time of the search in nanoseconds
+     */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * Returns the stats in the format every search method reports them in:
+     * 'maxDepth, nodesCreated, nodesExpanded, maxFringeSize'
+     * @return a string representing the stats
+     */
+    @Override
+    public String toString() {
+        return maxDepth + ", " + nodesCreated + ", " + nodesExpanded + ", " + maxFringeSize;
+    }
+}
@@ -0,0 +1,302 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class represents the fringe of 'BFS': a FIFO queue keeping the packed state and
+ * depth of each node in a ring of parallel primitive arrays, so no node object is
+ * allocated per entry like 'LinkedList' does. The ring doubles when it is full, up to
+ * the memory cap set with '-Dpuzzle.queueMegabytes' (no cap by default). Past the cap,
+ * new nodes are appended to a spill file in '-Dpuzzle.spillDir' (the temporary directory
+ * by default) and read back, oldest first, once the ring has been emptied, so the
+ * order nodes leave the queue in is the same either way
+ * @author Alex Amado
+ */
+public class StateQueue {
+    /**
+     * Number of bytes taken by each node: a packed state and its depth
+     */
+    public static final int BYTES_PER_ENTRY = Long.BYTES + Integer.BYTES;
+    /**
+     * Largest capacity of the ring (length of a Java array must stay below 2^31)
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+    /**
+     * Number of nodes written to or read from the spill file at once
+     */
+    private static final int SPILL_BLOCK = 1 << 13;
+
+    /**
+     * Packed state of each node of the ring
+     */
+    private long[] states;
+    /**
+     * Depth of the node found at the same index of 'states'
+     */
+    private int[] depths;
+    /**
+     * Bit mask used to wrap an index around the ring ('states.length - 1')
+     */
+    private int mask;
+    /**
+     * Index of the oldest node of the ring
+     */
+    private int head;
+    /**
+     * Number of nodes in the ring
+     */
+    private int ringSize;
+    /**
+     * Capacity the ring never grows past, a power of two
+     */
+    private final int maxCapacity;
+    /**
+     * File holding the nodes which didn't fit in the ring (null until the first spill)
+     */
+    private FileChannel spillChannel;
+    /**
+     * Nodes waiting to be written to, or just read from, the spill file
+     */
+    private ByteBuffer spillBuffer;
+    /**
+     * Number of nodes spilled and not read back yet, including those still in 'spillBuffer'
+     */
+    private long spilled;
+    /**
+     * Offset in the spill file of the oldest node not read back yet
+     */
+    private long readPosition;
+    /**
+     * Offset in the spill file the next block is written at
+     */
+    private long writePosition;
+
+    /**
+     * Constructs an empty 'StateQueue' with the memory cap set through the
+     * 'puzzle.queueMegabytes' system property
+     */
+    public StateQueue() {
+        this(Long.getLong("puzzle.queueMegabytes", 0) << 20);
+    }
+
+    /**
+     * Constructs an empty 'StateQueue'
+     * @param maxBytes the memory cap of the ring, or 0 for no cap
+     */
+    public StateQueue(long maxBytes) {
+        if (maxBytes < 0 || (maxBytes > 0 && maxBytes < BYTES_PER_ENTRY)) {
+            throw new IllegalArgumentException("Please specify a queue of at least " + BYTES_PER_ENTRY + " bytes.");
+        }
+        maxCapacity = maxBytes == 0 ? MAX_CAPACITY
+                : Integer.highestOneBit((int) Math.min(maxBytes / BYTES_PER_ENTRY, MAX_CAPACITY));
+        allocate(Math.min(1024, maxCapacity));
+    }
+
+    /**
+     * Adds a node at the tail of the queue
+     * @param state packed state of the node
+     * @param depth depth of the node
+     */
+    public void add(long state, int depth) {
+        // Once a node was spilled every newer node is too, so none overtakes it
+        if (spilled == 0 && ringSize == states.length && states.length < maxCapacity) {
+            grow();
+        }
+        if (spilled == 0 && ringSize < states.length) {
+            int tail = (head + ringSize) & mask;
+            states[tail] = state;
+            depths[tail] = depth;
+            ringSize++;
+        } else {
+            spill(state, depth);
+        }
+    }
+
+    /**
+     * Removes the node at the head of the queue, which must not be empty. Its fields
+     * can still be read through its index until the next call to 'add'
+     * @return index of the removed node
+     */
+    public int remove() {
+        if (ringSize == 0) {
+            refill();
+        }
+        int removed = head;
+        head = (head + 1) & mask;
+        ringSize--;
+        return removed;
+    }
+
+    /**
+     * Returns the packed state of a node
+     * @param i index of the node
+     * @return the packed state
+     */
+    public long getState(int i) {
+        return states[i];
+    }
+
+    /**
+     * Returns the depth of a node
+     * @param i index of the node
+     * @return the depth
+     */
+    public int getDepth(int i) {
+        return depths[i];
+    }
+
+    /**
+     * Returns the number of nodes in the queue, in memory or spilled
+     * @return the number of nodes in the queue
+     */
+    public long size() {
+        return ringSize + spilled;
+    }
+
+    /**
+     * Checks whether the queue holds no node
+     * @return true if the queue is empty
+     */
+    public boolean isEmpty() {
+        return ringSize == 0 && spilled == 0;
+    }
+
+    /**
+     * Removes every node while keeping the ring allocated so it can be reused, and
+     * empties the spill file
+     */
+    public void clear() {
+        head = 0;
+        ringSize = 0;
+        if (spillChannel != null) {
+            spillBuffer.clear();
+            resetSpillFile();
+        }
+        spilled = 0;
+    }
+
+    /**
+     * Allocates an empty ring
+     * @param capacity number of nodes, a power of two
+     */
+    private void allocate(int capacity) {
+        states = new long[capacity];
+        depths = new int[capacity];
+        mask = capacity - 1;
+        head = 0;
+    }
+
+    /**
+     * Doubles the ring, unwrapping its nodes to the start of the new arrays
+     */
+    private void grow() {
+        long[] oldStates = states;
+        int[] oldDepths = depths;
+        int oldHead = head;
+        allocate(oldStates.length * 2);
+        int firstPart = oldStates.length - oldHead;
+        System.arraycopy(oldStates, oldHead, states, 0, firstPart);
+        System.arraycopy(oldStates, 0, states, firstPart, oldHead);
+        System.arraycopy(oldDepths, oldHead, depths, 0, firstPart);
+        System.arraycopy(oldDepths, 0, depths, firstPart, oldHead);
+    }
+
+    /**
+     * Appends a node to the spill file, through 'spillBuffer'
+     * @param state packed state of the node
+     * @param depth depth of the node
+     */
+    private void spill(long state, int depth) {
+        if (spillChannel == null) {
+            openSpillFile();
+        }
+        spillBuffer.putLong(state).putInt(depth);
+        spilled++;
+        if (!spillBuffer.hasRemaining()) {
+            flushSpillBuffer();
+        }
+    }
+
+    /**
+     * Refills the empty ring with the oldest spilled nodes, as many as it holds
+     */
+    private void refill() {
+        if (spilled == 0) {
+            throw new IllegalStateException("StateQueue is empty.");
+        }
+        flushSpillBuffer();
+        head = 0;
+        try {
+            while (ringSize < states.length && readPosition < writePosition) {
+                spillBuffer.clear();
+                spillBuffer.limit((int) Math.min(spillBuffer.capacity(),
+                        Math.min(writePosition - readPosition, (long) (states.length - ringSize) * BYTES_PER_ENTRY)));
+                while (spillBuffer.hasRemaining()) {
+                    readPosition += spillChannel.read(spillBuffer, readPosition);
+                }
+                spillBuffer.flip();
+                while (spillBuffer.hasRemaining()) {
+                    states[ringSize] = spillBuffer.getLong();
+                    depths[ringSize] = spillBuffer.getInt();
+                    ringSize++;
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read the spill file of the queue", e);
+        }
+        spillBuffer.clear();
+        spilled -= ringSize;
+        // Every spilled node was read back, so the file can start over
+        if (spilled == 0) {
+            resetSpillFile();
+        }
+    }
+
+    /**
+     * Creates the spill file, deleted once the queue's JVM exits
+     */
+    private void openSpillFile() {
+        try {
+            Path directory = Paths.get(System.getProperty("puzzle.spillDir", System.getProperty("java.io.tmpdir")));
+            Path file = Files.createTempFile(directory, "puzzle-queue-", ".bin");
+            file.toFile().deleteOnExit();
+            spillChannel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to create the spill file of the queue", e);
+        }
+        spillBuffer = ByteBuffer.allocateDirect(SPILL_BLOCK * BYTES_PER_ENTRY);
+    }
+
+    /**
+     * Writes the nodes waiting in 'spillBuffer' at the end of the spill file
+     */
+    private void flushSpillBuffer() {
+        spillBuffer.flip();
+        try {
+            while (spillBuffer.hasRemaining()) {
+                writePosition += spillChannel.write(spillBuffer, writePosition);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to write the spill file of the queue", e);
+        }
+        spillBuffer.clear();
+    }
+
+    /**
+     * Empties the spill file so its disk space is given back
+     */
+    private void resetSpillFile() {
+        try {
+            spillChannel.truncate(0);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to truncate the spill file of the queue", e);
+        }
+        readPosition = 0;
+        writePosition = 0;
+    }
+}
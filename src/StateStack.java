@@ -0,0 +1,182 @@
+import java.util.Arrays;
+
+/**
+ * This class represents the fringe of 'DFS' and 'DLS': a growable stack keeping the
+ * packed state, depth and last move of each node in parallel primitive arrays, so
+ * pushing and popping neither locks like 'java.util.Stack' nor allocates a 'Board'.
+ * The stack can be given a memory cap, past which pushing fails instead of growing
+ * @author Alex Amado
+ */
+public class StateStack {
+    /**
+     * Move stored for the root, which no move produced
+     */
+    public static final int NO_MOVE = -1;
+    /**
+     * Number of bytes taken by each node: a packed state, its depth and its last move
+     */
+    public static final int BYTES_PER_ENTRY = Long.BYTES + Integer.BYTES + Byte.BYTES;
+    /**
+     * Number of nodes the stack holds before it first grows
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+    /**
+     * Largest number of nodes supported (length of a Java array must stay below 2^31)
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * Packed state of each node, the top of the stack last
+     */
+    private long[] states;
+    /**
+     * Depth of the node found at the same index of 'states'
+     */
+    private int[] depths;
+    /**
+     * Move which produced the node found at the same index of 'states'
+     */
+    private byte[] moves;
+    /**
+     * Number of nodes on the stack
+     */
+    private int size;
+    /**
+     * Largest number of nodes the stack may hold, see 'setMaxBytes'
+     */
+    private int maxSize;
+
+    /**
+     * Constructs an empty 'StateStack' with no memory cap
+     */
+    public StateStack() {
+        states = new long[INITIAL_CAPACITY];
+        depths = new int[INITIAL_CAPACITY];
+        moves = new byte[INITIAL_CAPACITY];
+        size = 0;
+        maxSize = MAX_CAPACITY;
+    }
+
+    /**
+     * Caps the memory taken by the stack, past which 'push' throws instead of growing.
+     * Arrays already larger than the cap are shrunk, so it should be set while the
+     * stack is empty
+     * @param maxBytes the memory cap, 0 for no cap
+     * @param extraBytesPerNode bytes the caller keeps per node alongside the stack (such
+     *                          as an arena index), counted against the cap
+     */
+    public void setMaxBytes(long maxBytes, int extraBytesPerNode) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Memory cap must not be negative: " + maxBytes);
+        }
+        maxSize = maxBytes == 0 ? MAX_CAPACITY
+                : (int) Math.max(1, Math.min(maxBytes / (BYTES_PER_ENTRY + extraBytesPerNode), MAX_CAPACITY));
+        if (states.length > maxSize) {
+            resize(maxSize);
+        }
+    }
+
+    /**
+     * Pushes a node on top of the stack
+     * @param state packed state of the node
+     * @param depth depth of the node
+     * @param move move which produced the node ('NO_MOVE' for the root)
+     */
+    public void push(long state, int depth, int move) {
+        if (size == states.length) {
+            if (size >= maxSize) {
+                throw new IllegalStateException("StateStack is full: " + maxSize + " nodes take its whole memory cap.");
+            }
+            resize((int) Math.min(2L * size, maxSize));
+        }
+        states[size] = state;
+        depths[size] = depth;
+        moves[size] = (byte) move;
+        size++;
+    }
+
+    /**
+     * Removes the node on top of the stack. Its fields can still be read through its
+     * index until the next push
+     * @return index of the removed node
+     */
+    public int pop() {
+        return --size;
+    }
+
+    /**
+     * Returns the packed state of a node
+     * @param i index of the node
+     * @return the packed state
+     */
+    public long getState(int i) {
+        return states[i];
+    }
+
+    /**
+     * Returns the depth of a node
+     * @param i index of the node
+     * @return the depth
+     */
+    public int getDepth(int i) {
+        return depths[i];
+    }
+
+    /**
+     * Returns the move which produced a node
+     * @param i index of the node
+     * @return 'Board.RIGHT', 'Board.DOWN', 'Board.LEFT', 'Board.UP' or 'NO_MOVE'
+     */
+    public int getMove(int i) {
+        return moves[i];
+    }
+
+    /**
+     * Returns the number of nodes on the stack
+     * @return the number of nodes on the stack
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the stack reached its memory cap, so 'push' would throw
+     * @return true if no node can be pushed
+     */
+    public boolean isFull() {
+        return size >= maxSize;
+    }
+
+    /**
+     * Returns the number of nodes the stack holds before it grows again
+     * @return the length of the arrays
+     */
+    public int capacity() {
+        return states.length;
+    }
+
+    /**
+     * Checks whether the stack holds no node
+     * @return true if the stack is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every node while keeping the arrays allocated so they can be reused
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Moves the nodes into arrays of another length
+     * @param capacity the new length, no smaller than 'size'
+     */
+    private void resize(int capacity) {
+        states = Arrays.copyOf(states, capacity);
+        depths = Arrays.copyOf(depths, capacity);
+        moves = Arrays.copyOf(moves, capacity);
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * This class represents a caller-owned, reusable buffer which 'Board.generateSuccessors'
+ * writes the successor states/boards of a node into. Every successor is stored in
+ * parallel primitive arrays, so expanding a node doesn't allocate anything; a search
+ * only creates a 'Board' (through 'toBoard') for the successors it keeps
+ * @author Alex Amado
+ */
+public class SuccessorBuffer {
+    /**
+     * Maximum number of successors a board can have
+     */
+    public static final int MAX_SUCCESSORS = 4;
+
+    /**
+     * Packed state of each successor
+     */
+    private final long[] states = new long[MAX_SUCCESSORS];
+    /**
+     * Cell index of the blank space in each successor
+     */
+    private final byte[] blankIndices = new byte[MAX_SUCCESSORS];
+    /**
+     * Move ('Board.RIGHT', 'Board.DOWN', 'Board.LEFT' or 'Board.UP') which produced
+     * each successor
+     */
+    private final byte[] moves = new byte[MAX_SUCCESSORS];
+    /**
+     * Heuristic one on goal state 1 of each successor
+     */
+    private final byte[] heuristicsOneGoalOne = new byte[MAX_SUCCESSORS];
+    /**
+     * Heuristic one on goal state 2 of each successor
+     */
+    private final byte[] heuristicsOneGoalTwo = new byte[MAX_SUCCESSORS];
+    /**
+     * Heuristic two on goal state 1 of each successor
+     */
+    private final byte[] heuristicsTwoGoalOne = new byte[MAX_SUCCESSORS];
+    /**
+     * Heuristic two on goal state 2 of each successor
+     */
+    private final byte[] heuristicsTwoGoalTwo = new byte[MAX_SUCCESSORS];
+    /**
+     * Number of successors currently held in the buffer
+     */
+    private int size;
+
+    /**
+     * Empties the buffer so it can be filled again
+     */
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Appends a successor to the buffer (used by 'Board.generateSuccessors')
+     * @param theState packed state of the successor
+     * @param theBlankIndex cell index of the blank space in the successor
+     * @param theMove move which produced the successor
+     * @param h1g1 heuristic one on goal state 1
+     * @param h1g2 heuristic one on goal state 2
+     * @param h2g1 heuristic two on goal state 1
+     * @param h2g2 heuristic two on goal state 2
+     */
+    void add(long theState, int theBlankIndex, int theMove, int h1g1, int h1g2, int h2g1, int h2g2) {
+        states[size] = theState;
+        blankIndices[size] = (byte) theBlankIndex;
+        moves[size] = (byte) theMove;
+        heuristicsOneGoalOne[size] = (byte) h1g1;
+        heuristicsOneGoalTwo[size] = (byte) h1g2;
+        heuristicsTwoGoalOne[size] = (byte) h2g1;
+        heuristicsTwoGoalTwo[size] = (byte) h2g2;
+        size++;
+    }
+
+    /**
+     * Returns the number of successors in the buffer
+     * @return the number of successors in the buffer
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the packed state of successor 'i'
+     * @param i index of the successor, in expansion order
+     * @return packed state of the successor
+     */
+    public long getState(int i) {
+        return states[i];
+    }
+
+    /**
+     * Returns the cell index of the blank space in successor 'i'
+     * @param i index of the successor, in expansion order
+     * @return cell index of the blank space
+     */
+    public int getBlankIndex(int i) {
+        return blankIndices[i];
+    }
+
+    /**
+     * Returns the move which produced successor 'i'
+     * @param i index of the successor, in expansion order
+     * @return 'Board.RIGHT', 'Board.DOWN', 'Board.LEFT' or 'Board.UP'
+     */
+    public int getMove(int i) {
+        return moves[i];
+    }
+
+    /**
+     * Returns heuristic one on goal state 1 of successor 'i'
+     * @param i index of the successor, in expansion order
+     * @return heuristic one on goal state 1
+     */
+    public int getHeuristicOneGoalOne(int i) {
+        return heuristicsOneGoalOne[i];
+    }
+
+    /**
+     * Returns heuristic one on goal state 2 of successor 'i'
+     * @param i index of the successor, in expansion order
+     * @return heuristic one on goal state 2
+     */
+    public int getHeuristicOneGoalTwo(int i) {
+        return heuristicsOneGoalTwo[i];
+    }
+
+    /**
+     * Returns heuristic two on goal state 1 of successor 'i'
+     * @param i index of the successor, in expansion order
+     * @return heuristic two on goal state 1
+     */
+    public int getHeuristicTwoGoalOne(int i) {
+        return heuristicsTwoGoalOne[i];
+    }
+
+    /**
+     * Returns heuristic two on goal state 2 of successor 'i'
+     * @param i index of the successor, in expansion order
+     * @return heuristic two on goal state 2
+     */
+    public int getHeuristicTwoGoalTwo(int i) {
+        return heuristicsTwoGoalTwo[i];
+    }
+
+    /**
+     * Creates a 'Board' object for successor 'i'
+     * @param i index of the successor, in expansion order
+     * @param theDepth depth of the successor in the search tree
+     * @return a new 'Board' object holding the successor
+     */
+    public Board toBoard(int i, int theDepth) {
+        return new Board(states[i], blankIndices[i], theDepth, heuristicsOneGoalOne[i],
+                heuristicsOneGoalTwo[i], heuristicsTwoGoalOne[i], heuristicsTwoGoalTwo[i]);
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * This enum represents the policies A* and Greedy search can use to order nodes
+ * sharing the same priority in their fringe. The policy is chosen with
+ * '-Dpuzzle.tieBreak=lifo|fifo|high-g|low-g' (LIFO by default)
+ * @author Alex Amado
+ */
+public enum TieBreak {
+    /**
+     * The most recently created node is expanded first
+     */
+    LIFO,
+    /**
+     * The least recently created node is expanded first
+     */
+    FIFO,
+    /**
+     * The node with the highest accumulative cost (depth) is expanded first, then LIFO
+     */
+    HIGH_G,
+    /**
+     * The node with the lowest accumulative cost (depth) is expanded first, then LIFO
+     */
+    LOW_G;
+
+    /**
+     * Returns the policy chosen through the 'puzzle.tieBreak' system property
+     * @return the chosen policy, 'LIFO' if none was chosen
+     */
+    public static TieBreak fromSystemProperty() {
+        return parse(System.getProperty("puzzle.tieBreak", "lifo"));
+    }
+
+    /**
+     * Parses a policy name such as 'lifo' or 'high-g' (case insensitive)
+     * @param name the name of the policy
+     * @return the matching policy
+     */
+    public static TieBreak parse(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Please specify either 'lifo', 'fifo', 'high-g', or 'low-g' tie-breaking.");
+        }
+    }
+}
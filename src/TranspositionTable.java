@@ -0,0 +1,282 @@
+import java.util.Arrays;
+
+/**
+ * This class represents a transposition table: a fixed number of slots mapping packed
+ * states/boards to the smallest depth they were reached at. Unlike 'LongHashSet' and
+ * 'LongIntHashMap' it never grows: the number of slots is the largest power of two
+ * whose entries fit in the memory cap, and a state landing on a taken slot replaces
+ * the entry there or is dropped as its 'ReplacementPolicy' decides. A state which lost
+ * its slot is simply searched again, so the memory used by 'DFS' and 'DLS' stays the
+ * same however long they run. The table is enabled with
+ * 'SearchOptions.withTranspositionTable' ('--tt {megabytes}:{policy}' on the command
+ * line, or '-Dpuzzle.ttMegabytes' and '-Dpuzzle.ttPolicy'). The table takes half of
+ * that cap, the other half bounds the stack and the recorded path of the search.
+ * Every engine allocates its own table, so a batch run takes the cap once per thread
+ * @author Alex Amado
+ */
+public class TranspositionTable {
+    /**
+     * Value returned by 'get' for a state which is not in the table, the same as
+     * 'LongIntHashMap.MISSING'
+     */
+    public static final int MISSING = LongIntHashMap.MISSING;
+    /**
+     * Number of bytes taken by each slot: a packed state and its depth
+     */
+    public static final int BYTES_PER_ENTRY = Long.BYTES + Integer.BYTES;
+    /**
+     * Largest number of slots supported (length of a Java array must stay below 2^31)
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+    /**
+     * Key value used to mark an empty slot. A packed state can never be 0 since
+     * each tile value appears exactly once
+     */
+    private static final long EMPTY = 0L;
+
+    /**
+     * Memory cap the table was sized for
+     */
+    private final long maxBytes;
+    /**
+     * Scheme deciding which entry keeps a slot
+     */
+    private final ReplacementPolicy policy;
+    /**
+     * Table of keys, a slot holding 'EMPTY' is free
+     */
+    private final long[] keys;
+    /**
+     * Depth of the key found in the same slot of 'keys'
+     */
+    private final int[] depths;
+    /**
+     * Bit mask used to map a hash onto a slot ('keys.length - 1')
+     */
+    private final int mask;
+    /**
+     * Number of lookups which found their state
+     */
+    private long hits;
+    /**
+     * Number of lookups which didn't find their state
+     */
+    private long misses;
+    /**
+     * Number of entries replaced by a different state
+     */
+    private long overwrites;
+
+    /**
+     * Constructs an empty 'TranspositionTable' allocating every slot at once
+     * @param theMaxBytes the memory cap of the slots
+     * @param thePolicy scheme deciding which entry keeps a slot
+     */
+    public TranspositionTable(long theMaxBytes, ReplacementPolicy thePolicy) {
+        if (theMaxBytes < 2L * BYTES_PER_ENTRY) {
+            throw new IllegalArgumentException("Please specify a transposition table of at least " + 2 * BYTES_PER_ENTRY + " bytes.");
+        }
+        long slots = Math.min(theMaxBytes / BYTES_PER_ENTRY, MAX_CAPACITY);
+        int capacity = Integer.highestOneBit((int) slots);
+        maxBytes = theMaxBytes;
+        policy = thePolicy;
+        keys = new long[capacity];
+        depths = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Returns the table a search with 'options' should use, reusing the table of the
+     * previous search when its cap and scheme are the same
+     * @param table the table of the previous search, null if it used none
+     * @param options the options of the search
+     * @return 'table', a new table, or null if 'options' asks for no table
+     */
+    public static TranspositionTable forOptions(TranspositionTable table, SearchOptions options) {
+        long maxBytes = options.getTranspositionTableBytes();
+        if (maxBytes == 0) {
+            return null;
+        }
+        if (table != null && table.maxBytes == maxBytes && table.policy == options.getReplacementPolicy()) {
+            return table;
+        }
+        return new TranspositionTable(maxBytes, options.getReplacementPolicy());
+    }
+
+    /**
+     * Returns the smallest depth 'state' was stored at
+     * @param state the packed state to look for
+     * @return the depth of the state, or 'MISSING' if it isn't in the table (it was
+     * never stored, or lost its slot)
+     */
+    public int get(long state) {
+        int slot = slotOf(state);
+        if (keys[slot] == state) {
+            hits++;
+            return depths[slot];
+        }
+        if (policy == ReplacementPolicy.TWO_TIER && keys[slot + 1] == state) {
+            hits++;
+            return depths[slot + 1];
+        }
+        misses++;
+        return MISSING;
+    }
+
+    /**
+     * Stores 'state' reached at 'depth', replacing its previous depth if it is already
+     * in the table
+     * @param state the packed state to store
+     * @param depth the depth the state was reached at
+     */
+    public void put(long state, int depth) {
+        if (state == EMPTY) {
+            return;
+        }
+        int slot = slotOf(state);
+        switch (policy) {
+            case ALWAYS:
+                write(slot, state, depth);
+                break;
+            case DEPTH_PREFERRED:
+                if (keys[slot] == EMPTY || keys[slot] == state || depth <= depths[slot]) {
+                    write(slot, state, depth);
+                }
+                break;
+            default:
+                if (keys[slot] == state) {
+                    depths[slot] = depth;
+                } else if (keys[slot + 1] == state) {
+                    depths[slot + 1] = depth;
+                    // A state reached shallower than the depth-preferred entry moves up
+                    if (depth <= depths[slot]) {
+                        swap(slot);
+                    }
+                } else if (keys[slot] == EMPTY) {
+                    write(slot, state, depth);
+                } else if (depth <= depths[slot]) {
+                    // The depth-preferred entry is demoted to the always-replaced slot
+                    write(slot + 1, keys[slot], depths[slot]);
+                    keys[slot] = state;
+                    depths[slot] = depth;
+                } else {
+                    write(slot + 1, state, depth);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Removes every state from the table while keeping its slots allocated so it can
+     * be reused. The counters are kept, see 'resetCounters'
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Sets the hit, miss and overwrite counters back to 0
+     */
+    public void resetCounters() {
+        hits = 0;
+        misses = 0;
+        overwrites = 0;
+    }
+
+    /**
+     * Returns the number of slots of the table
+     * @return the number of slots, a power of two
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the memory cap the table was sized for
+     * @return the memory cap in bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns the scheme deciding which entry keeps a slot
+     * @return the replacement scheme
+     */
+    public ReplacementPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Returns the number of lookups which found their state
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups which didn't find their state
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of entries replaced by a different state
+     * @return the number of overwrites
+     */
+    public long getOverwrites() {
+        return overwrites;
+    }
+
+    /**
+     * Returns the size, scheme and counters of the table
+     * @return e.g. 'Transposition table: 1048576 slots (12288 KB, two-tier), 10 hits,
+     *         5 misses, 2 overwrites'
+     */
+    @Override
+    public String toString() {
+        return "Transposition table: " + keys.length + " slots (" + ((long) keys.length * BYTES_PER_ENTRY >> 10)
+                + " KB, " + policy.name().toLowerCase().replace('_', '-') + "), " + hits + " hits, " + misses
+                + " misses, " + overwrites + " overwrites";
+    }
+
+    /**
+     * Finds the slot of 'state', the first slot of its bucket for 'TWO_TIER'
+     * @param state the packed state
+     * @return index of the slot
+     */
+    private int slotOf(long state) {
+        int slot = (int) LongHashSet.mix(state) & mask;
+        return policy == ReplacementPolicy.TWO_TIER ? slot & ~1 : slot;
+    }
+
+    /**
+     * Writes an entry into a slot, counting the state it replaces
+     * @param slot index of the slot
+     * @param state the packed state to write
+     * @param depth the depth of the state
+     */
+    private void write(int slot, long state, int depth) {
+        if (keys[slot] != EMPTY && keys[slot] != state) {
+            overwrites++;
+        }
+        keys[slot] = state;
+        depths[slot] = depth;
+    }
+
+    /**
+     * Swaps the two entries of a 'TWO_TIER' bucket
+     * @param slot index of the first slot of the bucket
+     */
+    private void swap(int slot) {
+        long key = keys[slot];
+        int depth = depths[slot];
+        keys[slot] = keys[slot + 1];
+        depths[slot] = depths[slot + 1];
+        keys[slot + 1] = key;
+        depths[slot + 1] = depth;
+    }
+}
@@ -0,0 +1,139 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests 'ConcurrentLongByteMap': its single-threaded contract, keys added by
+ * many threads at once, growing and clearing
+ * @author Alex Amado
+ */
+class ConcurrentLongByteMapTest {
+    /**
+     * Number of threads adding at once
+     */
+    private static final int THREADS = 4;
+    /**
+     * Number of distinct keys every thread tries to add
+     */
+    private static final int KEYS = 100_000;
+
+    /**
+     * A key is added once, keeps its first value and is then found
+     */
+    @Test
+    void putsOnce() {
+        ConcurrentLongByteMap map = new ConcurrentLongByteMap();
+        assertEquals(ConcurrentLongByteMap.MISSING, map.get(7));
+        assertFalse(map.contains(7));
+        assertTrue(map.putIfAbsent(7, (byte) 3));
+        assertFalse(map.putIfAbsent(7, (byte) 1));
+        assertTrue(map.contains(7));
+        assertEquals(3, map.get(7));
+    }
+
+    /**
+     * Growing the table keeps every key and its value
+     */
+    @Test
+    void growKeepsEntries() {
+        ConcurrentLongByteMap map = new ConcurrentLongByteMap();
+        for (int round = 0; round < 4; round++) {
+            map.ensureCapacity(round * KEYS, KEYS);
+            for (long key = round * KEYS + 1; key <= (round + 1) * KEYS; key++) {
+                assertTrue(map.putIfAbsent(key, (byte) (key % 4)));
+            }
+        }
+        map.ensureCapacity(4 * KEYS, 0);
+        assertEquals(4 * KEYS, map.size());
+        for (long key = 1; key <= 4 * KEYS; key++) {
+            assertEquals(key % 4, map.get(key));
+        }
+    }
+
+    /**
+     * When several threads add the same keys at once, exactly one of them adds each key
+     * and the value it wrote is the one kept
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void eachKeyAddedOnceAcrossThreads() throws InterruptedException {
+        ConcurrentLongByteMap map = new ConcurrentLongByteMap();
+        map.ensureCapacity(0, KEYS);
+        byte[][] written = new byte[THREADS][KEYS + 1];
+        AtomicInteger added = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            byte value = (byte) t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                int count = 0;
+                for (int key = 1; key <= KEYS; key++) {
+                    if (map.putIfAbsent(key, value)) {
+                        written[value][key] = 1;
+                        count++;
+                    }
+                }
+                added.addAndGet(count);
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(KEYS, added.get());
+        map.ensureCapacity(added.get(), 0);
+        for (int key = 1; key <= KEYS; key++) {
+            int value = map.get(key);
+            assertEquals(1, written[value][key], "Key " + key + " kept a value its adder didn't write");
+        }
+    }
+
+    /**
+     * Clearing a grown map empties it and leaves it usable
+     */
+    @Test
+    void clearEmptiesGrownMap() {
+        ConcurrentLongByteMap map = new ConcurrentLongByteMap();
+        map.ensureCapacity(0, 10 * KEYS);
+        for (long key = 1; key <= 10 * KEYS; key++) {
+            map.putIfAbsent(key, (byte) 1);
+        }
+        map.ensureCapacity(10 * KEYS, 0);
+        map.clear();
+        assertEquals(0, map.size());
+        for (long key = 1; key <= 10 * KEYS; key += 997) {
+            assertFalse(map.contains(key));
+        }
+        assertTrue(map.putIfAbsent(5, (byte) 2));
+        assertEquals(2, map.get(5));
+    }
+
+    /**
+     * Clearing a map which never grew empties it
+     */
+    @Test
+    void clearEmptiesSmallMap() {
+        ConcurrentLongByteMap map = new ConcurrentLongByteMap();
+        for (long key = 1; key <= 100; key++) {
+            map.putIfAbsent(key, (byte) 0);
+        }
+        map.clear();
+        for (long key = 1; key <= 100; key++) {
+            assertEquals(ConcurrentLongByteMap.MISSING, map.get(key));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CancellationException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests that 'HDAStar' finds optimal solutions: on random walks from the
+ * goal its depth matches the one of 'IDAStar', whatever the number of threads, with
+ * each engine reused for every puzzle
+ * @author Alex Amado
+ */
+class HDAStarTest {
+    /**
+     * Number of random walks solved for each heuristic
+     */
+    private static final int WALKS = 20;
+
+    /**
+     * HDA* finds solutions as long as IDA* ones, and its paths lead to the goal
+     */
+    @Test
+    void matchesIDAStarDepth() {
+        SearchEngine ida = new IDAStar();
+        SearchEngine[] engines = {new HDAStar(1), new HDAStar(2), new HDAStar(4)};
+        for (String heuristic : new String[] {"h1", "h2"}) {
+            SearchOptions options = SearchOptions.DEFAULT.withRecordPath(true).withHeuristic(heuristic);
+            // Longer walks with h1 take IDA* too long for a unit test
+            int depth = heuristic.equals("h1") ? 20 : 30;
+            long[] walks = PuzzleCorpus.randomWalks(heuristic.hashCode(), depth, WALKS);
+            for (long walk : walks) {
+                String initialState = PackedState.decode(walk);
+                int optimal = ida.solve(initialState, options).getMaxDepth();
+                for (SearchEngine engine : engines) {
+                    SearchResult result = engine.solve(initialState, options);
+                    assertEquals(optimal, result.getMaxDepth(), heuristic + " on \"" + initialState + "\"");
+                    assertEquals(PackedState.reachableGoal(walk), follow(walk, result.getPath()));
+                }
+            }
+        }
+    }
+
+    /**
+     * An engine stopped by its time limit solves the next puzzle correctly
+     */
+    @Test
+    void solvesAfterTimeout() {
+        HDAStar engine = new HDAStar(4);
+        SearchOptions options = SearchOptions.DEFAULT.withHeuristic("h1");
+        for (int i = 0; i < 5; i++) {
+            assertThrows(CancellationException.class,
+                    () -> engine.solve("FEDCBA987654321 ", options.withTimeLimitMillis(1)));
+            SearchResult result = engine.solve("5123A 78946CDEBF", options.withHeuristic("h2"));
+            assertTrue(result.isSolved());
+            assertEquals(20, result.getMaxDepth());
+        }
+    }
+
+    /**
+     * Applies the moves of a path to a state
+     * @param state the packed initial state
+     * @param path the moves of the blank space as letters (R, D, L and U)
+     * @return the packed state the path leads to
+     */
+    private static long follow(long state, String path) {
+        for (char letter : path.toCharArray()) {
+            int blank = PackedState.blankIndex(state);
+            state = PackedState.move(state, blank, Board.moveTarget(blank, PathArena.moveOf(letter)));
+        }
+        return state;
+    }
+}
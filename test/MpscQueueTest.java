@@ -0,0 +1,103 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests 'MpscQueue', alone and drained while many threads append to it
+ * @author Alex Amado
+ */
+class MpscQueueTest {
+    /**
+     * Number of threads appending at once
+     */
+    private static final int PRODUCERS = 4;
+    /**
+     * Number of elements appended by each of them
+     */
+    private static final int PER_PRODUCER = 200_000;
+
+    /**
+     * Elements appended by a single thread come out in order, then the queue is empty
+     */
+    @Test
+    void pollsInOrder() {
+        MpscQueue<Integer> queue = new MpscQueue<>();
+        assertNull(queue.poll());
+        for (int i = 0; i < 100; i++) {
+            queue.offer(i);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, queue.poll());
+        }
+        assertNull(queue.poll());
+    }
+
+    /**
+     * 'clear' drops every element and leaves the queue usable
+     */
+    @Test
+    void clearDropsEverything() {
+        MpscQueue<Integer> queue = new MpscQueue<>();
+        for (int i = 0; i < 10; i++) {
+            queue.offer(i);
+        }
+        queue.clear();
+        assertNull(queue.poll());
+        queue.offer(42);
+        assertEquals(42, queue.poll());
+    }
+
+    /**
+     * While several threads append at once, the consumer takes every element exactly
+     * once, and the elements of each thread in the order it appended them
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void drainsManyProducers() throws InterruptedException {
+        MpscQueue<long[]> queue = new MpscQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < PER_PRODUCER; i++) {
+                    queue.offer(new long[] {producer, i});
+                }
+            });
+            thread.start();
+            producers.add(thread);
+        }
+        start.countDown();
+        int[] next = new int[PRODUCERS];
+        int received = 0;
+        // An element being appended may not be visible yet, so keep polling until all came
+        while (received < PRODUCERS * PER_PRODUCER) {
+            long[] element = queue.poll();
+            if (element == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            int producer = (int) element[0];
+            assertEquals(next[producer], element[1], "Elements of producer " + producer + " out of order");
+            next[producer]++;
+            received++;
+        }
+        for (Thread thread : producers) {
+            thread.join();
+        }
+        assertNull(queue.poll());
+        for (int count : next) {
+            assertEquals(PER_PRODUCER, count);
+        }
+    }
+}